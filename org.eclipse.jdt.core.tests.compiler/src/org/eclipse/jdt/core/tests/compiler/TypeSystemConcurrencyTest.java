@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.tests.junit.extension.TestCase;
+import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ast.ASTNode;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.Wildcard;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.env.AccessRestriction;
+import org.eclipse.jdt.internal.compiler.env.IBinaryType;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.ISourceType;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.impl.ITypeRequestor;
+import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
+import org.eclipse.jdt.internal.compiler.lookup.PackageBinding;
+import org.eclipse.jdt.internal.compiler.lookup.ReferenceBinding;
+import org.eclipse.jdt.internal.compiler.lookup.TypeBinding;
+import org.eclipse.jdt.internal.compiler.lookup.WildcardBinding;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Checks that types derived by several threads resolving against the same lookup environment are interned, as they are
+ * when compiling units in parallel.
+ */
+@SuppressWarnings("nls")
+public class TypeSystemConcurrencyTest extends TestCase {
+
+	private static final int THREADS = 8;
+	private static final int ROUNDS = 1000;
+
+	private FileSystem nameEnvironment;
+	private LookupEnvironment environment;
+
+	public TypeSystemConcurrencyTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+
+		TestSuite suite = new TestSuite(TypeSystemConcurrencyTest.class.getPackageName());
+		suite.addTest(new TestSuite(TypeSystemConcurrencyTest.class));
+		return suite;
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (this.nameEnvironment != null)
+			this.nameEnvironment.cleanup();
+		super.tearDown();
+	}
+
+	private LookupEnvironment createEnvironment(boolean storeAnnotations) {
+		this.nameEnvironment = new FileSystem(Util.getJavaClassLibs(), new String[0], null);
+		CompilerOptions options = new CompilerOptions();
+		options.storeAnnotations = storeAnnotations;
+		ITypeRequestor requestor = new ITypeRequestor() {
+			@Override
+			public void accept(IBinaryType binaryType, PackageBinding packageBinding, AccessRestriction accessRestriction) {
+				TypeSystemConcurrencyTest.this.environment.createBinaryTypeFrom(binaryType, packageBinding, accessRestriction);
+			}
+			@Override
+			public void accept(ICompilationUnit unit, AccessRestriction accessRestriction) {
+				// no sources
+			}
+			@Override
+			public void accept(ISourceType[] sourceType, PackageBinding packageBinding, AccessRestriction accessRestriction) {
+				// no sources
+			}
+		};
+		ProblemReporter problemReporter = new ProblemReporter(DefaultErrorHandlingPolicies.proceedWithAllProblems(), options, new DefaultProblemFactory());
+		return this.environment = new LookupEnvironment(requestor, options, problemReporter, this.nameEnvironment);
+	}
+
+	private ReferenceBinding getType(String qualifiedName) {
+		ReferenceBinding type = this.environment.getType(CharOperation.splitOn('.', qualifiedName.toCharArray()));
+		assertNotNull(qualifiedName, type);
+		return type;
+	}
+
+	private static CompilationUnitDeclaration unit(String fileName) {
+		return new CompilationUnitDeclaration(null, new CompilationResult(fileName.toCharArray(), 0, 1, 0), 0);
+	}
+
+	/** Runs the given function on all threads at once, for all rounds in a different order per thread. */
+	private static TypeBinding[][] runConcurrently(Round round) throws Exception {
+		TypeBinding[][] results = new TypeBinding[THREADS][];
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					start.await();
+					TypeBinding[] result = new TypeBinding[ROUNDS];
+					for (int r = 0; r < ROUNDS; r++) {
+						int k = (r * 7919 + (thread % 2 == 0 ? 0 : ROUNDS / 2)) % ROUNDS;
+						result[k] = round.run(k);
+					}
+					results[thread] = result;
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures)
+				future.get();
+		} finally {
+			executor.shutdown();
+		}
+		return results;
+	}
+
+	interface Round {
+		TypeBinding run(int k);
+	}
+
+	private static void assertSameResults(TypeBinding[][] results) {
+		int mismatches = 0;
+		for (int t = 1; t < THREADS; t++)
+			for (int r = 0; r < ROUNDS; r++)
+				if (results[t][r] != results[0][r])
+					mismatches++;
+		assertEquals("types not interned", 0, mismatches);
+	}
+
+	private void checkDerivedTypes(boolean storeAnnotations) throws Exception {
+		createEnvironment(storeAnnotations);
+		ReferenceBinding list = getType("java.util.List"), map = getType("java.util.Map"), set = getType("java.util.Set");
+		ReferenceBinding function = getType("java.util.function.Function");
+		TypeBinding[] leaves = { getType("java.lang.String"), getType("java.lang.Integer"), getType("java.lang.Number"), getType("java.lang.Object") };
+		LookupEnvironment env = this.environment;
+		assertSameResults(runConcurrently(k -> {
+			TypeBinding a = leaves[k % 4], b = leaves[(k / 4) % 4];
+			TypeBinding wildcard = env.createWildcard(list, 0, a, null, (k / 16) % 2 == 0 ? Wildcard.EXTENDS : Wildcard.SUPER);
+			TypeBinding array = env.createArrayType(b, 1 + (k / 32) % 3);
+			ReferenceBinding generic = (k / 96) % 2 == 0 ? map : function;
+			TypeBinding inner = env.createParameterizedType(list, new TypeBinding[] { (k / 192) % 2 == 0 ? wildcard : array }, null);
+			TypeBinding parameterized = env.createParameterizedType(generic, new TypeBinding[] { inner, env.createParameterizedType(set, new TypeBinding[] { array }, null) }, null);
+			return env.createArrayType(parameterized, 1 + (k / 384) % 2);
+		}));
+	}
+
+	public void testDerivedTypes() throws Exception {
+		checkDerivedTypes(false);
+	}
+
+	public void testDerivedTypesWithAnnotations() throws Exception {
+		checkDerivedTypes(true);
+	}
+
+	/** Captures of different units interleave when those units are resolved at once, each position keeps its capture. */
+	public void testInterleavedCaptures() throws Exception {
+		createEnvironment(false);
+		ReferenceBinding list = getType("java.util.List");
+		ReferenceBinding contextType = getType("java.lang.Object");
+		WildcardBinding wildcard = this.environment.createWildcard(list, 0, getType("java.lang.Number"), null, Wildcard.EXTENDS);
+		ASTNode first = unit("A.java"), second = unit("B.java");
+
+		TypeBinding capture = this.environment.createCapturedWildcard(wildcard, contextType, 10, 20, first, 0);
+		assertNotSame(capture, this.environment.createCapturedWildcard(wildcard, contextType, 10, 20, second, 0));
+		assertSame(capture, this.environment.createCapturedWildcard(wildcard, contextType, 10, 20, first, 0));
+		assertNotSame(capture, this.environment.createCapturedWildcard(wildcard, contextType, 10, 21, first, 0));
+
+		ASTNode[] units = new ASTNode[THREADS];
+		for (int i = 0; i < units.length; i++)
+			units[i] = unit("U" + i + ".java");
+		LookupEnvironment env = this.environment;
+		assertSameResults(runConcurrently(k -> env.createCapturedWildcard(wildcard, contextType, k / THREADS, k / THREADS + 1, units[k % THREADS], 0)));
+	}
+}
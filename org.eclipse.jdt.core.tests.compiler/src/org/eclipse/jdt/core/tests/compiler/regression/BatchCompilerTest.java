@@ -37,15 +37,31 @@
 package org.eclipse.jdt.core.tests.compiler.regression;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import javax.lang.model.SourceVersion;
 
@@ -57,12 +73,16 @@ import org.eclipse.jdt.core.tests.util.AbstractCompilerTest;
 import org.eclipse.jdt.core.tests.util.Util;
 import org.eclipse.jdt.internal.compiler.batch.ClasspathDirectory;
 import org.eclipse.jdt.internal.compiler.batch.ClasspathJar;
+import org.eclipse.jdt.internal.compiler.batch.CompileClient;
+import org.eclipse.jdt.internal.compiler.batch.CompileServer;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem;
 import org.eclipse.jdt.internal.compiler.batch.Main;
+import org.eclipse.jdt.internal.compiler.classfmt.BinaryTypeCache;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
 import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
 import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
 import org.eclipse.jdt.internal.compiler.util.ManifestAnalyzer;
 
@@ -641,6 +661,11 @@ public void test012(){
         "                       created); this option can be overridden per source\n" +
         "                       directory\n" +
         "    -d none            generate no .class files\n" +
+        "    -d <file>.jar      write the .class files into a jar file, with entries\n" +
+        "                       in name order and a fixed time stamp; requires\n" +
+        "                       -proc:none\n" +
+        "    -skipUnchanged     do not rewrite .class files whose contents did not change,\n" +
+        "                       keeping their time stamps\n" +
         "    -encoding <enc>    specify default encoding for all source files. Each\n" +
         "                       file/directory can override it when suffixed with\n" +
         "                       ''[''<enc>'']'' (e.g. X.java[utf8]).\n" +
@@ -766,13 +791,21 @@ public void test012(){
         "    -referenceInfo     compute reference info\n" +
         "    -progress          show progress (only in -log mode)\n" +
         "    -time              display speed information \n" +
+        "    -timeDump <file>   write per phase and per unit times and allocations to\n" +
+        "                       <file>, as CSV if it ends with .csv, as JSON otherwise\n" +
         "    -noExit            do not call System.exit(n) at end of compilation (n==0\n" +
         "                       if no error)\n" +
         "    -repeat <n>        repeat compilation process <n> times for perf analysis\n" +
+        "    -threads <n>       use <n> threads to process compilation units (extra\n" +
+        "                       threads parse method bodies ahead of processing)\n" +
         "    -inlineJSR         inline JSR bytecode (implicit if target >= 1.5)\n" +
         "    -enableJavadoc     consider references in javadoc\n" +
         "    -parameters        generate method parameters attribute (for target >= 1.8)\n" +
         "    -genericsignature  generate generic signature for lambda expressions\n" +
+        "    -fsc4jChecks:<level> runtime checks generated for formal specifications:\n" +
+        "                       none, preconditions or contracts (pre- and\n" +
+        "                       postconditions, exception clauses and invariants;\n" +
+        "                       the default)\n" +
         "    -Xemacs            used to enable emacs-style output in the console.\n" +
         "                       It does not affect the xml log output\n" +
         "    -missingNullDefault  report missing default nullness annotation\n" +
@@ -13250,4 +13283,516 @@ public void testBug573153() {
 	template = template.replace("15", CompilerOptions.getLatestVersion());
 	assertEquals("configure.source is not updated", template, output);
 }
+// -timeDump writes the per phase totals and the statistics of each unit, in unit order, as JSON
+public void testTimeDumpJson() {
+	String dumpFileName = OUTPUT_DIR + File.separator + "times.json";
+	runConformTest(
+		new String[] {
+			"X.java",
+			"public class X {\n" +
+			"	int foo() { return 0; }\n" +
+			"}\n",
+			"Y.java",
+			"public class Y {\n" +
+			"	int bar(X x) { return x.foo(); }\n" +
+			"}\n",
+		},
+		"\"" + OUTPUT_DIR + File.separator + "X.java\""
+		+ " \"" + OUTPUT_DIR + File.separator + "Y.java\""
+		+ " -1.8 -proc:none"
+		+ " -timeDump \"" + dumpFileName + "\""
+		+ " -d \"" + OUTPUT_DIR + File.separator + "bin\"",
+		"",
+		"",
+		true);
+	String phases = timeDumpPhasesPattern("\"%s\": \\{\"nanos\": (\\d+), \"allocatedBytes\": (\\d+)\\}", ", ");
+	String expected =
+		"\\{\n" +
+		"  \"total\": \\{" + phases + "\\},\n" +
+		"  \"units\": \\[\n" +
+		"    \\{\"file\": \"[^\"]*X\\.java\", \"phases\": \\{" + phases + "\\}\\},\n" +
+		"    \\{\"file\": \"[^\"]*Y\\.java\", \"phases\": \\{" + phases + "\\}\\}\n" +
+		"  \\]\n" +
+		"\\}\n";
+	String dump = Util.fileContent(dumpFileName);
+	assertTrue("Unexpected time dump:\n" + dump, Pattern.matches(expected, dump));
+	assertTimeDumpPositive(dump, "\"parse\": \\{\"nanos\": (\\d+)", 3);
+}
+// -timeDump writes CSV if the file name ends with .csv, the totals in a row for the file *
+public void testTimeDumpCsv() {
+	String dumpFileName = OUTPUT_DIR + File.separator + "times.csv";
+	runConformTest(
+		new String[] {
+			"X.java",
+			"public class X {\n" +
+			"	int foo() { return 0; }\n" +
+			"}\n",
+			"Y.java",
+			"public class Y {\n" +
+			"	int bar(X x) { return x.foo(); }\n" +
+			"}\n",
+		},
+		"\"" + OUTPUT_DIR + File.separator + "X.java\""
+		+ " \"" + OUTPUT_DIR + File.separator + "Y.java\""
+		+ " -1.8 -proc:none"
+		+ " -timeDump \"" + dumpFileName + "\""
+		+ " -d \"" + OUTPUT_DIR + File.separator + "bin\"",
+		"",
+		"",
+		true);
+	String values = timeDumpPhasesPattern("(\\d+),(\\d+)", ",");
+	String expected =
+		"file" + timeDumpPhasesPattern(",%1$sNanos,%1$sAllocatedBytes", "") + "\n" +
+		"\\*," + values + "\n" +
+		"[^,\n]*X\\.java," + values + "\n" +
+		"[^,\n]*Y\\.java," + values + "\n";
+	String dump = Util.fileContent(dumpFileName);
+	assertTrue("Unexpected time dump:\n" + dump, Pattern.matches(expected, dump));
+	assertTimeDumpPositive(dump, "(?m)^[^,]*,(\\d+)", 3);
+}
+// with -threads, the units are parsed by worker threads, on which the parse phases are measured
+public void testTimeDumpThreads() {
+	String[] files = new String[2 * 12];
+	StringBuilder commandLine = new StringBuilder();
+	for (int i = 0; i < 12; i++) {
+		files[2 * i] = "C" + i + ".java";
+		files[2 * i + 1] =
+			"public class C" + i + " {\n" +
+			"	int foo(int n) {\n" +
+			"		int sum = 0;\n" +
+			"		for (int i = 0; i < n; i++)\n" +
+			"			sum += i * " + i + ";\n" +
+			"		return sum;\n" +
+			"	}\n" +
+			"}\n";
+		commandLine.append('"').append(OUTPUT_DIR).append(File.separator).append(files[2 * i]).append("\" ");
+	}
+	String dumpFileName = OUTPUT_DIR + File.separator + "times.json";
+	runConformTest(
+		files,
+		commandLine
+		+ " -1.8 -proc:none -threads 4"
+		+ " -timeDump \"" + dumpFileName + "\""
+		+ " -d \"" + OUTPUT_DIR + File.separator + "bin\"",
+		"",
+		"",
+		true);
+	String dump = Util.fileContent(dumpFileName);
+	assertTimeDumpPositive(dump, "\"parse\": \\{\"nanos\": (\\d+)", 13);
+	assertTimeDumpPositive(dump, "\"methodBodyParse\": \\{\"nanos\": (\\d+)", 13);
+	if (CompilerStats.allocatedBytes() > 0) // allocations are measured on this VM
+		assertTimeDumpPositive(dump, "\"methodBodyParse\": \\{\"nanos\": \\d+, \"allocatedBytes\": (\\d+)", 13);
+}
+private static String timeDumpPhasesPattern(String phaseFormat, String separator) {
+	StringBuilder pattern = new StringBuilder();
+	for (int phase = 0; phase < CompilerStats.PHASE_NAMES.length; phase++) {
+		if (phase > 0)
+			pattern.append(separator);
+		pattern.append(String.format(phaseFormat, CompilerStats.PHASE_NAMES[phase]));
+	}
+	return pattern.toString();
+}
+// asserts that the first group of each match of the given pattern, a figure of a measured phase, is positive
+private static void assertTimeDumpPositive(String dump, String pattern, int expectedCount) {
+	Matcher matcher = Pattern.compile(pattern).matcher(dump);
+	int count = 0;
+	while (matcher.find()) {
+		assertTrue("Unmeasured phase in time dump:\n" + dump, Long.parseLong(matcher.group(1)) > 0);
+		count++;
+	}
+	assertEquals("Unexpected number of phases in time dump:\n" + dump, expectedCount, count);
+}
+// starts a compile server in this VM, answers its thread once the server is listening
+private static Thread startCompileServer(File portFile) throws InterruptedException {
+	portFile.delete();
+	Thread server = new Thread(() -> {
+		try {
+			CompileServer.main(new String[] { "-portFile", portFile.getPath(), "-idleTimeout", "120" });
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}, "Compile Server");
+	server.setDaemon(true);
+	server.start();
+	for (int i = 0; i < 200 && portFile.length() == 0; i++)
+		Thread.sleep(50);
+	assertTrue("Compile server did not start", portFile.length() > 0);
+	return server;
+}
+private static void stopCompileServer(File portFile, Thread server) throws InterruptedException {
+	assertEquals("Unexpected stop exit code", Integer.valueOf(0), CompileClient.request(portFile, null, System.out, System.err));
+	server.join(10000);
+	assertFalse("Compile server did not stop", server.isAlive());
+	assertFalse("Port file not deleted", portFile.exists());
+}
+// asks the compile server to compile the given command line, answers the exit code followed by what it printed
+private static String requestCompilation(File portFile, String commandLine) {
+	ByteArrayOutputStream out = new ByteArrayOutputStream(), err = new ByteArrayOutputStream();
+	Integer exitCode;
+	try (PrintStream outStream = new PrintStream(out, true); PrintStream errStream = new PrintStream(err, true)) {
+		exitCode = CompileClient.request(portFile, Main.tokenize(commandLine), outStream, errStream);
+	}
+	return exitCode + "\n" + new String(out.toByteArray()) + new String(err.toByteArray());
+}
+// the compile server runs the compilations requested by clients, one after the other
+public void testCompileServerRoundTrip() throws Exception {
+	new File(OUTPUT_DIR).mkdirs();
+	File portFile = new File(OUTPUT_DIR, "server.port");
+	Util.writeToFile(
+		"public class X {\n" +
+		"	Zork z;\n" +
+		"}\n",
+		OUTPUT_DIR + File.separator + "X.java");
+	Thread server = startCompileServer(portFile);
+	try {
+		String commandLine = "\"" + OUTPUT_DIR + File.separator + "X.java\" -1.8 -proc:none -d \"" + OUTPUT_DIR + File.separator + "bin\"";
+		String result = requestCompilation(portFile, commandLine);
+		assertTrue("Unexpected result:\n" + result, result.startsWith("-1\n"));
+		assertTrue("Unexpected result:\n" + result, result.contains("Zork cannot be resolved to a type"));
+		assertFalse("Unexpected class file", new File(OUTPUT_DIR, "bin" + File.separator + "X.class").exists());
+
+		Util.writeToFile(
+			"public class X {\n" +
+			"	String s;\n" +
+			"}\n",
+			OUTPUT_DIR + File.separator + "X.java");
+		assertEquals("Unexpected result", "0\n", requestCompilation(portFile, commandLine));
+		assertTrue("Missing class file", new File(OUTPUT_DIR, "bin" + File.separator + "X.class").exists());
+	} finally {
+		stopCompileServer(portFile, server);
+	}
+}
+// the compile server drops the connection of a malformed request, and keeps serving
+public void testCompileServerMalformedRequest() throws Exception {
+	new File(OUTPUT_DIR).mkdirs();
+	File portFile = new File(OUTPUT_DIR, "server.port");
+	Util.writeToFile("public class X {}\n", OUTPUT_DIR + File.separator + "X.java");
+	Thread server = startCompileServer(portFile);
+	try {
+		String[] portAndSecret = new String(Files.readAllBytes(portFile.toPath()), StandardCharsets.UTF_8).trim().split(" ");
+		byte[] secret = portAndSecret[1].getBytes(StandardCharsets.UTF_8);
+		byte[] directory = new File(System.getProperty("user.dir")).getAbsolutePath().getBytes(StandardCharsets.UTF_8);
+		int[][] malformedRequests = {
+			{ secret.length, Integer.MAX_VALUE }, // argument count
+			{ secret.length, -2 }, // argument count
+			{ -1 }, // secret length
+			{ Integer.MAX_VALUE }, // secret length
+			{ secret.length, 1, Integer.MAX_VALUE }, // argument length
+			{ secret.length, 1, -5 }, // argument length
+		};
+		for (int[] request : malformedRequests) {
+			try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(portAndSecret[0]))) {
+				socket.setSoTimeout(10000);
+				DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+				out.writeInt(CompileServer.PROTOCOL_VERSION);
+				out.writeInt(request[0]);
+				if (request.length > 1) {
+					out.write(secret);
+					out.writeInt(directory.length);
+					out.write(directory);
+					for (int i = 1; i < request.length; i++)
+						out.writeInt(request[i]);
+				}
+				out.flush();
+				assertEquals("Connection not dropped", -1, socket.getInputStream().read());
+			}
+		}
+		String commandLine = "\"" + OUTPUT_DIR + File.separator + "X.java\" -1.8 -proc:none -d \"" + OUTPUT_DIR + File.separator + "bin\"";
+		assertEquals("Unexpected result", "0\n", requestCompilation(portFile, commandLine));
+	} finally {
+		stopCompileServer(portFile, server);
+	}
+}
+private static final String CACHED_LIB_SOURCE =
+	"package p;\n" +
+	"public class Lib {\n" +
+	"	public static int answer() { return 42; }\n" +
+	"}\n";
+// the same class file length, with a different method
+private static final String CHANGED_LIB_SOURCE =
+	"package p;\n" +
+	"public class Lib {\n" +
+	"	public static int result() { return 42; }\n" +
+	"}\n";
+private void runBinaryTypeCacheTest(String classpath, boolean expectedSuccess) {
+	String[] sources = {
+		"X.java",
+		"public class X {\n" +
+		"	int foo() {\n" +
+		"		return p.Lib.answer();\n" +
+		"	}\n" +
+		"}\n",
+	};
+	String commandLine = "\"" + OUTPUT_DIR + File.separator + "X.java\""
+		+ " -cp \"" + classpath + "\""
+		+ " -1.8 -proc:none"
+		+ " -d \"" + OUTPUT_DIR + File.separator + "bin\"";
+	if (expectedSuccess)
+		runConformTest(sources, commandLine, "", "", false);
+	else
+		runNegativeTest(
+			sources,
+			commandLine,
+			"",
+			"----------\n" +
+			"1. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/X.java (at line 3)\n" +
+			"	return p.Lib.answer();\n" +
+			"	             ^^^^^^\n" +
+			"The method answer() is undefined for the type Lib\n" +
+			"----------\n" +
+			"1 problem (1 error)\n",
+			false);
+}
+// the binary type cache shares the class files of a jar between compilations until the jar changes
+public void testBinaryTypeCacheJar() throws IOException {
+	new File(OUTPUT_DIR).mkdirs();
+	String jarPath = OUTPUT_DIR + File.separator + "lib.jar";
+	Util.createJar(new String[] { "p/Lib.java", CACHED_LIB_SOURCE }, jarPath, JavaCore.VERSION_1_8);
+	BinaryTypeCache.enable();
+	try {
+		runBinaryTypeCacheTest(jarPath, true);
+		long hits = BinaryTypeCache.getHits();
+		runBinaryTypeCacheTest(jarPath, true);
+		assertTrue("Class files not shared", BinaryTypeCache.getHits() > hits);
+
+		File jar = new File(jarPath);
+		long lastModified = jar.lastModified();
+		Util.createJar(new String[] { "p/Lib.java", CHANGED_LIB_SOURCE }, jarPath, JavaCore.VERSION_1_8);
+		jar.setLastModified(lastModified + 10000);
+		runBinaryTypeCacheTest(jarPath, false);
+	} finally {
+		BinaryTypeCache.disable();
+	}
+}
+// class files in directories are not cached: a build may rewrite one without changing its time stamp or length
+public void testBinaryTypeCacheDirectory() {
+	String libPath = OUTPUT_DIR + File.separator + "lib";
+	String libCommandLine = "\"" + OUTPUT_DIR + File.separator + "p" + File.separator + "Lib.java\""
+		+ " -1.8 -proc:none"
+		+ " -d \"" + libPath + "\"";
+	runConformTest(new String[] { "p/Lib.java", CACHED_LIB_SOURCE }, libCommandLine, "", "", true);
+	File classFile = new File(libPath, "p" + File.separator + "Lib.class");
+	long lastModified = classFile.lastModified();
+	long length = classFile.length();
+	BinaryTypeCache.enable();
+	try {
+		runBinaryTypeCacheTest(libPath, true);
+
+		runConformTest(new String[] { "p/Lib.java", CHANGED_LIB_SOURCE }, libCommandLine, "", "", false);
+		assertEquals("Unexpected class file length", length, classFile.length());
+		classFile.setLastModified(lastModified);
+		runBinaryTypeCacheTest(libPath, false);
+	} finally {
+		BinaryTypeCache.disable();
+	}
+}
+// compiles p.Lib into OUTPUT_DIR/lib, then X against it after corrupting Lib.class, expecting the given problems
+private void runCorruptClassFileTest(UnaryOperator<byte[]> corruption, String expectedProblems) throws IOException {
+	String libPath = OUTPUT_DIR + File.separator + "lib";
+	runConformTest(
+		new String[] {
+			"p/Lib.java",
+			"package p;\n" +
+			"public class Lib {\n" +
+			"	public int field;\n" +
+			"	public static int answer() { return 42; }\n" +
+			"	@Deprecated public void old() {}\n" +
+			"}\n",
+		},
+		"\"" + OUTPUT_DIR + File.separator + "p" + File.separator + "Lib.java\""
+		+ " -1.8 -proc:none"
+		+ " -d \"" + libPath + "\"",
+		"",
+		"",
+		true);
+	File classFile = new File(libPath, "p" + File.separator + "Lib.class");
+	Files.write(classFile.toPath(), corruption.apply(Files.readAllBytes(classFile.toPath())));
+	runNegativeTest(
+		new String[] {
+			"X.java",
+			"public class X {\n" +
+			"	int foo() {\n" +
+			"		return p.Lib.answer();\n" +
+			"	}\n" +
+			"}\n",
+		},
+		"\"" + OUTPUT_DIR + File.separator + "X.java\""
+		+ " -cp \"" + libPath + "\""
+		+ " -1.8 -proc:none"
+		+ " -d \"" + OUTPUT_DIR + File.separator + "bin\"",
+		"",
+		expectedProblems,
+		false);
+}
+// answers the offset of the first attribute of the last method of the given class file
+private static int lastMethodAttributeOffset(byte[] classFile) {
+	ByteBuffer buffer = ByteBuffer.wrap(classFile);
+	buffer.position(8);
+	int constantPoolCount = buffer.getShort() & 0xFFFF;
+	for (int i = 1; i < constantPoolCount; i++) {
+		int tag = buffer.get();
+		int length;
+		switch (tag) {
+			case 1: length = buffer.getShort() & 0xFFFF; break; // Utf8
+			case 5: case 6: length = 8; i++; break; // Long, Double
+			case 7: case 8: case 16: case 19: case 20: length = 2; break; // Class, String, MethodType, Module, Package
+			case 15: length = 3; break; // MethodHandle
+			default: length = 4;
+		}
+		buffer.position(buffer.position() + length);
+	}
+	buffer.position(buffer.position() + 6); // access flags, this class, super class
+	int interfaceCount = buffer.getShort() & 0xFFFF;
+	buffer.position(buffer.position() + 2 * interfaceCount);
+	int lastAttributeOffset = -1;
+	for (int members = 0; members < 2; members++) { // fields, then methods
+		for (int count = buffer.getShort() & 0xFFFF; count > 0; count--) {
+			buffer.position(buffer.position() + 6); // access flags, name, descriptor
+			int attributeCount = buffer.getShort() & 0xFFFF;
+			lastAttributeOffset = attributeCount > 0 ? buffer.position() : -1;
+			for (; attributeCount > 0; attributeCount--) {
+				buffer.getShort(); // name
+				int attributeLength = buffer.getInt();
+				buffer.position(buffer.position() + attributeLength);
+			}
+		}
+	}
+	return lastAttributeOffset;
+}
+// a truncated class file is answered as missing
+public void testTruncatedClassFile() throws IOException {
+	runCorruptClassFileTest(bytes -> Arrays.copyOf(bytes, bytes.length / 2),
+		"----------\n" +
+		"1. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/X.java (at line 3)\n" +
+		"	return p.Lib.answer();\n" +
+		"	       ^^^^^\n" +
+		"p.Lib cannot be resolved to a type\n" +
+		"----------\n" +
+		"1 problem (1 error)\n");
+}
+// a class file whose member infos are malformed is found out only once its members are needed, and is reported then
+public void testCorruptMemberInfo() throws IOException {
+	runCorruptClassFileTest(bytes -> {
+		int offset = lastMethodAttributeOffset(bytes);
+		assertTrue("No method attribute", offset > 0);
+		bytes[offset] = bytes[offset + 1] = (byte) 0xFF; // attribute name index beyond the constant pool
+		return bytes;
+	},
+	"----------\n" +
+	"1. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/X.java (at line 1)\n" +
+	"	public class X {\n" +
+	"	^\n" +
+	"The type p.Lib cannot be resolved. It is indirectly referenced from required .class files\n" +
+	"----------\n" +
+	"2. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/X.java (at line 3)\n" +
+	"	return p.Lib.answer();\n" +
+	"	             ^^^^^^\n" +
+	"The method answer() is undefined for the type Lib\n" +
+	"----------\n" +
+	"2 problems (2 errors)\n");
+}
+// compiles A and B with -skipUnchanged, the second time with the given body of B.value()
+private void runSkipUnchangedTest(String valueBody, boolean shouldFlushOutputDirectory) {
+	runConformTest(
+		new String[] {
+			"p/A.java",
+			"package p;\n" +
+			"public class A {}\n",
+			"p/B.java",
+			"package p;\n" +
+			"public class B {\n" +
+			"	int value() { " + valueBody + " }\n" +
+			"}\n",
+		},
+		"\"" + OUTPUT_DIR + File.separator + "p" + File.separator + "A.java\""
+		+ " \"" + OUTPUT_DIR + File.separator + "p" + File.separator + "B.java\""
+		+ " -1.8 -proc:none -skipUnchanged"
+		+ " -d \"" + OUTPUT_DIR + File.separator + "bin\"",
+		"",
+		"",
+		shouldFlushOutputDirectory);
+}
+// -skipUnchanged leaves an unchanged class file alone, but rewrites one whose contents changed
+public void testSkipUnchanged() throws IOException {
+	runSkipUnchangedTest("return 1;", true);
+	File classA = new File(OUTPUT_DIR, "bin" + File.separator + "p" + File.separator + "A.class");
+	File classB = new File(OUTPUT_DIR, "bin" + File.separator + "p" + File.separator + "B.class");
+	byte[] previousB = Files.readAllBytes(classB.toPath());
+	long past = (System.currentTimeMillis() - 3600000) / 1000 * 1000;
+	assertTrue(classA.setLastModified(past));
+	assertTrue(classB.setLastModified(past));
+	runSkipUnchangedTest("return 2;", false);
+	assertEquals("Unchanged class file rewritten", past, classA.lastModified());
+	assertTrue("Changed class file not rewritten", classB.lastModified() != past);
+	assertFalse("Changed class file not rewritten", Arrays.equals(previousB, Files.readAllBytes(classB.toPath())));
+}
+// compiles X, p.B and p.a.A into the given jar file, and answers its contents
+private byte[] runJarOutputTest(String jarPath) throws IOException {
+	runConformTest(
+		new String[] {
+			"X.java",
+			"public class X {\n" +
+			"	public static String run() {\n" +
+			"		return new p.B() + \" \" + new p.a.A();\n" +
+			"	}\n" +
+			"}\n",
+			"p/B.java",
+			"package p;\n" +
+			"public class B {\n" +
+			"	public String toString() { return \"B\"; }\n" +
+			"}\n",
+			"p/a/A.java",
+			"package p.a;\n" +
+			"public class A {\n" +
+			"	public String toString() { return \"A\"; }\n" +
+			"}\n",
+		},
+		"\"" + OUTPUT_DIR + File.separator + "X.java\""
+		+ " \"" + OUTPUT_DIR + File.separator + "p" + File.separator + "B.java\""
+		+ " \"" + OUTPUT_DIR + File.separator + "p" + File.separator + "a" + File.separator + "A.java\""
+		+ " -1.8 -proc:none"
+		+ " -d \"" + jarPath + "\"",
+		"",
+		"",
+		true);
+	return Files.readAllBytes(new File(jarPath).toPath());
+}
+// -d <file>.jar writes a jar file with its entries in name order, the same way each time
+public void testJarOutput() throws Exception {
+	String jarPath = OUTPUT_DIR + File.separator + "out.jar";
+	byte[] jar = runJarOutputTest(jarPath);
+	StringBuilder entries = new StringBuilder();
+	try (ZipInputStream input = new ZipInputStream(new ByteArrayInputStream(jar))) {
+		for (ZipEntry entry; (entry = input.getNextEntry()) != null;)
+			if (!entry.getName().startsWith("fsc4j/")) // the fsc4j runtime
+				entries.append(entry.getName()).append('\n');
+	}
+	assertEquals("Unexpected entries",
+		"META-INF/\n" +
+		"META-INF/MANIFEST.MF\n" +
+		"X.class\n" +
+		"p/\n" +
+		"p/B.class\n" +
+		"p/a/\n" +
+		"p/a/A.class\n",
+		entries.toString());
+	assertTrue("Different jar file for the same sources", Arrays.equals(jar, runJarOutputTest(jarPath)));
+	try (URLClassLoader loader = new URLClassLoader(new URL[] { new File(jarPath).toURI().toURL() }, null)) {
+		assertEquals("Unexpected result", "B A", loader.loadClass("X").getMethod("run").invoke(null));
+	}
+}
+// annotation processors only write into directories, so a jar file destination requires -proc:none
+public void testJarOutputWithAnnotationProcessing() {
+	runNegativeTest(
+		new String[] {
+			"X.java",
+			"public class X {}\n",
+		},
+		"\"" + OUTPUT_DIR + File.separator + "X.java\""
+		+ " -1.8"
+		+ " -d \"" + OUTPUT_DIR + File.separator + "out.jar\"",
+		"",
+		"annotation processors cannot write into the jar file destination ---OUTPUT_DIR_PLACEHOLDER---/out.jar; use -proc:none or a destination directory\n",
+		true);
+}
 }
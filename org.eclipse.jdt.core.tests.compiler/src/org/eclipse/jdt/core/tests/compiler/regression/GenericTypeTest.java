@@ -52856,6 +52856,52 @@ public void testBug543480WithSameSubSuperOptimization() {
 		assertCompileTimes(durationsFor2TypeParameters, 10, durationsFor12TypeParameters);
 	}
 }
+/**
+ * Incorporation only combines bounds that share an inference variable, and combines each parameterized dependency
+ * with the proper types of a round only once, so compile time must not grow with the cube of the number of bounds.
+ */
+public void testIncorporationOfManyParameterizedDependencies() {
+	if (this.complianceLevel >= ClassFileConstants.JDK1_8) {
+		final List<Duration> durationsFor2TypeParameters = compileTimesAfterWarmup(() -> runConformTest(
+			new String[] {
+					"ManyParameterizedDependencies_2.java",
+					"abstract class ManyParameterizedDependencies_2 {\n" +
+					"    <T1, T2>\n" +
+					"           Type1<T1, T2>\n" +
+					"           s1(Type1<T1, T2> t) {\n" +
+					"        s2(new Type1<>(t));\n" +
+					"        s2(new Type1<>(t));\n" +
+					"        s2(new Type1<>(t));\n" +
+					"        return s2(new Type1<>(t));\n" +
+					"    }\n" +
+					"    abstract <E> E s2(E e);\n" +
+					"}\n" +
+					"class Type1<T1, T2> {\n" +
+					"    Type1(final Type1<T1, T2> l) {}\n" +
+					"}\n"
+			}));
+		final List<Duration> durationsFor40TypeParameters = compileTimesAfterWarmup(() -> runConformTest(
+			new String[] {
+					"ManyParameterizedDependencies_40.java",
+					"abstract class ManyParameterizedDependencies_40 {\n" +
+					"    <T1, T2, T3, T4, T5, T6, T7, T8, T9, T10, T11, T12, T13, T14, T15, T16, T17, T18, T19, T20, T21, T22, T23, T24, T25, T26, T27, T28, T29, T30, T31, T32, T33, T34, T35, T36, T37, T38, T39, T40>\n" +
+					"           Type1<T1, T2, T3, T4, T5, T6, T7, T8, T9, T10, T11, T12, T13, T14, T15, T16, T17, T18, T19, T20, T21, T22, T23, T24, T25, T26, T27, T28, T29, T30, T31, T32, T33, T34, T35, T36, T37, T38, T39, T40>\n" +
+					"           s1(Type1<T1, T2, T3, T4, T5, T6, T7, T8, T9, T10, T11, T12, T13, T14, T15, T16, T17, T18, T19, T20, T21, T22, T23, T24, T25, T26, T27, T28, T29, T30, T31, T32, T33, T34, T35, T36, T37, T38, T39, T40> t) {\n" +
+					"        s2(new Type1<>(t));\n" +
+					"        s2(new Type1<>(t));\n" +
+					"        s2(new Type1<>(t));\n" +
+					"        return s2(new Type1<>(t));\n" +
+					"    }\n" +
+					"    abstract <E> E s2(E e);\n" +
+					"}\n" +
+					"class Type1<T1, T2, T3, T4, T5, T6, T7, T8, T9, T10, T11, T12, T13, T14, T15, T16, T17, T18, T19, T20, T21, T22, T23, T24, T25, T26, T27, T28, T29, T30, T31, T32, T33, T34, T35, T36, T37, T38, T39, T40> {\n" +
+					"    Type1(final Type1<T1, T2, T3, T4, T5, T6, T7, T8, T9, T10, T11, T12, T13, T14, T15, T16, T17, T18, T19, T20, T21, T22, T23, T24, T25, T26, T27, T28, T29, T30, T31, T32, T33, T34, T35, T36, T37, T38, T39, T40> l) {}\n" +
+					"}\n"
+			}));
+		// To make the test robust, it tests for the same order of magnitude only, i.e. factor 10.
+		assertCompileTimes(durationsFor2TypeParameters, 10, durationsFor40TypeParameters);
+	}
+}
 /**
  * An earlier version of the fix for bug 543480 causes a NullPointerException when compiling this code.
  */
@@ -52906,6 +52952,63 @@ public void testBugBug571785_001() {
 	}
 }
 
+/**
+ * Repeated invocations with the same shape reuse the outcome of inference, but must still report their diagnostics.
+ */
+public void testRepeatedInvocationDiagnostics() {
+	if (this.complianceLevel >= ClassFileConstants.JDK1_8) {
+		runNegativeTest(
+			new String[] {
+				"X.java",
+				"public class X {\n" +
+				"	static <T extends Comparable<T>> T id(T t) { return t; }\n" +
+				"	static <E extends Comparable<E>> E sel(E a, E b) { return a; }\n" +
+				"	<T, U extends Number> T foo(T t, U u) { return t; }\n" +
+				"	@SuppressWarnings(\"rawtypes\")\n" +
+				"	void test(Comparable raw) {\n" +
+				"		id(raw);\n" +
+				"		id(raw);\n" +
+				"		sel(raw, raw);\n" +
+				"		sel(raw, raw);\n" +
+				"		this.<String, X>foo(\"\", null);\n" +
+				"		this.<String, X>foo(\"\", null);\n" +
+				"	}\n" +
+				"}\n"
+			},
+			"----------\n" +
+			"1. WARNING in X.java (at line 7)\n" +
+			"	id(raw);\n" +
+			"	^^^^^^^\n" +
+			"Type safety: Unchecked invocation id(Comparable) of the generic method id(T) of type X\n" +
+			"----------\n" +
+			"2. WARNING in X.java (at line 8)\n" +
+			"	id(raw);\n" +
+			"	^^^^^^^\n" +
+			"Type safety: Unchecked invocation id(Comparable) of the generic method id(T) of type X\n" +
+			"----------\n" +
+			"3. WARNING in X.java (at line 9)\n" +
+			"	sel(raw, raw);\n" +
+			"	^^^^^^^^^^^^^\n" +
+			"Type safety: Unchecked invocation sel(Comparable, Comparable) of the generic method sel(E, E) of type X\n" +
+			"----------\n" +
+			"4. WARNING in X.java (at line 10)\n" +
+			"	sel(raw, raw);\n" +
+			"	^^^^^^^^^^^^^\n" +
+			"Type safety: Unchecked invocation sel(Comparable, Comparable) of the generic method sel(E, E) of type X\n" +
+			"----------\n" +
+			"5. ERROR in X.java (at line 11)\n" +
+			"	this.<String, X>foo(\"\", null);\n" +
+			"	                ^^^\n" +
+			"Bound mismatch: The generic method foo(T, U) of type X is not applicable for the arguments (String, null). The inferred type X is not a valid substitute for the bounded parameter <U extends Number>\n" +
+			"----------\n" +
+			"6. ERROR in X.java (at line 12)\n" +
+			"	this.<String, X>foo(\"\", null);\n" +
+			"	                ^^^\n" +
+			"Bound mismatch: The generic method foo(T, U) of type X is not applicable for the arguments (String, null). The inferred type X is not a valid substitute for the bounded parameter <U extends Number>\n" +
+			"----------\n");
+	}
+}
+
 protected void assertCompileTimes(final List<Duration> shortTimes, final double factor, final List<Duration> longTimes) {
 	final double shortTimesAverage = minExcludingBoundaries(shortTimes);
 	final double longTimesAverage = minExcludingBoundaries(longTimes);
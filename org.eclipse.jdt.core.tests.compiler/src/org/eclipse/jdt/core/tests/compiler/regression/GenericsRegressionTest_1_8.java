@@ -10361,4 +10361,33 @@ public void testBug508834_comment0() {
 				"}\n"
 			});
 	}
+	// bounds between inference variables survive the bound set copies made for overloads and lambdas
+	public void testBoundSetCopies() {
+		runConformTest(
+			new String[] {
+				"X.java",
+				"import java.util.*;\n" +
+				"import java.util.function.*;\n" +
+				"import java.util.stream.*;\n" +
+				"public class X {\n" +
+				"	static <T, K, V> Map<K, List<V>> index(Collection<T> items, Function<? super T, ? extends K> key, Function<? super T, ? extends V> value) {\n" +
+				"		return items.stream().collect(Collectors.groupingBy(key, TreeMap::new, Collectors.mapping(value, Collectors.toList())));\n" +
+				"	}\n" +
+				"	static <T> T pick(Supplier<T> supplier) { return supplier.get(); }\n" +
+				"	static <T> T pick(T value, BinaryOperator<T> merge) { return merge.apply(value, value); }\n" +
+				"	public static void main(String[] args) {\n" +
+				"		List<String> words = Arrays.asList(\"bb\", \"a\", \"ccc\", \"dd\");\n" +
+				"		Map<Integer, List<String>> byLength = index(words, String::length, w -> w.toUpperCase());\n" +
+				"		Map<Boolean, Long> counts = words.stream().collect(Collectors.partitioningBy(w -> w.length() > 1, Collectors.counting()));\n" +
+				"		String joined = Stream.of(words, Arrays.asList(\"e\")).flatMap(List::stream)\n" +
+				"			.sorted(Comparator.comparing(String::length).thenComparing(Function.identity()))\n" +
+				"			.collect(Collectors.joining(\",\"));\n" +
+				"		Optional<String> longest = pick(() -> words.stream().reduce((a, b) -> a.length() >= b.length() ? a : b));\n" +
+				"		String twice = pick(\"x\", String::concat);\n" +
+				"		System.out.println(byLength + \" \" + counts + \" \" + joined + \" \" + longest.get() + \" \" + twice);\n" +
+				"	}\n" +
+				"}\n"
+			},
+			"{1=[A], 2=[BB, DD], 3=[CCC]} {false=1, true=3} a,e,bb,dd,ccc ccc xx");
+	}
 }
@@ -13,7 +13,12 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.tests.compiler.regression;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 //import org.apache.tools.ant.types.selectors.SelectorUtils;
 import org.eclipse.core.runtime.CoreException;
@@ -743,6 +748,74 @@ public void test73b() { // previous test cases but with 3.3 behavior
 	// Verify that there were no unexpected results
     assertTrue(this.camelCaseErrors.toString(), this.camelCaseErrors.length()==0);
 }
+private static byte[] concat(byte[]... parts) {
+	ByteArrayOutputStream stream = new ByteArrayOutputStream();
+	for (byte[] part : parts)
+		stream.write(part, 0, part.length);
+	return stream.toByteArray();
+}
+private static byte[] padding(int length) {
+	byte[] bytes = new byte[length];
+	Arrays.fill(bytes, (byte) 'a');
+	return bytes;
+}
+/**
+ * Assert that Util.getMappedFileCharContent decodes the given UTF-8 bytes into the expected characters, whether
+ * large files are mapped or read.
+ */
+void assertFileCharContent(byte[] bytes, String expected) throws IOException {
+	File directory = new File(OUTPUT_DIR);
+	directory.mkdirs();
+	File file = new File(directory, getName() + ".java");
+	Files.write(file.toPath(), bytes);
+	try {
+		assertEquals("mapped", expected, new String(org.eclipse.jdt.internal.compiler.util.Util.getMappedFileCharContent(file, "UTF-8")));
+		org.eclipse.jdt.internal.compiler.util.Util.setFileMapping(false);
+		assertEquals("read", expected, new String(org.eclipse.jdt.internal.compiler.util.Util.getMappedFileCharContent(file, "UTF-8")));
+	} finally {
+		org.eclipse.jdt.internal.compiler.util.Util.setFileMapping(true);
+		file.delete();
+	}
+}
+public void testFileCharContentBom() throws IOException {
+	byte[] bom = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+	byte[] contents = "class X {}".getBytes(StandardCharsets.UTF_8);
+	assertFileCharContent(concat(bom, contents), "class X {}");
+	byte[] largeContents = concat(padding(org.eclipse.jdt.internal.compiler.util.Util.MAPPED_FILE_THRESHOLD), contents);
+	assertFileCharContent(concat(bom, largeContents), new String(largeContents, StandardCharsets.UTF_8));
+}
+public void testFileCharContentMultibyte() throws IOException {
+	byte[] contents = "// \u20ac \ud83d\ude00\nclass X {}".getBytes(StandardCharsets.UTF_8);
+	assertFileCharContent(contents, new String(contents, StandardCharsets.UTF_8));
+}
+public void testFileCharContentMultibyteAcrossBuffers() throws IOException {
+	// a mapped file is decoded through a buffer of MAPPED_FILE_THRESHOLD bytes: a three byte character starts
+	// right before the end of the first buffer and a four byte one right before the end of the second
+	int threshold = org.eclipse.jdt.internal.compiler.util.Util.MAPPED_FILE_THRESHOLD;
+	byte[] contents = concat(
+			padding(threshold - 1),
+			"\u20ac".getBytes(StandardCharsets.UTF_8),
+			padding(threshold - 3),
+			"\ud83d\ude00".getBytes(StandardCharsets.UTF_8),
+			padding(10));
+	assertFileCharContent(contents, new String(contents, StandardCharsets.UTF_8));
+}
+public void testFileCharContentMalformed() throws IOException {
+	// malformed bytes, and a character truncated by the end of the file, are replaced
+	byte[] malformed = { (byte) 0xFF, 'b', (byte) 0x80, 'c' };
+	byte[] truncated = { (byte) 0xE2, (byte) 0x82 };
+	byte[] contents = concat(padding(10), malformed, truncated);
+	assertFileCharContent(contents, new String(contents, StandardCharsets.UTF_8));
+	byte[] largeContents = concat(padding(100), malformed, padding(org.eclipse.jdt.internal.compiler.util.Util.MAPPED_FILE_THRESHOLD), truncated);
+	assertFileCharContent(largeContents, new String(largeContents, StandardCharsets.UTF_8));
+}
+public void testFileCharContentLarge() throws IOException {
+	StringBuilder source = new StringBuilder("class X {\n");
+	for (int i = 0; source.length() < 4 * org.eclipse.jdt.internal.compiler.util.Util.MAPPED_FILE_THRESHOLD; i++)
+		source.append("\tint field").append(i).append(" = ").append(i).append(";\n");
+	source.append("}\n");
+	assertFileCharContent(source.toString().getBytes(StandardCharsets.UTF_8), source.toString());
+}
 public static Class testClass() {
 	return UtilTest.class;
 }
@@ -804,4 +804,44 @@ public class FullSourceWorkspaceBuildTests extends FullSourceWorkspaceTests {
 		tagAsSummary("Build with Generic Types ", false); // do NOT put in fingerprint
 		compile(new String[] {"GenericsTest.java"}, "", "1.8", false /*no log*/ );
 	}
+
+	/**
+	 * Test performance of method and field lookups through deep JDK hierarchies.
+	 * Each access on a Swing component is looked up in every supertype up to java.lang.Object.
+	 */
+	public void testMemberLookupInSwingHierarchy() throws IOException {
+		tagAsSummary("Build Swing member lookups ", false); // do NOT put in fingerprint
+		final String targetWorkspacePath = ResourcesPlugin.getWorkspace().getRoot().getLocation().toFile().getCanonicalPath();
+		String logFileName = targetWorkspacePath + File.separator + getName()+".log";
+		String path = targetWorkspacePath + File.separator + "SwingLookups.java";
+		org.eclipse.jdt.core.tests.util.Util.writeToFile(swingLookupsSource(400), path);
+		if (path.indexOf(" ") > 0) {
+			path = "\"" + path + "\"";
+		}
+		compile(" " + path, "", "", "1.8", false /*no log*/, logFileName);
+	}
+
+	/*
+	 * Source of a class with the given number of methods accessing members of Swing components,
+	 * most of which are inherited from distant supertypes.
+	 */
+	private static String swingLookupsSource(int methodCount) {
+		String[] accesses = {
+			"b.getText()", "b.getActionCommand()", "b.getModel()", "b.isOpaque()", "b.getToolTipText()",
+			"b.getInsets()", "b.getComponentCount()", "b.getLayout()", "b.getBounds()", "b.isEnabled()",
+			"b.getParent()", "b.getName()", "b.getFont()", "b.hashCode()", "b.toString()",
+			"t.getRowCount()", "t.getSelectedRow()", "t.getColumnModel()", "t.getSize()", "t.getClass()",
+			"p.getDocument()", "p.getCaretPosition()", "p.isEditable()", "p.getUI()", "p.isShowing()",
+			"b.WIDTH", "t.AUTO_RESIZE_OFF", "SwingConstants.CENTER"
+		};
+		StringBuilder source = new StringBuilder("import javax.swing.*;\npublic class SwingLookups {\n");
+		for (int i = 0; i < methodCount; i++) {
+			source.append("\tObject m").append(i).append("(JButton b, JTable t, JTextPane p) {\n");
+			for (int j = 0; j < accesses.length; j++) {
+				source.append("\t\tObject o").append(j).append(" = ").append(accesses[j]).append(";\n");
+			}
+			source.append("\t\treturn null;\n\t}\n");
+		}
+		return source.append("}\n").toString();
+	}
 }
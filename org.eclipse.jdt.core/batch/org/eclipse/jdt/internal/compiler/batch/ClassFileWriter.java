@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import org.eclipse.jdt.internal.compiler.ClassFile;
+import org.eclipse.jdt.internal.compiler.util.Util;
+
+/**
+ * Writes the class files of a batch compilation to disk on background threads, so that the compiler does not wait
+ * for the file system at the end of each unit.
+ *
+ * <p>Class files are copied when they are submitted, since the compiler recycles {@link ClassFile} instances. At most
+ * {@link #QUEUE_CAPACITY} writes wait for a writer thread; beyond that, the submitting thread writes the class file
+ * itself. A writer created with no threads writes synchronously. Output directories are created once per writer. If
+ * {@code skipUnchanged} is set, a class file whose contents on disk are identical is not rewritten, which keeps its
+ * time stamp.</p>
+ *
+ * <p>A destination whose name ends with {@code .jar} is a jar file rather than a directory: its class files are
+ * collected in memory and written by {@link #finish(Main.Logger)}, in the order of their names and with a fixed time
+ * stamp, so that compiling the same sources produces the same jar file. The jar is streamed to disk, unless
+ * {@code skipUnchanged} is set and it has to be compared first. Since annotation processors write the files
+ * they generate into directories through their file manager, {@link Main} rejects a jar file destination when
+ * annotation processing is enabled.</p>
+ *
+ * <p>Class files are logged and counted once they are written, by {@link #logWritten(Main.Logger)} and
+ * {@link #finish(Main.Logger)}, on the thread of the compilation. Failed writes are reported by
+ * {@link #finish(Main.Logger)}, whatever their cause; errors are rethrown there.</p>
+ */
+public class ClassFileWriter {
+
+	static final int QUEUE_CAPACITY = 256;
+	/** The time stamp of jar entries; the earliest that every zip tool reads alike. */
+	static final LocalDateTime JAR_ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0);
+
+	private static class Output {
+		final boolean generatePackagesStructure;
+		final String destinationPath;
+		final String relativeFileName;
+
+		Output(boolean generatePackagesStructure, String destinationPath, String relativeFileName) {
+			this.generatePackagesStructure = generatePackagesStructure;
+			this.destinationPath = destinationPath;
+			this.relativeFileName = relativeFileName;
+		}
+	}
+
+	private static class Failure {
+		final String destinationPath;
+		final String relativeFileName;
+		final Throwable cause;
+
+		Failure(String destinationPath, String relativeFileName, Throwable cause) {
+			this.destinationPath = destinationPath;
+			this.relativeFileName = relativeFileName;
+			this.cause = cause;
+		}
+	}
+
+	private final ThreadPoolExecutor executor;
+	private final boolean skipUnchanged;
+	private final Set<String> createdDirectories = ConcurrentHashMap.newKeySet();
+	private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+	/** The class files written, or found up to date, that are not logged yet. */
+	private final ConcurrentLinkedQueue<Output> written = new ConcurrentLinkedQueue<>();
+	private int submittedClassFiles;
+	private final AtomicInteger unchangedFiles = new AtomicInteger();
+	/** The entries of each jar file destination, by name. */
+	private final Map<String, SortedMap<String, byte[]>> jars = new HashMap<>();
+	/** The class files among the entries of each jar file destination, which are logged once the jar is written. */
+	private final Map<String, List<Output>> jarClassFiles = new HashMap<>();
+
+	public ClassFileWriter(int threads, boolean skipUnchanged) {
+		this.skipUnchanged = skipUnchanged;
+		if (threads > 0) {
+			AtomicInteger threadCount = new AtomicInteger();
+			this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+					runnable -> {
+						Thread thread = new Thread(runnable, "Compiler Class File Writer " + threadCount.incrementAndGet()); //$NON-NLS-1$
+						thread.setDaemon(true);
+						return thread;
+					},
+					new ThreadPoolExecutor.CallerRunsPolicy());
+		} else {
+			this.executor = null;
+		}
+	}
+
+	/**
+	 * Writes the given class file to the given destination, either into its package directory or, if
+	 * {@code generatePackagesStructure} is not set, directly into the destination.
+	 */
+	public void write(boolean generatePackagesStructure, String destinationPath, String relativeFileName, ClassFile classFile) {
+		byte[] contents = new byte[classFile.headerOffset + classFile.contentsOffset];
+		System.arraycopy(classFile.header, 0, contents, 0, classFile.headerOffset);
+		System.arraycopy(classFile.contents, 0, contents, classFile.headerOffset, classFile.contentsOffset);
+		this.submittedClassFiles++;
+		write(new Output(generatePackagesStructure, destinationPath, relativeFileName), contents, true);
+	}
+
+	/**
+	 * Writes the given contents like {@link #write(boolean, String, String, ClassFile)}, but neither logs nor counts
+	 * them as a class file of the compilation.
+	 */
+	public void write(boolean generatePackagesStructure, String destinationPath, String relativeFileName, byte[] contents) {
+		write(new Output(generatePackagesStructure, destinationPath, relativeFileName), contents, false);
+	}
+
+	private void write(Output output, byte[] contents, boolean logged) {
+		if (output.generatePackagesStructure && isJar(output.destinationPath)) {
+			synchronized (this.jars) {
+				this.jars.computeIfAbsent(output.destinationPath, path -> new TreeMap<>())
+						.put(output.relativeFileName.replace(File.separatorChar, '/'), contents);
+				if (logged)
+					this.jarClassFiles.computeIfAbsent(output.destinationPath, path -> new ArrayList<>()).add(output);
+			}
+		} else if (this.executor == null)
+			writeFile(output, contents, logged);
+		else
+			this.executor.execute(() -> writeFile(output, contents, logged));
+	}
+
+	private void writeFile(Output output, byte[] contents, boolean logged) {
+		try {
+			writeFile(output.generatePackagesStructure, output.destinationPath, output.relativeFileName, contents);
+			if (logged)
+				this.written.add(output);
+		} catch (IOException | RuntimeException | Error e) {
+			this.failures.add(new Failure(output.destinationPath, output.relativeFileName, e));
+		}
+	}
+
+	private void writeFile(boolean generatePackagesStructure, String destinationPath, String relativeFileName, byte[] contents) throws IOException {
+		File file = new File(destinationPath.replace('/', File.separatorChar), generatePackagesStructure
+				? relativeFileName
+				: relativeFileName.substring(relativeFileName.lastIndexOf(File.separatorChar) + 1));
+		if (generatePackagesStructure) {
+			File directory = file.getParentFile();
+			if (!this.createdDirectories.contains(directory.getPath())) {
+				if (!directory.mkdirs() && !directory.isDirectory())
+					Util.buildAllDirectoriesInto(destinationPath, relativeFileName); // reports why
+				this.createdDirectories.add(directory.getPath());
+			}
+		}
+		if (this.skipUnchanged && isUpToDate(file, contents)) {
+			this.unchangedFiles.incrementAndGet();
+			return;
+		}
+		try (FileOutputStream output = new FileOutputStream(file)) {
+			output.write(contents);
+		}
+	}
+
+	/** Answers whether the given destination is a jar file. */
+	public static boolean isJar(String destinationPath) {
+		return destinationPath.regionMatches(true, destinationPath.length() - 4, ".jar", 0, 4); //$NON-NLS-1$
+	}
+
+	private void writeJar(String destinationPath, SortedMap<String, byte[]> entries) throws IOException {
+		File file = new File(destinationPath);
+		byte[] contents = null;
+		if (this.skipUnchanged) { // the jar has to be built before it can be compared
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			writeJar(bytes, entries);
+			contents = bytes.toByteArray();
+			if (isUpToDate(file, contents)) {
+				this.unchangedFiles.addAndGet(entries.size());
+				return;
+			}
+		}
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.mkdirs() && !directory.isDirectory())
+			throw new IOException("cannot create directory " + directory); //$NON-NLS-1$
+		try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+			if (contents != null)
+				output.write(contents);
+			else
+				writeJar(output, entries);
+		}
+	}
+
+	/** Writes the jar of the given entries into the given output, and closes it. */
+	private static void writeJar(OutputStream output, SortedMap<String, byte[]> entries) throws IOException {
+		try (JarOutputStream jar = new JarOutputStream(output)) {
+			Manifest manifest = new Manifest();
+			manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0"); //$NON-NLS-1$
+			ByteArrayOutputStream manifestBytes = new ByteArrayOutputStream();
+			manifest.write(manifestBytes);
+			putJarEntry(jar, "META-INF/", null); //$NON-NLS-1$
+			putJarEntry(jar, JarFile.MANIFEST_NAME, manifestBytes.toByteArray());
+			Set<String> directories = new HashSet<>();
+			for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+				String name = entry.getKey();
+				for (int separator = name.indexOf('/'); separator != -1; separator = name.indexOf('/', separator + 1)) {
+					String directory = name.substring(0, separator + 1);
+					if (directories.add(directory))
+						putJarEntry(jar, directory, null);
+				}
+				putJarEntry(jar, name, entry.getValue());
+			}
+		}
+	}
+
+	private static void putJarEntry(JarOutputStream jar, String name, byte[] contents) throws IOException {
+		ZipEntry entry = new ZipEntry(name);
+		entry.setTimeLocal(JAR_ENTRY_TIME);
+		jar.putNextEntry(entry);
+		if (contents != null)
+			jar.write(contents);
+		jar.closeEntry();
+	}
+
+	/** Answers whether the given file exists with the given contents. */
+	static boolean isUpToDate(File file, byte[] contents) {
+		if (file.length() != contents.length || !file.isFile())
+			return false;
+		try {
+			return Arrays.equals(Util.getFileByteContent(file), contents);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/** Answers the number of class files submitted so far, whether or not they are written yet. */
+	public int getSubmittedClassFiles() {
+		return this.submittedClassFiles;
+	}
+
+	/**
+	 * Logs the class files written, or found up to date, since the last call, and answers their number. Called on the
+	 * thread of the compilation, since the logger is not thread safe.
+	 */
+	public int logWritten(Main.Logger logger) {
+		int count = 0;
+		for (Output output; (output = this.written.poll()) != null; count++)
+			logger.logClassFile(output.generatePackagesStructure, output.destinationPath, output.relativeFileName);
+		return count;
+	}
+
+	/** Answers the number of class files that were not rewritten because they were up to date. */
+	public int getUnchangedFiles() {
+		return this.unchangedFiles.get();
+	}
+
+	/**
+	 * Waits for the submitted class files to be written, writes the jar files, stops the writer threads, logs the
+	 * class files that could not be written, and logs the written class files not logged yet like
+	 * {@link #logWritten(Main.Logger)}, answering their number. An error thrown by a write is rethrown once the other
+	 * failures are logged.
+	 */
+	public int finish(Main.Logger logger) {
+		if (this.executor != null) {
+			this.executor.shutdown();
+			boolean interrupted = false;
+			while (true) {
+				try {
+					if (this.executor.awaitTermination(1, TimeUnit.MINUTES))
+						break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+		synchronized (this.jars) {
+			for (Map.Entry<String, SortedMap<String, byte[]>> jar : this.jars.entrySet()) {
+				List<Output> classFiles = this.jarClassFiles.get(jar.getKey());
+				try {
+					writeJar(jar.getKey(), jar.getValue());
+					if (classFiles != null)
+						this.written.addAll(classFiles);
+				} catch (IOException | RuntimeException | Error e) {
+					this.failures.add(new Failure(jar.getKey(), jar.getValue().firstKey(), e));
+				}
+			}
+			this.jars.clear();
+			this.jarClassFiles.clear();
+		}
+		Error error = null;
+		for (Failure failure; (failure = this.failures.poll()) != null;) {
+			IOException exception;
+			if (failure.cause instanceof IOException) {
+				exception = (IOException) failure.cause;
+			} else {
+				if (failure.cause instanceof Error && error == null)
+					error = (Error) failure.cause;
+				exception = new IOException(failure.cause.toString(), failure.cause);
+			}
+			logger.logNoClassFileCreated(failure.destinationPath, failure.relativeFileName, exception);
+		}
+		int writtenCount = logWritten(logger);
+		if (error != null)
+			throw error;
+		return writtenCount;
+	}
+}
@@ -144,6 +144,8 @@ private NameEnvironmentAnswer findClassInternal(char[] typeName, String qualifie
 	}
 	if (binaryExists) {
 		try {
+			// not shared through the BinaryTypeCache: a build may rewrite a class file within the resolution of its
+			// time stamp, and without changing its length
 			ClassFileReader reader = ClassFileReader.read(this.path + qualifiedBinaryFileName);
 			// https://bugs.eclipse.org/bugs/show_bug.cgi?id=321115, package names are to be treated case sensitive.
 			String typeSearched = qualifiedPackageName.length() > 0 ?
@@ -24,12 +24,15 @@ import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
+import org.eclipse.jdt.internal.compiler.classfmt.BinaryTypeCache;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
 import org.eclipse.jdt.internal.compiler.classfmt.ExternalAnnotationDecorator;
@@ -53,6 +56,35 @@ protected ZipFile annotationZipFile;
 protected boolean closeZipFileAtEnd;
 protected Set<String> packageCache;
 protected List<String> annotationPaths;
+/** The time stamp of the jar file when it was opened, which keys its entries in the {@link BinaryTypeCache}. */
+protected long lastModified;
+
+/**
+ * Package indexes shared by the compilations of a {@link CompileServer}, by jar file path, or {@code null} if
+ * indexes are not shared. An index is rebuilt when the time stamp or the length of its jar file changes.
+ */
+static Map<String, PackageIndex> sharedPackageIndexes;
+
+static final class PackageIndex {
+	final long lastModified;
+	final long length;
+	final Set<String> packageNames;
+
+	PackageIndex(long lastModified, long length, Set<String> packageNames) {
+		this.lastModified = lastModified;
+		this.length = length;
+		this.packageNames = packageNames;
+	}
+}
+
+static void sharePackageIndexes() {
+	if (sharedPackageIndexes == null)
+		sharedPackageIndexes = new ConcurrentHashMap<>();
+}
+
+static void unsharePackageIndexes() {
+	sharedPackageIndexes = null;
+}
 
 public ClasspathJar(File file, boolean closeZipFileAtEnd,
 		AccessRuleSet accessRuleSet, String destinationPath) {
@@ -117,16 +149,17 @@ public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageN
 		return null; // most common case
 
 	try {
-		IBinaryType reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		char[] moduleNameOfEntry = this.module == null ? null : this.module.name();
+		ClassFileReader classReader = BinaryTypeCache.read(this.file.getPath(), qualifiedBinaryFileName, this.lastModified,
+				null, moduleNameOfEntry == null ? null : String.valueOf(moduleNameOfEntry), () -> {
+			ClassFileReader newReader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+			if (newReader != null && newReader.moduleName == null)
+				newReader.moduleName = moduleNameOfEntry;
+			return newReader;
+		});
+		IBinaryType reader = classReader;
 		if (reader != null) {
-			char[] modName = this.module == null ? null : this.module.name();
-			if (reader instanceof ClassFileReader) {
-				ClassFileReader classReader = (ClassFileReader) reader;
-				if (classReader.moduleName == null)
-					classReader.moduleName = modName;
-				else
-					modName = classReader.moduleName;
-			}
+			char[] modName = classReader.moduleName;
 			searchPaths:
 			if (this.annotationPaths != null) {
 				String qualifiedClassName = qualifiedBinaryFileName.substring(0, qualifiedBinaryFileName.length()-SuffixConstants.EXTENSION_CLASS.length()-1);
@@ -198,6 +231,7 @@ public char[][][] findTypeNames(final String qualifiedPackageName, String module
 @Override
 public void initialize() throws IOException {
 	if (this.zipFile == null) {
+		this.lastModified = this.file.lastModified();
 		this.zipFile = new ZipFile(this.file);
 	}
 }
@@ -235,6 +269,18 @@ public synchronized char[][] getModulesDeclaringPackage(String qualifiedPackageN
 	if (this.packageCache != null)
 		return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
 
+	Map<String, PackageIndex> sharedIndexes = sharedPackageIndexes;
+	long lastModified = 0, length = 0;
+	if (sharedIndexes != null) {
+		lastModified = this.file.lastModified();
+		length = this.file.length();
+		PackageIndex index = sharedIndexes.get(this.file.getPath());
+		if (index != null && index.lastModified == lastModified && index.length == length) {
+			this.packageCache = index.packageNames;
+			return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
+		}
+	}
+
 	this.packageCache = new HashSet<>(41);
 	this.packageCache.add(Util.EMPTY_STRING);
 
@@ -242,6 +288,8 @@ public synchronized char[][] getModulesDeclaringPackage(String qualifiedPackageN
 		String fileName = ((ZipEntry) e.nextElement()).getName();
 		addToPackageCache(fileName, false);
 	}
+	if (sharedIndexes != null && lastModified != 0)
+		sharedIndexes.put(this.file.getPath(), new PackageIndex(lastModified, length, this.packageCache));
 	return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
 }
 @Override
@@ -32,6 +32,7 @@ import java.util.Set;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
+import org.eclipse.jdt.internal.compiler.classfmt.BinaryTypeCache;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
@@ -54,6 +55,9 @@ public class ClasspathJep247 extends ClasspathJrt {
 	protected Set<String> packageCache;
 	protected File jdkHome;
 	protected String modulePath = null;
+	/** The path and time stamp of the ct.sym file, which key its signature files in the {@link BinaryTypeCache}. */
+	protected String ctSymPath;
+	protected long ctSymLastModified;
 
 	public ClasspathJep247(File jdkHome, String release, AccessRuleSet accessRuleSet) {
 		super(jdkHome, false, accessRuleSet, null);
@@ -77,31 +81,34 @@ public class ClasspathJep247 extends ClasspathJrt {
 
 		try {
 			//TODO: Check if any conversion needed for path separator
-			ClassFileReader reader = null;
-			byte[] content = null;
-			qualifiedBinaryFileName = qualifiedBinaryFileName.replace(".class", ".sig"); //$NON-NLS-1$ //$NON-NLS-2$
-			if (this.subReleases != null && this.subReleases.length > 0) {
-				for (String rel : this.subReleases) {
-					Path p = this.fs.getPath(rel, qualifiedBinaryFileName);
-					if (Files.exists(p)) {
-						content = JRTUtil.safeReadBytes(p);
-						if (content != null)
-							break;
-					}
-				}
-			} else {
-				content = JRTUtil.safeReadBytes(this.fs.getPath(this.releaseInHex, qualifiedBinaryFileName));
-			}
-			if (content != null) {
-				reader = new ClassFileReader(content, qualifiedBinaryFileName.toCharArray());
+			String signatureFileName = qualifiedBinaryFileName.replace(".class", ".sig"); //$NON-NLS-1$ //$NON-NLS-2$
+			ClassFileReader reader = BinaryTypeCache.read(this.ctSymPath, signatureFileName, this.ctSymLastModified,
+					this.compliance, moduleName, () -> readSignatureFile(signatureFileName));
+			if (reader != null) {
 				char[] modName = moduleName != null ? moduleName.toCharArray() : null;
-				return new NameEnvironmentAnswer(reader, fetchAccessRestriction(qualifiedBinaryFileName), modName);
+				return new NameEnvironmentAnswer(reader, fetchAccessRestriction(signatureFileName), modName);
 			}
 		} catch (ClassFormatException | IOException e) {
 			// continue
 		}
 		return null;
 	}
+	private ClassFileReader readSignatureFile(String qualifiedBinaryFileName) throws ClassFormatException, IOException {
+		byte[] content = null;
+		if (this.subReleases != null && this.subReleases.length > 0) {
+			for (String rel : this.subReleases) {
+				Path p = this.fs.getPath(rel, qualifiedBinaryFileName);
+				if (Files.exists(p)) {
+					content = JRTUtil.safeReadBytes(p);
+					if (content != null)
+						break;
+				}
+			}
+		} else {
+			content = JRTUtil.safeReadBytes(this.fs.getPath(this.releaseInHex, qualifiedBinaryFileName));
+		}
+		return content == null ? null : new ClassFileReader(content, qualifiedBinaryFileName.toCharArray());
+	}
 
 	@Override
 	public void initialize() throws IOException {
@@ -114,6 +121,8 @@ public class ClasspathJep247 extends ClasspathJrt {
 		if (!Files.exists(filePath)) {
 			return;
 		}
+		this.ctSymPath = filePath.toString();
+		this.ctSymLastModified = filePath.toFile().lastModified();
 		URI uri = URI.create("jar:file:" + t.getRawPath()); //$NON-NLS-1$
 		try {
 			this.fs = FileSystems.getFileSystem(uri);
@@ -32,6 +32,7 @@ import java.util.function.Function;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
+import org.eclipse.jdt.internal.compiler.classfmt.BinaryTypeCache;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
@@ -64,46 +65,55 @@ public class ClasspathJep247Jdk12 extends ClasspathJep247 {
 			return null; // most common case
 
 		try {
-			ClassFileReader reader = null;
-			byte[] content = null;
-			char[] foundModName = null;
-			qualifiedBinaryFileName = qualifiedBinaryFileName.replace(".class", ".sig"); //$NON-NLS-1$ //$NON-NLS-2$
-			if (this.subReleases != null && this.subReleases.length > 0) {
-				done: for (String rel : this.subReleases) {
-					if (moduleName == null) {
-						Path p = this.fs.getPath(rel);
-						try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(p)) {
-							for (final java.nio.file.Path subdir: stream) {
-								Path f = this.fs.getPath(rel, JRTUtil.sanitizedFileName(subdir), qualifiedBinaryFileName);
-								if (Files.exists(f)) {
-									content = JRTUtil.safeReadBytes(f);
-									foundModName = JRTUtil.sanitizedFileName(subdir).toCharArray();
-									if (content != null)
-										break done;
-								}
+			String signatureFileName = qualifiedBinaryFileName.replace(".class", ".sig"); //$NON-NLS-1$ //$NON-NLS-2$
+			ClassFileReader reader = BinaryTypeCache.read(this.ctSymPath, signatureFileName, this.ctSymLastModified,
+					this.compliance, moduleName, () -> readSignatureFile(moduleName, signatureFileName));
+			if (reader != null) {
+				char[] modName = moduleName != null ? moduleName.toCharArray() : reader.moduleName;
+				return new NameEnvironmentAnswer(reader, fetchAccessRestriction(signatureFileName), modName);
+			}
+		} catch (ClassFormatException | IOException e) {
+			// continue
+		}
+		return null;
+	}
+	/** Answers the reader of the given signature file, whose module name is the module it was found in if none was given. */
+	private ClassFileReader readSignatureFile(String moduleName, String qualifiedBinaryFileName) throws ClassFormatException, IOException {
+		byte[] content = null;
+		char[] foundModName = null;
+		if (this.subReleases != null && this.subReleases.length > 0) {
+			done: for (String rel : this.subReleases) {
+				if (moduleName == null) {
+					Path p = this.fs.getPath(rel);
+					try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(p)) {
+						for (final java.nio.file.Path subdir: stream) {
+							Path f = this.fs.getPath(rel, JRTUtil.sanitizedFileName(subdir), qualifiedBinaryFileName);
+							if (Files.exists(f)) {
+								content = JRTUtil.safeReadBytes(f);
+								foundModName = JRTUtil.sanitizedFileName(subdir).toCharArray();
+								if (content != null)
+									break done;
 							}
 						}
-					} else {
-						Path p = this.fs.getPath(rel, moduleName, qualifiedBinaryFileName);
-						if (Files.exists(p)) {
-							content = JRTUtil.safeReadBytes(p);
-							if (content != null)
-								break;
-						}
+					}
+				} else {
+					Path p = this.fs.getPath(rel, moduleName, qualifiedBinaryFileName);
+					if (Files.exists(p)) {
+						content = JRTUtil.safeReadBytes(p);
+						if (content != null)
+							break;
 					}
 				}
-			} else {
-				content = JRTUtil.safeReadBytes(this.fs.getPath(this.releaseInHex, qualifiedBinaryFileName));
-			}
-			if (content != null) {
-				reader = new ClassFileReader(content, qualifiedBinaryFileName.toCharArray());
-				char[] modName = moduleName != null ? moduleName.toCharArray() : foundModName;
-				return new NameEnvironmentAnswer(reader, fetchAccessRestriction(qualifiedBinaryFileName), modName);
 			}
-		} catch (ClassFormatException | IOException e) {
-			// continue
+		} else {
+			content = JRTUtil.safeReadBytes(this.fs.getPath(this.releaseInHex, qualifiedBinaryFileName));
 		}
-		return null;
+		if (content == null)
+			return null;
+		ClassFileReader reader = new ClassFileReader(content, qualifiedBinaryFileName.toCharArray());
+		if (moduleName == null)
+			reader.moduleName = foundModName;
+		return reader;
 	}
 
 	@Override
@@ -121,6 +131,8 @@ public class ClasspathJep247Jdk12 extends ClasspathJep247 {
 		if (!Files.exists(filePath)) {
 			return;
 		}
+		this.ctSymPath = filePath.toString();
+		this.ctSymLastModified = filePath.toFile().lastModified();
 		URI uri = URI.create("jar:file:" + t.getRawPath()); //$NON-NLS-1$
 		try {
 			this.fs = FileSystems.getFileSystem(uri);
@@ -31,6 +31,7 @@ import java.util.function.Function;
 import java.util.zip.ZipFile;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.classfmt.BinaryTypeCache;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
 import org.eclipse.jdt.internal.compiler.classfmt.ExternalAnnotationDecorator;
@@ -53,6 +54,8 @@ public class ClasspathJrt extends ClasspathLocation implements IMultiModuleEntry
 	public final Set<String> moduleNamesCache;
 	//private Set<String> packageCache;
 	protected List<String> annotationPaths;
+	/** The time stamp of the JDK image, which keys its class files in the {@link BinaryTypeCache}. */
+	protected long lastModified;
 
 	public ClasspathJrt(File file, boolean closeZipFileAtEnd,
 			AccessRuleSet accessRuleSet, String destinationPath) {
@@ -85,7 +88,16 @@ public class ClasspathJrt extends ClasspathLocation implements IMultiModuleEntry
 			return null; // most common case
 
 		try {
-			IBinaryType reader = ClassFileReader.readFromModule(this.file, moduleName, qualifiedBinaryFileName, this.moduleNamesCache::contains);
+			if (this.lastModified == 0)
+				this.lastModified = this.file.lastModified();
+			ClassFileReader classReader = BinaryTypeCache.read(this.file.getPath(), qualifiedBinaryFileName, this.lastModified, null, moduleName,
+					() -> ClassFileReader.readFromModule(this.file, moduleName, qualifiedBinaryFileName, this.moduleNamesCache::contains));
+			if (classReader != null && moduleName == null && classReader.moduleName != null
+					&& !this.moduleNamesCache.contains(String.valueOf(classReader.moduleName))) {
+				// cached by a compilation that observes other modules
+				classReader = ClassFileReader.readFromModule(this.file, moduleName, qualifiedBinaryFileName, this.moduleNamesCache::contains);
+			}
+			IBinaryType reader = classReader;
 
 			if (reader != null) {
 				searchPaths:
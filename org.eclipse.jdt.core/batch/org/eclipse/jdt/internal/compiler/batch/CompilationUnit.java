@@ -96,7 +96,7 @@ public char[] getContents() {
 
 	// otherwise retrieve it
 	try {
-		return Util.getFileCharContent(new File(new String(this.fileName)), this.encoding);
+		return Util.getMappedFileCharContent(new File(new String(this.fileName)), this.encoding);
 	} catch (IOException e) {
 		this.contents = CharOperation.NO_CHAR; // assume no source if asked again
 		throw new AbortCompilationUnit(null, e, this.encoding);
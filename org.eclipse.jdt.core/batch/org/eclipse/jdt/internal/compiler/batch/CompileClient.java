@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * A drop-in replacement for {@link Main} that has a running {@link CompileServer} perform the compilation, and
+ * compiles in its own process if there is no server, or if the server rejects the request.
+ *
+ * <p>The command line is that of {@link Main}. The system property {@code ecj.server.portFile} names the server's
+ * port file if it is not {@link CompileServer#DEFAULT_PORT_FILE}.</p>
+ */
+public class CompileClient {
+
+	private static File getPortFile() {
+		return new File(System.getProperty("ecj.server.portFile", CompileServer.DEFAULT_PORT_FILE)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Sends the given request to the server with the given port file, and answers the exit code of the compilation,
+	 * or {@code null} if there is no server or it rejected the request. A {@code null} command line asks the server
+	 * to stop.
+	 */
+	public static Integer request(File portFile, String[] args, PrintStream out, PrintStream err) {
+		String[] portAndSecret;
+		try {
+			portAndSecret = new String(Files.readAllBytes(portFile.toPath()), StandardCharsets.UTF_8).trim().split(" "); //$NON-NLS-1$
+		} catch (IOException e) {
+			return null;
+		}
+		if (portAndSecret.length != 2)
+			return null;
+		boolean started = false;
+		try (Socket socket = new Socket()) {
+			socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(portAndSecret[0])), CompileServer.TIMEOUT);
+			socket.setSoTimeout(CompileServer.TIMEOUT); // the server sends keep alive frames while it compiles
+			DataOutputStream requestOut = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			requestOut.writeInt(CompileServer.PROTOCOL_VERSION);
+			CompileServer.writeString(requestOut, portAndSecret[1]);
+			CompileServer.writeString(requestOut, new File(System.getProperty("user.dir")).getAbsolutePath()); //$NON-NLS-1$
+			requestOut.writeInt(args == null ? CompileServer.STOP_REQUEST : args.length);
+			if (args != null)
+				for (String arg : args)
+					CompileServer.writeString(requestOut, arg);
+			requestOut.flush();
+			DataInputStream responseIn = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			while (true) {
+				byte kind = responseIn.readByte();
+				started = true;
+				switch (kind) {
+					case CompileServer.OUTPUT_FRAME:
+						out.print(CompileServer.readString(responseIn));
+						out.flush();
+						break;
+					case CompileServer.ERROR_FRAME:
+						err.print(CompileServer.readString(responseIn));
+						err.flush();
+						break;
+					case CompileServer.EXIT_FRAME:
+						return responseIn.readInt();
+					case CompileServer.KEEP_ALIVE_FRAME:
+						break;
+					case CompileServer.REJECTED_FRAME:
+						return null;
+					default:
+						return -1;
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			return started ? Integer.valueOf(-1) : null; // do not repeat a compilation that has begun
+		}
+	}
+
+	/** Asks the server with the given port file to stop, and answers whether there was a server. */
+	static boolean stopServer(File portFile) {
+		return request(portFile, null, System.out, System.err) != null;
+	}
+
+	public static void main(String[] args) {
+		Integer exitCode = request(getPortFile(), args, System.out, System.err);
+		if (exitCode == null) {
+			Main.main(args);
+			return;
+		}
+		System.exit(exitCode);
+	}
+}
@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.classfmt.BinaryTypeCache;
+import org.eclipse.jdt.internal.compiler.util.Util;
+
+/**
+ * A long-lived batch compiler process that runs the compilations requested by {@link CompileClient}, so that
+ * requests after the first one find the compiler's code compiled by the JIT, the JDK images, {@code ct.sym} files
+ * and jar package indexes already loaded, and library class files already decoded (see {@link BinaryTypeCache}).
+ * Jar package indexes are rebuilt when the time stamp or the length of their jar file changes.
+ *
+ * <p>Usage: {@code CompileServer [-portFile <file>] [-idleTimeout <seconds>]} to start a server, and
+ * {@code CompileServer [-portFile <file>] -stop} to stop it. The server listens on a loopback port, which it writes,
+ * together with a secret that clients must present, into the port file, readable only by its owner; it defaults to
+ * {@link #DEFAULT_PORT_FILE}. The server exits after {@code -idleTimeout} seconds without requests (three hours by
+ * default).</p>
+ *
+ * <p>Compilations run one at a time, in the working directory of the server: a request from a client running in
+ * another working directory is rejected, and the client compiles in its own process instead. A connection is dropped
+ * if a request exceeds {@link #MAX_ARGUMENTS} or {@link #MAX_STRING_LENGTH}, or if either side sends nothing for
+ * {@link #TIMEOUT} milliseconds; while a compilation runs, the server sends keep alive frames.</p>
+ */
+public class CompileServer {
+
+	/** The default port file, {@code .ecj-server} in the user's home directory. */
+	public static final String DEFAULT_PORT_FILE = new File(System.getProperty("user.home"), ".ecj-server").getPath(); //$NON-NLS-1$ //$NON-NLS-2$
+
+	public static final int PROTOCOL_VERSION = 2;
+	/** Request argument count that asks the server to stop. */
+	static final int STOP_REQUEST = -1;
+
+	/** The most arguments a request may have. */
+	static final int MAX_ARGUMENTS = 64 * 1024;
+	/** The most bytes a string may be encoded in, in a request or a frame. */
+	static final int MAX_STRING_LENGTH = 1024 * 1024;
+	/** Milliseconds without data from the other side after which a connection is dropped. */
+	static final int TIMEOUT = 30 * 1000;
+	static final int KEEP_ALIVE_INTERVAL = TIMEOUT / 3;
+
+	static final byte OUTPUT_FRAME = 'O';
+	static final byte ERROR_FRAME = 'E';
+	static final byte EXIT_FRAME = 'X';
+	static final byte REJECTED_FRAME = 'R';
+	static final byte KEEP_ALIVE_FRAME = 'K';
+
+	private static final int DEFAULT_IDLE_TIMEOUT = 3 * 60 * 60;
+
+	private final File portFile;
+	private final String secret;
+	private final String workingDirectory = new File(System.getProperty("user.dir")).getAbsolutePath(); //$NON-NLS-1$
+	private boolean stopped;
+	private ScheduledExecutorService keepAlive;
+
+	CompileServer(File portFile) {
+		this.portFile = portFile;
+		byte[] bytes = new byte[16];
+		new SecureRandom().nextBytes(bytes);
+		StringBuilder secretBuilder = new StringBuilder();
+		for (byte b : bytes)
+			secretBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		this.secret = secretBuilder.toString();
+	}
+
+	/*
+	 * Serves requests until stopped or idle; the process-wide caches enabled meanwhile are disabled again on return,
+	 * so that a server may run in a process that goes on compiling.
+	 */
+	void serve(int idleTimeoutSeconds) throws IOException {
+		ClasspathJar.sharePackageIndexes();
+		BinaryTypeCache.enable();
+		Util.setFileMapping(false);
+		this.keepAlive = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Compile Server Keep Alive"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+			serverSocket.setSoTimeout(idleTimeoutSeconds * 1000);
+			writePortFile(serverSocket.getLocalPort());
+			try {
+				while (!this.stopped) {
+					Socket socket;
+					try {
+						socket = serverSocket.accept();
+					} catch (SocketTimeoutException e) {
+						break;
+					}
+					try (Socket connection = socket) {
+						connection.setSoTimeout(TIMEOUT);
+						handle(connection);
+					} catch (IOException | RuntimeException e) {
+						// the client went away or sent a malformed request; keep serving
+					}
+				}
+			} finally {
+				this.portFile.delete();
+			}
+		} finally {
+			this.keepAlive.shutdownNow();
+			Util.setFileMapping(true);
+			BinaryTypeCache.disable();
+			ClasspathJar.unsharePackageIndexes();
+		}
+	}
+
+	private void writePortFile(int port) throws IOException {
+		File file = this.portFile.getAbsoluteFile();
+		this.portFile.delete();
+		file.getParentFile().mkdirs();
+		file.createNewFile();
+		file.setReadable(false, false);
+		file.setWritable(false, false);
+		file.setReadable(true, true);
+		file.setWritable(true, true);
+		Files.write(file.toPath(), (port + " " + this.secret + '\n').getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+	}
+
+	private void handle(Socket socket) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		if (in.readInt() != PROTOCOL_VERSION
+				|| !MessageDigest.isEqual(readString(in).getBytes(StandardCharsets.UTF_8), this.secret.getBytes(StandardCharsets.UTF_8))) {
+			out.writeByte(REJECTED_FRAME);
+			out.flush();
+			return;
+		}
+		String clientDirectory = readString(in);
+		int argumentCount = in.readInt();
+		if (argumentCount < STOP_REQUEST || argumentCount > MAX_ARGUMENTS)
+			throw new IOException("Invalid argument count: " + argumentCount); //$NON-NLS-1$
+		if (argumentCount == STOP_REQUEST) {
+			this.stopped = true;
+			out.writeByte(EXIT_FRAME);
+			out.writeInt(0);
+			out.flush();
+			return;
+		}
+		String[] arguments = new String[argumentCount];
+		for (int i = 0; i < argumentCount; i++)
+			arguments[i] = readString(in);
+		if (!clientDirectory.equals(this.workingDirectory)) {
+			out.writeByte(REJECTED_FRAME);
+			out.flush();
+			return;
+		}
+		boolean succeeded = false;
+		ScheduledFuture<?> keepingAlive = this.keepAlive.scheduleWithFixedDelay(() -> {
+			synchronized (out) {
+				try {
+					out.writeByte(KEEP_ALIVE_FRAME);
+					out.flush();
+				} catch (IOException e) {
+					// the client went away, the compilation finds out when it writes
+				}
+			}
+		}, KEEP_ALIVE_INTERVAL, KEEP_ALIVE_INTERVAL, TimeUnit.MILLISECONDS);
+		try {
+			succeeded = Main.compile(arguments,
+					new PrintWriter(new FrameWriter(out, OUTPUT_FRAME)),
+					new PrintWriter(new FrameWriter(out, ERROR_FRAME)),
+					null /* progress */);
+		} catch (RuntimeException e) {
+			// report the failure to the client rather than leave it waiting; the compiler's writers may be closed
+			PrintWriter err = new PrintWriter(new FrameWriter(out, ERROR_FRAME));
+			e.printStackTrace(err);
+			err.flush();
+		} finally {
+			keepingAlive.cancel(false);
+		}
+		synchronized (out) {
+			out.writeByte(EXIT_FRAME);
+			out.writeInt(succeeded ? 0 : -1);
+			out.flush();
+		}
+	}
+
+	static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > MAX_STRING_LENGTH)
+			throw new IOException("Invalid string length: " + length); //$NON-NLS-1$
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Sends what the compiler writes to the client, in one frame per flush unless that would exceed
+	 * {@link #MAX_STRING_LENGTH}.
+	 */
+	private static class FrameWriter extends Writer {
+
+		private final DataOutputStream out;
+		private final byte kind;
+		private final StringBuilder buffer = new StringBuilder();
+
+		FrameWriter(DataOutputStream out, byte kind) {
+			this.out = out;
+			this.kind = kind;
+		}
+
+		@Override
+		public void write(char[] chars, int offset, int length) {
+			this.buffer.append(chars, offset, length);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (this.buffer.length() == 0)
+				return;
+			synchronized (this.out) {
+				int maxChars = MAX_STRING_LENGTH / 3; // at most 3 bytes per char in UTF-8
+				for (int start = 0, length = this.buffer.length(); start < length;) {
+					int end = Math.min(start + maxChars, length);
+					if (end < length && Character.isHighSurrogate(this.buffer.charAt(end - 1)))
+						end--; // keep surrogate pairs together
+					this.out.writeByte(this.kind);
+					writeString(this.out, this.buffer.substring(start, end));
+					start = end;
+				}
+				this.out.flush();
+			}
+			this.buffer.setLength(0);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush(); // the connection outlives the compilation
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		String portFile = DEFAULT_PORT_FILE;
+		int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+		boolean stop = false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-portFile") && i + 1 < args.length) { //$NON-NLS-1$
+				portFile = args[++i];
+			} else if (args[i].equals("-idleTimeout") && i + 1 < args.length) { //$NON-NLS-1$
+				idleTimeout = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-stop")) { //$NON-NLS-1$
+				stop = true;
+			} else {
+				System.err.println("Usage: CompileServer [-portFile <file>] [-idleTimeout <seconds>] [-stop]"); //$NON-NLS-1$
+				System.exit(-1);
+			}
+		}
+		if (stop) {
+			System.exit(CompileClient.stopServer(new File(portFile)) ? 0 : -1);
+		}
+		new CompileServer(new File(portFile)).serve(idleTimeout);
+	}
+}
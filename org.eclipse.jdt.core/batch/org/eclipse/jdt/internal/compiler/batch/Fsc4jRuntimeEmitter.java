@@ -0,0 +1,88 @@
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jdt.internal.compiler.util.Util;
+
+/**
+ * Writes the fsc4j runtime class files ({@link Main#fsc4jRuntimeFilenames}) next to the generated class files.
+ *
+ * <p>The runtime class bytes are read from the compiler's class loader once per process. An emitter instance
+ * lives for one compilation and writes the runtime into each destination directory at most once; a file whose
+ * on-disk contents are already identical is not rewritten. Into a jar file destination, the runtime is written by the
+ * compilation's {@link ClassFileWriter}.</p>
+ */
+public class Fsc4jRuntimeEmitter {
+
+	private static byte[][] runtimeClassFileContents;
+
+	private final Set<String> emittedDestinations = new HashSet<>();
+
+	/** Number of runtime class files actually written to disk. */
+	public int filesWritten;
+	/** Number of runtime class file writes avoided, either because the destination was already handled or because the file was up to date. */
+	public int writesSkipped;
+
+	/**
+	 * Answers the contents of the runtime class files, in the order of {@link Main#fsc4jRuntimeFilenames}.
+	 */
+	public static synchronized byte[][] getRuntimeClassFileContents() throws IOException {
+		if (runtimeClassFileContents == null) {
+			String[] filenames = Main.fsc4jRuntimeFilenames;
+			byte[][] contents = new byte[filenames.length][];
+			for (int i = 0; i < filenames.length; i++) {
+				try (InputStream stream = Main.class.getClassLoader().getResourceAsStream(filenames[i])) {
+					if (stream == null)
+						throw new IOException("fsc4j runtime class file not found: " + filenames[i]); //$NON-NLS-1$
+					contents[i] = Util.getInputStreamAsByteArray(stream);
+				}
+			}
+			runtimeClassFileContents = contents;
+		}
+		return runtimeClassFileContents;
+	}
+
+	/**
+	 * Writes the runtime class files into the given destination, unless this emitter already did so.
+	 */
+	public void emit(boolean generateClasspathStructure, String destinationPath, Main.Logger logger, ClassFileWriter writer) {
+		String[] filenames = Main.fsc4jRuntimeFilenames;
+		if (!this.emittedDestinations.add(destinationPath)) {
+			this.writesSkipped += filenames.length;
+			return;
+		}
+		byte[][] contents;
+		try {
+			contents = getRuntimeClassFileContents();
+		} catch (IOException e) {
+			logger.logNoClassFileCreated(destinationPath, filenames[0], e);
+			return;
+		}
+		for (int i = 0; i < filenames.length; i++) {
+			String relativeFileName = filenames[i].replace('/', File.separatorChar);
+			if (generateClasspathStructure && ClassFileWriter.isJar(destinationPath)) {
+				writer.write(true, destinationPath, relativeFileName, contents[i]);
+				this.filesWritten++;
+				continue;
+			}
+			try {
+				if (generateClasspathStructure && ClassFileWriter.isUpToDate(new File(destinationPath, relativeFileName), contents[i])) {
+					this.writesSkipped++;
+					continue;
+				}
+				Util.writeToDisk(
+						generateClasspathStructure,
+						destinationPath,
+						relativeFileName,
+						contents[i]);
+				this.filesWritten++;
+			} catch (IOException e) {
+				logger.logNoClassFileCreated(destinationPath, filenames[i], e);
+			}
+		}
+	}
+}
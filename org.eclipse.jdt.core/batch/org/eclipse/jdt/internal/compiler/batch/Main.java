@@ -33,6 +33,7 @@
 package org.eclipse.jdt.internal.compiler.batch;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -41,7 +42,6 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.io.OutputStreamWriter;
@@ -49,9 +49,11 @@ import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.DateFormat;
@@ -90,6 +92,7 @@ import org.eclipse.jdt.internal.compiler.IProblemFactory;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
 import org.eclipse.jdt.internal.compiler.batch.ModuleFinder.AddExport;
+import org.eclipse.jdt.internal.compiler.classfmt.BinaryTypeCache;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
@@ -1061,6 +1064,75 @@ public class Main implements ProblemSeverities, SuffixConstants {
 								String.valueOf(compilerStats.generateTime),
 								String.valueOf(((int) (compilerStats.generateTime * 1000.0 / time)) / 10.0),
 							}));
+				if (compilerStats.collectDetails) {
+					long[] times = compilerStats.phaseTimes;
+					long[] allocations = compilerStats.phaseAllocations;
+					printlnOut(
+							this.main.bind("compile.detailedPhases", //$NON-NLS-1$
+								new String[] {
+									String.valueOf(times[CompilerStats.METHOD_BODY_PARSE] / 1000000),
+									String.valueOf(times[CompilerStats.METHOD_VERIFICATION] / 1000000),
+									String.valueOf(times[CompilerStats.INFERENCE] / 1000000),
+									String.valueOf(times[CompilerStats.STACK_MAPS] / 1000000),
+									String.valueOf(times[CompilerStats.WRITE] / 1000000),
+								}));
+					printlnOut(
+							this.main.bind("compile.allocations", //$NON-NLS-1$
+								new String[] {
+									String.valueOf((allocations[CompilerStats.PARSE] + allocations[CompilerStats.METHOD_BODY_PARSE]) >> 20),
+									String.valueOf(allocations[CompilerStats.RESOLVE] >> 20),
+									String.valueOf(allocations[CompilerStats.ANALYZE] >> 20),
+									String.valueOf(allocations[CompilerStats.GENERATE] >> 20),
+									String.valueOf(allocations[CompilerStats.WRITE] >> 20),
+									String.valueOf(lineCount == 0 ? 0 : compilerStats.phaseAllocationsTotal() / lineCount),
+								}));
+				}
+				if (!this.main.batchCompiler.useSingleThread) {
+					printlnOut(
+							this.main.bind("compile.waitTime", //$NON-NLS-1$
+								new String[] {
+									String.valueOf(compilerStats.processingWaitTime),
+									String.valueOf(compilerStats.parsingWaitTime),
+									String.valueOf(compilerStats.writingWaitTime),
+								}));
+				}
+			}
+			if (compilerStats.fsc4jRuntimeFilesWritten + compilerStats.fsc4jRuntimeWritesSkipped != 0) {
+				printlnOut(
+						this.main.bind("compile.fsc4jRuntime", //$NON-NLS-1$
+							new String[] {
+								String.valueOf(compilerStats.fsc4jRuntimeFilesWritten),
+								String.valueOf(compilerStats.fsc4jRuntimeWritesSkipped),
+							}));
+			}
+			if (compilerStats.unchangedClassFiles != 0) {
+				printlnOut(
+						this.main.bind("compile.unchangedClassFiles", //$NON-NLS-1$
+							String.valueOf(compilerStats.unchangedClassFiles)));
+			}
+			if (compilerStats.binaryTypeCacheHits + compilerStats.binaryTypeCacheMisses != 0) {
+				printlnOut(
+						this.main.bind("compile.binaryTypeCache", //$NON-NLS-1$
+							new String[] {
+								String.valueOf(compilerStats.binaryTypeCacheHits),
+								String.valueOf(compilerStats.binaryTypeCacheMisses),
+								String.valueOf(BinaryTypeCache.getSize() >> 10),
+							}));
+			}
+			long inferences = compilerStats.inferenceCacheHits + compilerStats.inferenceCacheMisses;
+			if (inferences != 0) {
+				printlnOut(
+						this.main.bind("compile.inferenceCache", //$NON-NLS-1$
+							new String[] {
+								String.valueOf(compilerStats.inferenceCacheHits),
+								String.valueOf(compilerStats.inferenceCacheMisses),
+								String.valueOf(((int) (compilerStats.inferenceCacheHits * 1000.0 / inferences)) / 10.0),
+							}));
+			}
+			if (compilerStats.fsc4jEliminatedSpecificationChecks != 0) {
+				printlnOut(
+						this.main.bind("compile.fsc4jEliminatedChecks", //$NON-NLS-1$
+							String.valueOf(compilerStats.fsc4jEliminatedSpecificationChecks)));
 			}
 		}
 
@@ -1424,6 +1496,7 @@ public class Main implements ProblemSeverities, SuffixConstants {
 	private boolean didSpecifyTarget;
 	public String[] encodings;
 	public int exportedClassFilesCounter;
+	public Fsc4jRuntimeEmitter fsc4jRuntimeEmitter;
 	public String[] filenames;
 	public String[] modNames;
 	public String[] classNames;
@@ -1453,6 +1526,11 @@ public class Main implements ProblemSeverities, SuffixConstants {
 	public boolean failOnWarning = false;
 	public boolean produceRefInfo = false;
 	public int currentRepetition, maxRepetition;
+	public int processingThreads; // 0 unless set by -threads
+	static final int CLASS_FILE_WRITER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+	public String timeDumpFile; // set by -timeDump
+	public boolean skipUnchangedClassFiles; // set by -skipUnchanged
+	protected ClassFileWriter classFileWriter;
 	public boolean showProgress = false;
 	public long startTime;
 	public ArrayList<String> pendingErrors;
@@ -1878,6 +1956,8 @@ public void configure(String[] argv) {
 	final int INSIDE_RELEASE = 30;
 	final int INSIDE_LIMIT_MODULES = 31;
 	final int INSIDE_MODULE_VERSION = 32;
+	final int INSIDE_THREADS = 33;
+	final int INSIDE_TIME_DUMP = 34;
 
 	final int DEFAULT = 0;
 	ArrayList<String> bootclasspaths = new ArrayList<>(DEFAULT_SIZE_CLASSPATH);
@@ -1897,6 +1977,8 @@ public void configure(String[] argv) {
 	int argCount = argv.length;
 	int mode = DEFAULT;
 	this.maxRepetition = 0;
+	this.processingThreads = 0;
+	this.timeDumpFile = null;
 	boolean printUsageRequired = false;
 	String usageSection = null;
 	boolean printVersionRequired = false;
@@ -2106,6 +2188,13 @@ public void configure(String[] argv) {
 					mode = INSIDE_REPETITION;
 					continue;
 				}
+				if (currentArg.equals("-threads")) { //$NON-NLS-1$
+					if (this.processingThreads > 0)
+						throw new IllegalArgumentException(
+							this.bind("configure.duplicateThreads", currentArg)); //$NON-NLS-1$
+					mode = INSIDE_THREADS;
+					continue;
+				}
 				if (currentArg.equals("-maxProblems")) { //$NON-NLS-1$
 					if (this.maxProblems > 0)
 						throw new IllegalArgumentException(
@@ -2292,6 +2381,13 @@ public void configure(String[] argv) {
 					this.timing = TIMING_ENABLED|TIMING_DETAILED;
 					continue;
 				}
+				if (currentArg.equals("-timeDump")) { //$NON-NLS-1$
+					if (this.timeDumpFile != null)
+						throw new IllegalArgumentException(
+							this.bind("configure.duplicateTimeDump", currentArg)); //$NON-NLS-1$
+					mode = INSIDE_TIME_DUMP;
+					continue;
+				}
 				if (currentArg.equals("-version") //$NON-NLS-1$
 						|| currentArg.equals("-v")) { //$NON-NLS-1$
 					this.logger.logVersion(true);
@@ -2320,6 +2416,11 @@ public void configure(String[] argv) {
 					usageSection = "misc.usage.warn"; //$NON-NLS-1$
 					continue;
 				}
+				if (currentArg.equals("-skipUnchanged")) { //$NON-NLS-1$
+					this.skipUnchangedClassFiles = true;
+					mode = DEFAULT;
+					continue;
+				}
 				if (currentArg.equals("-noExit")) { //$NON-NLS-1$
 					this.systemExitWhenFinished = false;
 					mode = DEFAULT;
@@ -2356,6 +2457,18 @@ public void configure(String[] argv) {
 							CompilerOptions.GENERATE);
 					continue;
 				}
+				if (currentArg.startsWith("-fsc4jChecks:")) { //$NON-NLS-1$
+					mode = DEFAULT;
+					String level = currentArg.substring("-fsc4jChecks:".length()); //$NON-NLS-1$
+					if (!level.equals(CompilerOptions.FSC4J_CHECKS_NONE)
+							&& !level.equals(CompilerOptions.FSC4J_CHECKS_PRECONDITIONS)
+							&& !level.equals(CompilerOptions.FSC4J_CHECKS_CONTRACTS)) {
+						throw new IllegalArgumentException(
+							this.bind("configure.invalidFsc4jChecksOption", currentArg)); //$NON-NLS-1$
+					}
+					this.options.put(CompilerOptions.OPTION_Fsc4jRuntimeChecks, level);
+					continue;
+				}
 				if (currentArg.startsWith("-g")) { //$NON-NLS-1$
 					mode = DEFAULT;
 					String debugOption = currentArg;
@@ -2706,6 +2819,21 @@ public void configure(String[] argv) {
 				}
 				mode = DEFAULT;
 				continue;
+			case INSIDE_TIME_DUMP :
+				this.timeDumpFile = currentArg;
+				mode = DEFAULT;
+				continue;
+			case INSIDE_THREADS :
+				try {
+					this.processingThreads = Integer.parseInt(currentArg);
+					if (this.processingThreads <= 0) {
+						throw new IllegalArgumentException(this.bind("configure.threads", currentArg)); //$NON-NLS-1$
+					}
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException(this.bind("configure.threads", currentArg), e); //$NON-NLS-1$
+				}
+				mode = DEFAULT;
+				continue;
 			case INSIDE_MAX_PROBLEMS :
 				try {
 					this.maxProblems = Integer.parseInt(currentArg);
@@ -3089,6 +3217,13 @@ public void configure(String[] argv) {
 			&& CompilerOptions.versionToJdkLevel(this.options.get(CompilerOptions.OPTION_Compliance)) >= ClassFileConstants.JDK1_6) {
 		this.options.put(CompilerOptions.OPTION_Process_Annotations, CompilerOptions.ENABLED);
 	}
+	if (CompilerOptions.ENABLED.equals(this.options.get(CompilerOptions.OPTION_Process_Annotations))) {
+		// processors write the files they generate through their file manager, into directories only
+		checkNoJarDestination(this.destinationPath);
+		if (this.destinationPaths != null)
+			for (String path : this.destinationPaths)
+				checkNoJarDestination(path);
+	}
 
 	this.logger.logCommandLineArguments(newCommandLineArgs);
 	this.logger.logOptions(this.options);
@@ -3357,6 +3492,11 @@ protected void enableAll(int severity) {
 		this.options.remove(newValue);
 	}
 }
+private void checkNoJarDestination(String path) {
+	if (path != null && path != NONE && ClassFileWriter.isJar(path))
+		throw new IllegalArgumentException(
+			this.bind("configure.jarDestinationWithAnnotationProcessing", path)); //$NON-NLS-1$
+}
 protected void disableAll(int severity) {
 	String checkedValue = null;
 	switch(severity) {
@@ -4668,15 +4808,17 @@ private static boolean isParentOf(char[] folderName, char[] fileName) {
 }
 public static final String[] fsc4jRuntimeFilenames = {
 		"fsc4j/EffectChecker.class",
+		"fsc4j/EffectChecker$1.class",
 		"fsc4j/WeakConcurrentIdentityHashMap.class",
 		"fsc4j/UnitType.class",
 		"fsc4j/ClassInfo.class",
 		"fsc4j/EffectChecker$SpecificationFrame.class",
 		"fsc4j/PermissionLevel.class",
 		"fsc4j/WeakConcurrentIdentityHashMap$1.class",
-		"fsc4j/EffectChecker.class",
 		"fsc4j/RelatedObjectIterator.class",
-		"fsc4j/WeakConcurrentIdentityHashMap$Key.class"
+		"fsc4j/WeakConcurrentIdentityHashMap$Entry.class",
+		"fsc4j/ContractChecks.class",
+		"fsc4j/ObjectPermissions.class"
 };
 // Dump classfiles onto disk for all compilation units that where successful
 // and do not carry a -d none spec, either directly or inherited from Main.
@@ -4700,6 +4842,7 @@ public void outputClassFiles(CompilationResult unitResult) {
 			generateClasspathStructure = true;
 		} // else leave currentDestinationPath null
 		if (currentDestinationPath != null) {
+			this.batchCompiler.stats.startPhase(CompilerStats.WRITE);
 			for (int i = 0, fileCount = classFiles.length; i < fileCount; i++) {
 				// retrieve the key and the corresponding classfile
 				ClassFile classFile = classFiles[i];
@@ -4710,45 +4853,29 @@ public void outputClassFiles(CompilationResult unitResult) {
 				System.arraycopy(SuffixConstants.SUFFIX_class, 0, relativeName, length, 6);
 				CharOperation.replace(relativeName, '/', File.separatorChar);
 				String relativeStringName = new String(relativeName);
-				try {
-					if (this.compilerOptions.verbose)
-						this.out.println(
-							Messages.bind(
-								Messages.compilation_write,
-								new String[] {
-									String.valueOf(this.exportedClassFilesCounter+1),
-									relativeStringName
-								}));
-					Util.writeToDisk(
-						generateClasspathStructure,
-						currentDestinationPath,
-						relativeStringName,
-						classFile);
-					this.logger.logClassFile(
-						generateClasspathStructure,
-						currentDestinationPath,
-						relativeStringName);
-					this.exportedClassFilesCounter++;
-				} catch (IOException e) {
-					this.logger.logNoClassFileCreated(currentDestinationPath, relativeStringName, e);
-				}
-			}
-			for (String filename : fsc4jRuntimeFilenames) {
-				try {
-					byte[] bytes;
-					try (InputStream stream = Main.class.getClassLoader().getResourceAsStream(filename)) {
-						bytes = Util.getInputStreamAsByteArray(stream);
-					}
-					Util.writeToDisk(
-							generateClasspathStructure,
-							currentDestinationPath,
-							filename.replace('/', File.separatorChar),
-							bytes);
-				} catch (IOException e) {
-					this.logger.logNoClassFileCreated(currentDestinationPath, filename, e);
-				}
+				if (this.compilerOptions.verbose)
+					this.out.println(
+						Messages.bind(
+							Messages.compilation_write,
+							new String[] {
+								String.valueOf(this.classFileWriter.getSubmittedClassFiles()+1),
+								relativeStringName
+							}));
+				this.classFileWriter.write(
+					generateClasspathStructure,
+					currentDestinationPath,
+					relativeStringName,
+					classFile);
+			}
+			// class files are logged and counted once written, possibly by a writer thread
+			this.exportedClassFilesCounter += this.classFileWriter.logWritten(this.logger);
+			if (this.compilerOptions.fsc4jRuntimeChecks != CompilerOptions.Fsc4jChecksNone) {
+				if (this.fsc4jRuntimeEmitter == null)
+					this.fsc4jRuntimeEmitter = new Fsc4jRuntimeEmitter();
+				this.fsc4jRuntimeEmitter.emit(generateClasspathStructure, currentDestinationPath, this.logger, this.classFileWriter);
 			}
 			this.batchCompiler.lookupEnvironment.releaseClassFiles(classFiles);
+			this.batchCompiler.stats.endPhase(CompilerStats.WRITE, unitResult.unitStats);
 		}
 	}
 }
@@ -4757,6 +4884,7 @@ public void outputClassFiles(CompilationResult unitResult) {
  */
 public void performCompilation() {
 	this.startTime = System.currentTimeMillis();
+	this.fsc4jRuntimeEmitter = new Fsc4jRuntimeEmitter();
 
 	FileSystem environment = getLibraryAccess();
 	try {
@@ -4776,6 +4904,11 @@ public void performCompilation() {
 		// temporary code to allow the compiler to revert to a single thread
 		String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
 		this.batchCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+		if (this.processingThreads > 0) {
+			this.batchCompiler.useSingleThread = this.processingThreads == 1;
+			this.batchCompiler.processingThreads = this.processingThreads;
+		}
+		this.batchCompiler.stats.collectDetails = (this.timing & TIMING_DETAILED) != 0 || this.timeDumpFile != null;
 
 		if (this.compilerOptions.complianceLevel >= ClassFileConstants.JDK1_6
 				&& this.compilerOptions.processAnnotations) {
@@ -4796,27 +4929,55 @@ public void performCompilation() {
 		// set the non-externally configurable options.
 		this.compilerOptions.verbose = this.verbose;
 		this.compilerOptions.produceReferenceInfo = this.produceRefInfo;
+		long binaryTypeCacheHits = BinaryTypeCache.getHits();
+		long binaryTypeCacheMisses = BinaryTypeCache.getMisses();
+		// annotation processors may read the class files of previous rounds
+		this.classFileWriter = new ClassFileWriter(
+				this.batchCompiler.useSingleThread || this.compilerOptions.processAnnotations ? 0 : CLASS_FILE_WRITER_THREADS,
+				this.skipUnchangedClassFiles);
 		try {
 			this.logger.startLoggingSources();
 			this.batchCompiler.compile(getCompilationUnits());
 		} finally {
+			this.exportedClassFilesCounter += this.classFileWriter.finish(this.logger);
 			this.logger.endLoggingSources();
 		}
+		this.batchCompiler.stats.unchangedClassFiles = this.classFileWriter.getUnchangedFiles();
+		this.batchCompiler.stats.binaryTypeCacheHits = BinaryTypeCache.getHits() - binaryTypeCacheHits;
+		this.batchCompiler.stats.binaryTypeCacheMisses = BinaryTypeCache.getMisses() - binaryTypeCacheMisses;
 
 		if (this.extraProblems != null) {
 			loggingExtraProblems();
 			this.extraProblems = null;
 		}
+		this.batchCompiler.stats.fsc4jRuntimeFilesWritten = this.fsc4jRuntimeEmitter.filesWritten;
+		this.batchCompiler.stats.fsc4jRuntimeWritesSkipped = this.fsc4jRuntimeEmitter.writesSkipped;
 		if (this.compilerStats != null) {
 			this.compilerStats[this.currentRepetition] = this.batchCompiler.stats;
 		}
 		this.logger.printStats();
+		if (this.timeDumpFile != null)
+			writeTimeDump(this.batchCompiler.stats);
 	}
 	finally {
 	// cleanup
 		environment.cleanup();
 	}
 }
+/*
+ * Writes the detailed statistics of a compilation into the -timeDump file, as CSV if its name ends with .csv and as
+ * JSON otherwise.
+ */
+private void writeTimeDump(CompilerStats stats) {
+	try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(this.timeDumpFile), StandardCharsets.UTF_8))) {
+		if (this.timeDumpFile.endsWith(".csv")) //$NON-NLS-1$
+			stats.writeCsv(writer);
+		else
+			stats.writeJson(writer);
+	} catch (IOException e) {
+		this.logger.printlnErr(this.bind("compile.cannotWriteTimeDump", this.timeDumpFile, e.getMessage())); //$NON-NLS-1$
+	}
+}
 protected void loggingExtraProblems() {
 	this.logger.loggingExtraProblems(this);
 }
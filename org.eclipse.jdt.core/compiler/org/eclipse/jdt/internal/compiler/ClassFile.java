@@ -62,6 +62,7 @@ import org.eclipse.jdt.internal.compiler.ast.ExportsStatement;
 import org.eclipse.jdt.internal.compiler.ast.Expression;
 import org.eclipse.jdt.internal.compiler.ast.FieldDeclaration;
 import org.eclipse.jdt.internal.compiler.ast.FunctionalExpression;
+import org.eclipse.jdt.internal.compiler.ast.InvariantFootprints;
 import org.eclipse.jdt.internal.compiler.ast.LambdaExpression;
 import org.eclipse.jdt.internal.compiler.ast.LocalDeclaration;
 import org.eclipse.jdt.internal.compiler.ast.MemberValuePair;
@@ -96,6 +97,7 @@ import org.eclipse.jdt.internal.compiler.codegen.StackMapFrameCodeStream.Excepti
 import org.eclipse.jdt.internal.compiler.codegen.TypeAnnotationCodeStream;
 import org.eclipse.jdt.internal.compiler.codegen.VerificationTypeInfo;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
 import org.eclipse.jdt.internal.compiler.impl.Constant;
 import org.eclipse.jdt.internal.compiler.impl.StringConstant;
 import org.eclipse.jdt.internal.compiler.lookup.ArrayBinding;
@@ -1197,7 +1199,8 @@ public class ClassFile implements TypeConstants, TypeIds {
 					int attributeNumber = generateMethodInfoAttributes(methodBinding);
 					int codeAttributeOffset = this.contentsOffset;
 					generateCodeAttributeHeader();
-					this.codeStream.init(this);
+					// The specification method has the same locals as the method, which is what the stack map frames are computed from
+					this.codeStream.reset(method, this);
 					
 					{
 						int resolvedPosition = 1;
@@ -1205,6 +1208,9 @@ public class ClassFile implements TypeConstants, TypeIds {
 							for (Argument argument : method.arguments) {
 								assert argument.binding.resolvedPosition == 0 || argument.binding.resolvedPosition == resolvedPosition;
 								argument.binding.resolvedPosition = resolvedPosition;
+								this.codeStream.record(argument.binding);
+								this.codeStream.addVisibleLocalVariable(argument.binding);
+								argument.binding.recordInitializationStartPC(0);
 								if (argument.binding.type.id == TypeIds.T_long || argument.binding.type.id == TypeIds.T_double)
 									resolvedPosition += 2;
 								else
@@ -1216,6 +1222,12 @@ public class ClassFile implements TypeConstants, TypeIds {
 					LambdaExpression preconditionLambda = method.formalSpecification.preconditionLambda;
 					preconditionLambda.performCodeGenerationTimeFixups(type.binding);
 					
+					BranchLabel checksDisabled = null;
+					if (guardsContractChecks()) {
+						checksDisabled = new BranchLabel(this.codeStream);
+						this.codeStream.generateContractChecksGuard(method, checksDisabled);
+					}
+					
 					if (!preconditionLambda.binding.isStatic())
 						this.codeStream.aload_0();
 					for (SyntheticArgumentBinding local : preconditionLambda.outerLocalVariables) {
@@ -1246,38 +1258,76 @@ public class ClassFile implements TypeConstants, TypeIds {
 						this.codeStream.invoke(Opcodes.OPC_invokeinterface, postconditionMethod, constantPoolDeclaringClass);
 					}
 					
-					switch (method.binding.returnType.id) {
-						case TypeIds.T_void:
-							this.codeStream.return_();
-							break;
-						case TypeIds.T_boolean:
-						case TypeIds.T_byte:
-						case TypeIds.T_short:
-						case TypeIds.T_char:
-						case TypeIds.T_int:
-							this.codeStream.ireturn();
-							break;
-						case TypeIds.T_long:
-							this.codeStream.lreturn();
-							break;
-						case TypeIds.T_float:
-							this.codeStream.freturn();
-							break;
-						case TypeIds.T_double:
-							this.codeStream.dreturn();
-							break;
-						default:
-							this.codeStream.areturn();
-							break;
+					generateReturn(method.binding.returnType);
+					
+					if (checksDisabled != null) {
+						checksDisabled.place();
+						this.codeStream.aload_0();
+						if (method.arguments != null)
+							for (Argument argument : method.arguments)
+								this.codeStream.load(argument.binding);
+						this.codeStream.invoke(type.binding.isInterface() ? Opcodes.OPC_invokeinterface : Opcodes.OPC_invokevirtual, method.binding, type.binding);
+						generateReturn(method.binding.returnType);
 					}
 					
-					this.completeCodeAttribute(codeAttributeOffset, null);
+					this.codeStream.exitUserScope(method.scope);
+					this.completeCodeAttribute(codeAttributeOffset, method.scope);
 					attributeNumber++;
 					this.completeMethodInfo(methodBinding, methodAttributeOffset, attributeNumber);
 				}
 			}
 		}
 	}
+	private void generateReturn(TypeBinding returnType) {
+		switch (returnType.id) {
+			case TypeIds.T_void:
+				this.codeStream.return_();
+				break;
+			case TypeIds.T_boolean:
+			case TypeIds.T_byte:
+			case TypeIds.T_short:
+			case TypeIds.T_char:
+			case TypeIds.T_int:
+				this.codeStream.ireturn();
+				break;
+			case TypeIds.T_long:
+				this.codeStream.lreturn();
+				break;
+			case TypeIds.T_float:
+				this.codeStream.freturn();
+				break;
+			case TypeIds.T_double:
+				this.codeStream.dreturn();
+				break;
+			default:
+				this.codeStream.areturn();
+				break;
+		}
+	}
+	private void recordInvariantsSelectionArgument(MethodDeclaration invariantsMethod) {
+		LocalVariableBinding selection = invariantsMethod.arguments[0].binding;
+		this.codeStream.addVisibleLocalVariable(selection);
+		selection.recordInitializationStartPC(0);
+	}
+	/**
+	 * Generates the check of the invariant at the given statement index of an invariants method; unless the invariant
+	 * is always checked, the check is skipped if the method's selection argument does not select it.
+	 */
+	private void generateInvariantCheck(MethodDeclaration invariantsMethod, FieldBinding[][] footprints, int index) {
+		if (!InvariantFootprints.isSelectable(footprints, index)) {
+			invariantsMethod.statements[index].generateCode(invariantsMethod.scope, this.codeStream);
+			return;
+		}
+		BranchLabel skip = new BranchLabel(this.codeStream);
+		this.codeStream.load(invariantsMethod.arguments[0].binding);
+		this.codeStream.generateInlinedValue(InvariantFootprints.selectionBit(index));
+		this.codeStream.land();
+		this.codeStream.lconst_0();
+		this.codeStream.lcmp();
+		this.codeStream.ifeq(skip);
+		invariantsMethod.statements[index].generateCode(invariantsMethod.scope, this.codeStream);
+		skip.place();
+	}
 	private void addInvariantsMethods() {
 		TypeDeclaration type = this.referenceBinding.scope.referenceContext;
 		if (type.classInvariantsMethod != null) {
@@ -1289,11 +1339,15 @@ public class ClassFile implements TypeConstants, TypeIds {
 			generateCodeAttributeHeader();
 			this.codeStream.reset(type.classInvariantsMethod, this);
 			type.classInvariantsMethod.scope.computeLocalVariablePositions(1, this.codeStream);
+			recordInvariantsSelectionArgument(type.classInvariantsMethod);
+
+			BranchLabel done = new BranchLabel(this.codeStream);
+			if (guardsContractChecks())
+				this.codeStream.generateContractChecksGuard(type.classInvariantsMethod, done);
 
 			this.codeStream.aload_0();
 			this.codeStream.fieldAccess(Opcodes.OPC_getfield, type.invariantsCheckingStateField, type.binding);
 			this.codeStream.iconst_2();
-			BranchLabel done = new BranchLabel(this.codeStream);
 			this.codeStream.if_icmpge(done);
 
 			this.codeStream.aload_0();
@@ -1317,7 +1371,7 @@ public class ClassFile implements TypeConstants, TypeIds {
 			exceptionLabel.placeStart();
 			
 			for (int i = 0; i < type.classRepresentationInvariantsCount; i++)
-				type.classInvariantsMethod.statements[i].generateCode(type.classInvariantsMethod.scope, this.codeStream);
+				generateInvariantCheck(type.classInvariantsMethod, type.classInvariantFootprints, i);
 			
 			exceptionLabel.placeEnd();
 			
@@ -1326,7 +1380,7 @@ public class ClassFile implements TypeConstants, TypeIds {
 			this.codeStream.fieldAccess(Opcodes.OPC_putfield, type.invariantsCheckingStateField, type.binding);
 
 			for (int i = type.classRepresentationInvariantsCount; i < type.classInvariantsMethod.statements.length; i++)
-				type.classInvariantsMethod.statements[i].generateCode(type.classInvariantsMethod.scope, this.codeStream);
+				generateInvariantCheck(type.classInvariantsMethod, type.classInvariantFootprints, i);
 
 			done.place();
 
@@ -1354,11 +1408,15 @@ public class ClassFile implements TypeConstants, TypeIds {
 			generateCodeAttributeHeader();
 			this.codeStream.reset(type.packageInvariantsMethod, this);
 			type.packageInvariantsMethod.scope.computeLocalVariablePositions(1, this.codeStream);
+			recordInvariantsSelectionArgument(type.packageInvariantsMethod);
+
+			BranchLabel done = new BranchLabel(this.codeStream);
+			if (guardsContractChecks())
+				this.codeStream.generateContractChecksGuard(type.packageInvariantsMethod, done);
 
 			this.codeStream.aload_0();
 			this.codeStream.fieldAccess(Opcodes.OPC_getfield, type.invariantsCheckingStateField, type.binding);
 			this.codeStream.iconst_4();
-			BranchLabel done = new BranchLabel(this.codeStream);
 			this.codeStream.if_icmpge(done);
 
 			this.codeStream.aload_0();
@@ -1379,7 +1437,7 @@ public class ClassFile implements TypeConstants, TypeIds {
 			this.codeStream.fieldAccess(Opcodes.OPC_putfield, type.invariantsCheckingStateField, type.binding);
 
 			for (int i = 0; i < type.packageRepresentationInvariantsCount; i++)
-				type.packageInvariantsMethod.statements[i].generateCode(type.packageInvariantsMethod.scope, this.codeStream);
+				generateInvariantCheck(type.packageInvariantsMethod, type.packageInvariantFootprints, i);
 
 			this.codeStream.aload_0();
 			this.codeStream.iconst_4();
@@ -1387,7 +1445,7 @@ public class ClassFile implements TypeConstants, TypeIds {
 			
 			if ((type.modifiers & ClassFileConstants.AccAbstract) == 0) // For now, do not check the abstract state invariants of an abstract class. See https://github.com/fsc4j/fsc4j/issues/28
 				for (int i = type.packageRepresentationInvariantsCount; i < type.packageInvariantsMethod.statements.length; i++)
-					type.packageInvariantsMethod.statements[i].generateCode(type.packageInvariantsMethod.scope, this.codeStream);
+					generateInvariantCheck(type.packageInvariantsMethod, type.packageInvariantFootprints, i);
 			
 			done.place();
 
@@ -3886,6 +3944,8 @@ public class ClassFile implements TypeConstants, TypeIds {
 				localContentsOffset = addBootStrapRecordEntry(localContentsOffset, (TypeDeclaration) o, fPtr);
 			} else if (o instanceof SwitchStatement) {
 				localContentsOffset = addBootStrapTypeSwitchEntry(localContentsOffset, (SwitchStatement) o, fPtr);
+			} else if (o instanceof AbstractMethodDeclaration) {
+				localContentsOffset = addBootStrapContractChecksEntry(localContentsOffset);
 			}
 		}
 
@@ -4119,6 +4179,21 @@ public class ClassFile implements TypeConstants, TypeIds {
 		return localContentsOffset;
 	}
 
+	private int addBootStrapContractChecksEntry(int localContentsOffset) {
+		final int contentsEntries = 4;
+		if (contentsEntries + localContentsOffset >= this.contents.length) {
+			resizeContents(contentsEntries);
+		}
+		int indexForBootstrap = this.constantPool.literalIndexForMethodHandle(ClassFileConstants.MethodHandleRefKindInvokeStatic, ConstantPool.FSC4J_CONTRACTCHECKS,
+				ConstantPool.BOOTSTRAP, ConstantPool.FSC4J_CONTRACTCHECKS_BOOTSTRAP_SIGNATURE, false);
+		this.contents[localContentsOffset++] = (byte) (indexForBootstrap >> 8);
+		this.contents[localContentsOffset++] = (byte) indexForBootstrap;
+		// u2 num_bootstrap_arguments
+		this.contents[localContentsOffset++] = 0;
+		this.contents[localContentsOffset++] = 0;
+		return localContentsOffset;
+	}
+
 	private int generateLineNumberAttribute() {
 		int localContentsOffset = this.contentsOffset;
 		int attributesNumber = 0;
@@ -5308,7 +5383,7 @@ public class ClassFile implements TypeConstants, TypeIds {
 		stackMapFrameCodeStream.removeFramePosition(code_length);
 		if (stackMapFrameCodeStream.hasFramePositions()) {
 			Map<Integer, StackMapFrame> frames = new HashMap<>();
-			List<StackMapFrame> realFrames = traverse(isClinit ? null : methodBinding, max_locals, this.contents, codeAttributeOffset + 14, code_length, frames, isClinit, scope);
+			List<StackMapFrame> realFrames = computeStackMapFrames(isClinit ? null : methodBinding, max_locals, codeAttributeOffset + 14, code_length, frames, isClinit, scope);
 			int numberOfFrames = realFrames.size();
 			if (numberOfFrames > 1) {
 				int stackMapTableAttributeOffset = localContentsOffset;
@@ -5486,7 +5561,7 @@ public class ClassFile implements TypeConstants, TypeIds {
 		stackMapFrameCodeStream.removeFramePosition(code_length);
 		if (stackMapFrameCodeStream.hasFramePositions()) {
 			Map<Integer, StackMapFrame> frames = new HashMap<>();
-			List<StackMapFrame> realFrames = traverse(isClinit ? null: methodBinding, max_locals, this.contents, codeAttributeOffset + 14, code_length, frames, isClinit, scope);
+			List<StackMapFrame> realFrames = computeStackMapFrames(isClinit ? null: methodBinding, max_locals, codeAttributeOffset + 14, code_length, frames, isClinit, scope);
 			int numberOfFrames = realFrames.size();
 			if (numberOfFrames > 1) {
 				int stackMapTableAttributeOffset = localContentsOffset;
@@ -6407,6 +6482,29 @@ public class ClassFile implements TypeConstants, TypeIds {
 		return this.bootstrapMethods.size() - 1;
 	}
 
+	/**
+	 * Answers whether generated contract checks are guarded by the runtime switch {@code fsc4j.ContractChecks},
+	 * which requires {@code invokedynamic}.
+	 */
+	public boolean guardsContractChecks() {
+		return this.targetJDK >= ClassFileConstants.JDK1_7;
+	}
+
+	/**
+	 * Records the bootstrap method of the contract checks guard, which is shared by all methods of the class.
+	 */
+	public int recordContractChecksBootstrapMethod(AbstractMethodDeclaration method) {
+		if (this.bootstrapMethods == null) {
+			this.bootstrapMethods = new ArrayList<>();
+		}
+		for (int i = 0; i < this.bootstrapMethods.size(); i++) {
+			if (this.bootstrapMethods.get(i) instanceof AbstractMethodDeclaration)
+				return i;
+		}
+		this.bootstrapMethods.add(method);
+		return this.bootstrapMethods.size() - 1;
+	}
+
 	public void reset(/*@Nullable*/SourceTypeBinding typeBinding, CompilerOptions options) {
 		// the code stream is reinitialized for each method
 		if (typeBinding != null) {
@@ -6756,6 +6854,24 @@ public class ClassFile implements TypeConstants, TypeIds {
 		}
 	}
 
+	private List<StackMapFrame> computeStackMapFrames(
+			MethodBinding methodBinding,
+			int maxLocals,
+			int codeOffset,
+			int codeLength,
+			Map<Integer, StackMapFrame> frames,
+			boolean isClinit,
+			Scope scope) {
+		CompilerStats stats = scope == null ? null : scope.environment().stats;
+		boolean measured = stats != null && stats.enterNestedPhase(CompilerStats.STACK_MAPS);
+		try {
+			return traverse(methodBinding, maxLocals, this.contents, codeOffset, codeLength, frames, isClinit, scope);
+		} finally {
+			if (measured)
+				stats.exitNestedPhase(CompilerStats.STACK_MAPS);
+		}
+	}
+
 	public List<StackMapFrame> traverse(
 			MethodBinding methodBinding,
 			int maxLocals,
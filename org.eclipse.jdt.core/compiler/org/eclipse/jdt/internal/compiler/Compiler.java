@@ -28,6 +28,11 @@ import org.eclipse.jdt.internal.compiler.util.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("rawtypes")
 public class Compiler implements ITypeRequestor, ProblemSeverities {
@@ -58,6 +63,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public int annotationProcessorStartIndex = 0;
 	public ReferenceBinding[] referenceBindings;
 	public boolean useSingleThread = true; // by default the compiler will not use worker threads to read/process/write
+	public int processingThreads = 1; // when not using a single thread, the threads beyond the first parse method bodies ahead of processing
 
 	// number of initial units parsed at once (-1: none)
 
@@ -290,6 +296,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		this.lookupEnvironment = new LookupEnvironment(this, this.options, this.problemReporter, environment);
 		this.out = out == null ? new PrintWriter(System.out, true) : out;
 		this.stats = new CompilerStats();
+		this.lookupEnvironment.stats = this.stats;
 		initializeParser();
 	}
 
@@ -331,11 +338,14 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 			}
 			// diet parsing for large collection of unit
 			CompilationUnitDeclaration parsedUnit;
+			unitResult.unitStats = this.stats.newUnit(unitResult.getFileName());
+			this.stats.startPhase(CompilerStats.PARSE);
 			if (this.totalUnits < this.parseThreshold) {
 				parsedUnit = this.parser.parse(sourceUnit, unitResult);
 			} else {
 				parsedUnit = this.parser.dietParse(sourceUnit, unitResult);
 			}
+			this.stats.endPhase(CompilerStats.PARSE, unitResult.unitStats);
 			// initial type binding creation
 			this.lookupEnvironment.buildTypeBindings(parsedUnit, accessRestriction);
 			addCompilationUnit(sourceUnit, parsedUnit);
@@ -584,6 +594,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 
 					reportWorked(1, i);
 					this.stats.lineCount += unit.compilationResult.lineSeparatorPositions.length;
+					this.stats.fsc4jEliminatedSpecificationChecks += unit.compilationResult.fsc4jEliminatedSpecificationChecks;
 					long acceptStart = System.currentTimeMillis();
 					this.requestor.acceptResult(unit.compilationResult.tagAsAccepted());
 					this.stats.generateTime += System.currentTimeMillis() - acceptStart; // record accept time as part of generation
@@ -612,6 +623,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 					if (unit == null) break;
 					reportWorked(1, acceptedCount++);
 					this.stats.lineCount += unit.compilationResult.lineSeparatorPositions.length;
+					this.stats.fsc4jEliminatedSpecificationChecks += unit.compilationResult.fsc4jEliminatedSpecificationChecks;
 					this.requestor.acceptResult(unit.compilationResult.tagAsAccepted());
 					if (this.options.verbose)
 						this.out.println(
@@ -663,6 +675,13 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		return null;
 	}
 
+	/*
+	 * Returns the compilation unit at the given index, without releasing it, or null if there is none.
+	 */
+	synchronized CompilationUnitDeclaration peekUnitToProcess(int next) {
+		return this.unitsToProcess != null && next < this.totalUnits ? this.unitsToProcess[next] : null;
+	}
+
 	/*
 	 * Returns whether the compilation unit at the given index should be
 	 * cleaned up after processing. This basically means whether or not
@@ -804,6 +823,82 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		this.parser = new Parser(this.problemReporter, this.options.parseLiteralExpressionsAsConstants);
 	}
 
+	/**
+	 * Answers a parser that a worker thread may use to parse units concurrently with this compiler's parser,
+	 * or null if the parser has been customized and so cannot be duplicated.
+	 */
+	public Parser createWorkerParser() {
+		if (this.parser == null || this.parser.getClass() != Parser.class)
+			return null;
+		ProblemReporter reporter = new ProblemReporter(this.problemReporter.policy, this.options, this.problemReporter.problemFactory);
+		return new Parser(reporter, this.options.parseLiteralExpressionsAsConstants);
+	}
+
+	/*
+	 * Answers a pool of the given number of daemon threads that parse units, or null if parsing cannot be done
+	 * by worker threads.
+	 */
+	ExecutorService newParsingWorkers(int count) {
+		if (count < 1 || createWorkerParser() == null)
+			return null;
+		return Executors.newFixedThreadPool(count, runnable -> {
+			Thread worker = new Thread(runnable, "Compiler Parsing Task"); //$NON-NLS-1$
+			worker.setDaemon(true);
+			return worker;
+		});
+	}
+
+	/*
+	 * Waits, ignoring interrupts, for the given task of a worker thread and answers its result; an exception thrown
+	 * by the task is rethrown in the calling thread.
+	 */
+	static <T> T awaitWorker(Future<T> task) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return task.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof Error)
+						throw (Error) cause;
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					throw new IllegalStateException(cause);
+				}
+			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/*
+	 * Stops the given workers and waits until they are idle. The tasks they have not started on are cancelled, so
+	 * that waiting for them fails rather than blocks, and the ones they have started on run to completion: once this
+	 * returns, no worker writes to a unit any more, and the units may be read or cleaned up by any thread.
+	 */
+	static void stopWorkers(ExecutorService workers) {
+		for (Runnable task : workers.shutdownNow())
+			if (task instanceof Future)
+				((Future<?>) task).cancel(false);
+		boolean interrupted = false;
+		try {
+			while (!workers.isTerminated()) {
+				try {
+					workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
 	private  void abortIfPreviewNotAllowed(ICompilationUnit[] sourceUnits, int maxUnits) {
 		if (!this.options.enablePreviewFeatures)
 			return;
@@ -819,63 +914,118 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 			throw a;
 		}
 	}
+	/*
+	 * Submits the (diet) parsing of the given units to the given workers, each of which uses its own parser, and
+	 * fills in the units' results. The parse phase of each unit is measured on the worker that parses it.
+	 */
+	private List<Future<CompilationUnitDeclaration>> submitParsing(ExecutorService parsingWorkers, ICompilationUnit[] sourceUnits, CompilationResult[] unitResults, int maxUnits) {
+		ThreadLocal<Parser> workerParsers = ThreadLocal.withInitial(this::createWorkerParser);
+		List<Future<CompilationUnitDeclaration>> parsedUnits = new ArrayList<>(maxUnits);
+		for (int i = 0; i < maxUnits; i++) {
+			ICompilationUnit sourceUnit = sourceUnits[i];
+			CompilationResult unitResult = unitResults[i] = new CompilationResult(sourceUnit, i, maxUnits, this.options.maxProblemsPerUnit);
+			unitResult.unitStats = this.stats.newUnit(unitResult.getFileName());
+			boolean fullParse = this.totalUnits + i < this.parseThreshold;
+			parsedUnits.add(parsingWorkers.submit(() -> {
+				this.stats.startPhase(CompilerStats.PARSE);
+				CompilationUnitDeclaration parsedUnit = fullParse
+					? workerParsers.get().parse(sourceUnit, unitResult)
+					: workerParsers.get().dietParse(sourceUnit, unitResult);
+				this.stats.endPhase(CompilerStats.PARSE, unitResult.unitStats);
+				return parsedUnit;
+			}));
+		}
+		return parsedUnits;
+	}
+
 	/**
 	 * Add the initial set of compilation units into the loop
 	 *  ->  build compilation unit declarations, their bindings and record their results.
 	 */
 	protected void internalBeginToCompile(ICompilationUnit[] sourceUnits, int maxUnits) {
 		abortIfPreviewNotAllowed(sourceUnits,maxUnits);
-		if (!this.useSingleThread && maxUnits >= ReadManager.THRESHOLD)
-			this.parser.readManager = new ReadManager(sourceUnits, maxUnits);
-		// Switch the current policy and compilation result for this unit to the requested one.
-		for (int i = 0; i < maxUnits; i++) {
-			CompilationResult unitResult = null;
-			try {
-				if (this.options.verbose) {
-					this.out.println(
-						Messages.bind(Messages.compilation_request,
-						new String[] {
-							String.valueOf(i + 1),
-							String.valueOf(maxUnits),
-							new String(sourceUnits[i].getFileName())
-						}));
-				}
-				// diet parsing for large collection of units
-				CompilationUnitDeclaration parsedUnit;
-				unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
-				long parseStart = System.currentTimeMillis();
-				if (this.totalUnits < this.parseThreshold) {
-					parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
-				} else {
-					parsedUnit = this.parser.dietParse(sourceUnits[i], unitResult);
-				}
-				long resolveStart = System.currentTimeMillis();
-				this.stats.parseTime += resolveStart - parseStart;
-				// initial type binding creation
-				this.lookupEnvironment.buildTypeBindings(parsedUnit, null /*no access restriction*/);
-				this.stats.resolveTime += System.currentTimeMillis() - resolveStart;
-				addCompilationUnit(sourceUnits[i], parsedUnit);
-				ImportReference currentPackage = parsedUnit.currentPackage;
-				if (currentPackage != null) {
-					unitResult.recordPackageName(currentPackage.tokens);
+		ExecutorService parsingWorkers = null;
+		List<Future<CompilationUnitDeclaration>> parsedUnits = null;
+		CompilationResult[] unitResults = null;
+		if (!this.useSingleThread && maxUnits >= ReadManager.THRESHOLD) {
+			if (this.processingThreads > 1)
+				parsingWorkers = newParsingWorkers(this.processingThreads);
+			if (parsingWorkers == null)
+				this.parser.readManager = new ReadManager(sourceUnits, maxUnits);
+			else
+				parsedUnits = submitParsing(parsingWorkers, sourceUnits, unitResults = new CompilationResult[maxUnits], maxUnits);
+		}
+		try {
+			// Switch the current policy and compilation result for this unit to the requested one.
+			for (int i = 0; i < maxUnits; i++) {
+				CompilationResult unitResult = null;
+				try {
+					if (this.options.verbose) {
+						this.out.println(
+							Messages.bind(Messages.compilation_request,
+							new String[] {
+								String.valueOf(i + 1),
+								String.valueOf(maxUnits),
+								new String(sourceUnits[i].getFileName())
+							}));
+					}
+					// diet parsing for large collection of units
+					CompilationUnitDeclaration parsedUnit;
+					long parseStart = System.currentTimeMillis();
+					if (parsedUnits != null) {
+						// parsed by a worker thread, which measures the parse phase; only the binding creation below
+						// is serialized, in unit order, and the time spent waiting for the worker counts as parse time
+						// in the overall figures alone
+						unitResult = unitResults[i];
+						parsedUnit = awaitWorker(parsedUnits.get(i));
+						parsedUnits.set(i, null);
+					} else {
+						unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
+						unitResult.unitStats = this.stats.newUnit(unitResult.getFileName());
+						this.stats.startPhase(CompilerStats.PARSE);
+						if (this.totalUnits < this.parseThreshold) {
+							parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
+						} else {
+							parsedUnit = this.parser.dietParse(sourceUnits[i], unitResult);
+						}
+						this.stats.endPhase(CompilerStats.PARSE, unitResult.unitStats);
+					}
+					CompilerStats.UnitStats unitStats = unitResult.unitStats;
+					long resolveStart = System.currentTimeMillis();
+					this.stats.parseTime += resolveStart - parseStart;
+					this.stats.startPhase(CompilerStats.RESOLVE);
+					// initial type binding creation
+					this.lookupEnvironment.buildTypeBindings(parsedUnit, null /*no access restriction*/);
+					this.stats.endPhase(CompilerStats.RESOLVE, unitStats);
+					this.stats.resolveTime += System.currentTimeMillis() - resolveStart;
+					addCompilationUnit(sourceUnits[i], parsedUnit);
+					ImportReference currentPackage = parsedUnit.currentPackage;
+					if (currentPackage != null) {
+						unitResult.recordPackageName(currentPackage.tokens);
+					}
+					//} catch (AbortCompilationUnit e) {
+					//	requestor.acceptResult(unitResult.tagAsAccepted());
+				} catch (AbortCompilation a) {
+					// best effort to find a way for reporting this problem:
+					if (a.compilationResult == null)
+						a.compilationResult = unitResult;
+					throw a;
+				} finally {
+					sourceUnits[i] = null; // no longer hold onto the unit
 				}
-				//} catch (AbortCompilationUnit e) {
-				//	requestor.acceptResult(unitResult.tagAsAccepted());
-			} catch (AbortCompilation a) {
-				// best effort to find a way for reporting this problem:
-				if (a.compilationResult == null)
-					a.compilationResult = unitResult;
-				throw a;
-			} finally {
-				sourceUnits[i] = null; // no longer hold onto the unit
 			}
+		} finally {
+			if (parsingWorkers != null)
+				stopWorkers(parsingWorkers);
 		}
 		if (this.parser.readManager != null) {
 			this.parser.readManager.shutdown();
 			this.parser.readManager = null;
 		}
 		// binding resolution
+		this.stats.startPhase(CompilerStats.RESOLVE);
 		this.lookupEnvironment.completeTypeBindings();
+		this.stats.endPhase(CompilerStats.RESOLVE, null);
 	}
 
 	/**
@@ -883,12 +1033,17 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	 */
 	public void process(CompilationUnitDeclaration unit, int i) {
 		this.lookupEnvironment.unitBeingCompleted = unit;
+		CompilerStats.UnitStats unitStats = unit.compilationResult.unitStats;
+		this.stats.setCurrentUnit(unitStats);
 		long parseStart = System.currentTimeMillis();
+		this.stats.startPhase(CompilerStats.METHOD_BODY_PARSE);
 
 		this.parser.getMethodBodies(unit);
 
+		this.stats.endPhase(CompilerStats.METHOD_BODY_PARSE, unitStats);
 		long resolveStart = System.currentTimeMillis();
 		this.stats.parseTime += resolveStart - parseStart;
+		this.stats.startPhase(CompilerStats.RESOLVE);
 
 		// fault in fields & methods
 		if (unit.scope != null)
@@ -901,14 +1056,18 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		// type checking
 		unit.resolve();
 
+		this.stats.endPhase(CompilerStats.RESOLVE, unitStats);
 		long analyzeStart = System.currentTimeMillis();
 		this.stats.resolveTime += analyzeStart - resolveStart;
+		this.stats.startPhase(CompilerStats.ANALYZE);
 
 		//No need of analysis or generation of code if statements are not required
 		if (!this.options.ignoreMethodBodies) unit.analyseCode(); // flow analysis
 
+		this.stats.endPhase(CompilerStats.ANALYZE, unitStats);
 		long generateStart = System.currentTimeMillis();
 		this.stats.analyzeTime += generateStart - analyzeStart;
+		this.stats.startPhase(CompilerStats.GENERATE);
 
 		if (!this.options.ignoreMethodBodies) unit.generateCode(); // code generation
 
@@ -920,6 +1079,8 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		unit.finalizeProblems();
 
 		this.stats.generateTime += System.currentTimeMillis() - generateStart;
+		this.stats.endPhase(CompilerStats.GENERATE, unitStats);
+		this.stats.setCurrentUnit(null);
 
 		// refresh the total number of units known at this stage
 		unit.compilationResult.totalUnitsKnown = this.totalUnits;
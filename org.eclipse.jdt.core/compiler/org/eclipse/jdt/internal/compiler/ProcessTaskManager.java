@@ -14,105 +14,162 @@
 
 package org.eclipse.jdt.internal.compiler;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
 import org.eclipse.jdt.internal.compiler.util.Messages;
 
 public class ProcessTaskManager implements Runnable {
 
 	Compiler compiler;
 	private int unitIndex;
-	private Thread processingThread;
+	private volatile Thread processingThread;
+	private final Thread processor;
+	private volatile boolean shutdown;
 	CompilationUnitDeclaration unitToProcess;
-	private Throwable caughtException;
+	private volatile Throwable caughtException;
+
+	// processed units, bounded both in number and in the total source length of the units they hold
+	private final BlockingQueue<CompilationUnitDeclaration> processedUnits;
+	private final Semaphore processedSourceBudget;
 
-	// queue
-	volatile int currentIndex, availableIndex, size, sleepCount;
-	CompilationUnitDeclaration[] units;
+	// time spent blocked, in nanoseconds: by the processing thread on a full queue or on method bodies still being
+	// parsed, and by the writing/main thread on an empty queue
+	private volatile long processingWaitTime, parsingWaitTime;
+	private long writingWaitTime;
 
 	public static final int PROCESSED_QUEUE_SIZE = 100;
+	public static final int PROCESSED_SOURCE_BUDGET = 4 * 1024 * 1024; // characters
+	static final long SHUTDOWN_POLL_INTERVAL = 250; // ms, bounds how late a blocked thread notices a shutdown
+
+	// marks the end of the processed units; the processing thread enqueues it when it stops
+	private static final CompilationUnitDeclaration NO_MORE_UNITS = new CompilationUnitDeclaration(null, null, 0);
+
+	// method bodies are parsed by worker threads, ahead of the processing thread (null if single threaded); a unit
+	// submitted to a worker is handed off through its future in parsedUnits, which the processing thread awaits
+	// before it reads the unit, and the workers are stopped before any other thread may read or clean up the units
+	private ExecutorService parsingWorkers;
+	private ThreadLocal<Parser> workerParsers;
+	private final Map<Integer, Future<?>> parsedUnits = new HashMap<>();
+	private int parseAheadIndex;
+
+	static final int PARSE_AHEAD = 16;
 
 public ProcessTaskManager(Compiler compiler, int startingIndex) {
 	this.compiler = compiler;
 	this.unitIndex = startingIndex;
 
-	this.currentIndex = 0;
-	this.availableIndex = 0;
-	this.size = PROCESSED_QUEUE_SIZE;
-	this.sleepCount = 0; // 0 is no one, +1 is the processing thread & -1 is the writing/main thread
-	this.units = new CompilationUnitDeclaration[this.size];
+	this.processedUnits = new ArrayBlockingQueue<>(PROCESSED_QUEUE_SIZE);
+	this.processedSourceBudget = new Semaphore(PROCESSED_SOURCE_BUDGET);
+
+	this.parsingWorkers = compiler.newParsingWorkers(compiler.processingThreads - 1);
+	if (this.parsingWorkers != null) {
+		this.workerParsers = ThreadLocal.withInitial(compiler::createWorkerParser);
+		this.parseAheadIndex = startingIndex;
+	}
 
 	synchronized (this) {
-		this.processingThread = new Thread(this, "Compiler Processing Task"); //$NON-NLS-1$
+		this.processingThread = this.processor = new Thread(this, "Compiler Processing Task"); //$NON-NLS-1$
 		this.processingThread.setDaemon(true);
 		this.processingThread.start();
 	}
 }
 
+/*
+ * The share of the source budget held by a processed unit while it waits in the queue; a unit larger than the
+ * whole budget takes all of it, so that it is queued alone.
+ */
+private static int sourceWeight(CompilationUnitDeclaration unit) {
+	return Math.max(0, Math.min(unit.sourceEnd + 1, PROCESSED_SOURCE_BUDGET));
+}
+
 // add unit to the queue - wait if no space is available
-private synchronized void addNextUnit(CompilationUnitDeclaration newElement) {
-	while (this.units[this.availableIndex] != null) {
-		//System.out.print('a');
-		//if (this.sleepCount < 0) throw new IllegalStateException(Integer.valueOf(this.sleepCount).toString());
-		this.sleepCount = 1;
-		try {
-			wait(250);
-		} catch (InterruptedException ignore) {
-			// ignore
+private void addNextUnit(CompilationUnitDeclaration newElement) {
+	int weight = newElement == NO_MORE_UNITS ? 0 : sourceWeight(newElement);
+	long waitStart = 0;
+	try {
+		while (!this.processedSourceBudget.tryAcquire(weight)) {
+			if (waitStart == 0)
+				waitStart = System.nanoTime();
+			try {
+				if (this.processedSourceBudget.tryAcquire(weight, SHUTDOWN_POLL_INTERVAL, TimeUnit.MILLISECONDS))
+					break;
+			} catch (InterruptedException ignore) {
+				// ignore
+			}
+			if (this.shutdown)
+				return;
+		}
+		while (!this.processedUnits.offer(newElement)) {
+			if (waitStart == 0)
+				waitStart = System.nanoTime();
+			try {
+				if (this.processedUnits.offer(newElement, SHUTDOWN_POLL_INTERVAL, TimeUnit.MILLISECONDS))
+					break;
+			} catch (InterruptedException ignore) {
+				// ignore
+			}
+			if (this.shutdown)
+				return;
 		}
-		this.sleepCount = 0;
+	} finally {
+		if (waitStart != 0)
+			this.processingWaitTime += System.nanoTime() - waitStart;
 	}
-
-	this.units[this.availableIndex++] = newElement;
-	if (this.availableIndex >= this.size)
-		this.availableIndex = 0;
-	if (this.sleepCount <= -1)
-		notify(); // wake up writing thread to accept next unit - could be the last one - must avoid deadlock
 }
 
 public CompilationUnitDeclaration removeNextUnit() throws Error {
-	CompilationUnitDeclaration next = null;
-	boolean yield = false;
-	synchronized (this) {
-		next = this.units[this.currentIndex];
-		if (next == null || this.caughtException != null) {
-			do {
-				if (this.processingThread == null) {
-					if (this.caughtException != null) {
-						// rethrow the caught exception from the processingThread in the main compiler thread
-						if (this.caughtException instanceof Error)
-							throw (Error) this.caughtException;
-						throw (RuntimeException) this.caughtException;
-					}
-					return null;
-				}
-				//System.out.print('r');
-				//if (this.sleepCount > 0) throw new IllegalStateException(Integer.valueOf(this.sleepCount).toString());
-				this.sleepCount = -1;
-				try {
-					wait(100);
-				} catch (InterruptedException ignore) {
-					// ignore
-				}
-				this.sleepCount = 0;
-				next = this.units[this.currentIndex];
-			} while (next == null);
-		}
-
-		this.units[this.currentIndex++] = null;
-		if (this.currentIndex >= this.size)
-			this.currentIndex = 0;
-		if (this.sleepCount >= 1 && ++this.sleepCount > 4) {
-			notify(); // wake up processing thread to add next unit but only after removing some elements first
-			yield = this.sleepCount > 8;
+	CompilationUnitDeclaration next = this.caughtException == null ? this.processedUnits.poll() : NO_MORE_UNITS;
+	if (next == null) {
+		long waitStart = System.nanoTime();
+		do {
+			try {
+				next = this.processedUnits.poll(SHUTDOWN_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ignore) {
+				// ignore
+			}
+			if (next == null && !this.processor.isAlive() && (next = this.processedUnits.poll()) == null)
+				next = NO_MORE_UNITS; // the processing thread died without saying so
+		} while (next == null);
+		this.writingWaitTime += System.nanoTime() - waitStart;
+	}
+	if (next == NO_MORE_UNITS) {
+		Throwable exception = this.caughtException;
+		if (exception != null) {
+			// rethrow the caught exception from the processingThread in the main compiler thread
+			if (exception instanceof Error)
+				throw (Error) exception;
+			throw (RuntimeException) exception;
 		}
+		this.processedUnits.offer(NO_MORE_UNITS); // keep answering null
+		return null;
 	}
-	if (yield)
-		Thread.yield();
+	this.processedSourceBudget.release(sourceWeight(next));
 	return next;
 }
 
 @Override
 public void run() {
+	try {
+		processUnits();
+	} finally {
+		shutdownParsingWorkers();
+		addNextUnit(NO_MORE_UNITS);
+	}
+}
+
+private void processUnits() {
 	boolean noAnnotations = this.compiler.annotationProcessorManager == null;
 	while (this.processingThread != null) {
 		this.unitToProcess = null;
@@ -142,6 +199,8 @@ public void run() {
 							String.valueOf(this.compiler.totalUnits),
 							new String(this.unitToProcess.getFileName())
 						}));
+				if (this.parsingWorkers != null)
+					awaitMethodBodies(index);
 				this.compiler.process(this.unitToProcess, index);
 			} finally {
 				// cleanup compilation unit result, but only if not annotation processed.
@@ -160,14 +219,66 @@ public void run() {
 	}
 }
 
+/*
+ * Schedules the parsing of the method bodies of the units that follow the given one, then waits until the method
+ * bodies of the given unit are parsed; the processing thread then finds them already parsed. Completing the future
+ * of a unit publishes what its worker wrote. Until then, the processing thread reads only the declarations of that
+ * unit, which were built before it was submitted, and not the method bodies or the syntax error flags that the
+ * worker writes.
+ */
+private void awaitMethodBodies(int index) {
+	if (this.parseAheadIndex < index)
+		this.parseAheadIndex = index;
+	for (; this.parseAheadIndex <= index + PARSE_AHEAD; this.parseAheadIndex++) {
+		CompilationUnitDeclaration unit = this.parseAheadIndex == index
+			? this.unitToProcess
+			: this.compiler.peekUnitToProcess(this.parseAheadIndex);
+		if (unit == null)
+			break;
+		if (unit.compilationResult.hasBeenAccepted)
+			continue;
+		try {
+			this.parsedUnits.put(this.parseAheadIndex, this.parsingWorkers.submit(() -> parseMethodBodies(unit)));
+		} catch (RejectedExecutionException e) {
+			break; // shut down
+		}
+	}
+	Future<?> parsed = this.parsedUnits.remove(index);
+	if (parsed == null)
+		return; // not submitted, the processing thread parses the method bodies itself
+	long waitStart = parsed.isDone() ? 0 : System.nanoTime();
+	try {
+		Compiler.awaitWorker(parsed);
+	} catch (CancellationException e) {
+		// stopped before a worker started on the unit, the processing thread parses the method bodies itself
+	} finally {
+		if (waitStart != 0)
+			this.parsingWaitTime += System.nanoTime() - waitStart;
+	}
+}
+
+// runs on a parsing worker, which measures the phase: the processing thread then finds nothing left to parse
+private void parseMethodBodies(CompilationUnitDeclaration unit) {
+	CompilerStats stats = this.compiler.stats;
+	stats.startPhase(CompilerStats.METHOD_BODY_PARSE);
+	this.workerParsers.get().getMethodBodies(unit);
+	stats.endPhase(CompilerStats.METHOD_BODY_PARSE, unit.compilationResult.unitStats);
+}
+
+private void shutdownParsingWorkers() {
+	if (this.parsingWorkers != null)
+		Compiler.stopWorkers(this.parsingWorkers);
+}
+
 public void shutdown() {
+	this.shutdown = true;
+	shutdownParsingWorkers();
 	try {
 		Thread t = null;
 		synchronized (this) {
 			if (this.processingThread != null) {
 				t = this.processingThread;
 				this.processingThread = null;
-				notifyAll();
 			}
 		}
 		if (t != null)
@@ -175,5 +286,9 @@ public void shutdown() {
 	} catch (InterruptedException ignored) {
 		// ignore
 	}
+	CompilerStats stats = this.compiler.stats;
+	stats.processingWaitTime += this.processingWaitTime / 1000000;
+	stats.parsingWaitTime += this.parsingWaitTime / 1000000;
+	stats.writingWaitTime += this.writingWaitTime / 1000000;
 }
 }
@@ -70,6 +70,7 @@ public abstract class AbstractMethodDeclaration
 	public Javadoc javadoc;
 	public FormalSpecification formalSpecification;
 	public LocalVariableBinding oldInvariantsCheckingStateVariable;
+	private long[] exitInvariantsSelection;
 
 	public int bodyStart;
 	public int bodyEnd = -1;
@@ -374,10 +375,12 @@ public abstract class AbstractMethodDeclaration
 						}
 						if (classRepresentationInvariantsMethod != null) {
 							codeStream.aload_0();
+							codeStream.generateInlinedValue(InvariantFootprints.ALL_INVARIANTS);
 							codeStream.invoke(Opcodes.OPC_invokespecial, classRepresentationInvariantsMethod.binding, classRepresentationInvariantsMethod.binding.declaringClass);
 						}
 						if (packageRepresentationInvariantsMethod != null) {
 							codeStream.aload_0();
+							codeStream.generateInlinedValue(InvariantFootprints.ALL_INVARIANTS);
 							codeStream.invoke(Opcodes.OPC_invokespecial, packageRepresentationInvariantsMethod.binding, packageRepresentationInvariantsMethod.binding.declaringClass);
 						}
 						codeStream.recordPositionsFrom(pc, inspectsThisSourceLocation);
@@ -433,6 +436,22 @@ public abstract class AbstractMethodDeclaration
 		return this.formalSpecification != null && this.formalSpecification.hasEffectClauses();
 	}
 	
+	/**
+	 * fsc4j: answers the selection arguments for the class and package invariants checks on exit. The entry check
+	 * established all invariants, so only the ones that read a field written by the method's statements need to be
+	 * rechecked. Constructors have no entry check.
+	 */
+	private long[] exitInvariantsSelection(TypeDeclaration enclosingClass) {
+		if (this.exitInvariantsSelection == null) {
+			FieldBinding[] writtenFields = isConstructor() ? null : InvariantFootprints.writtenFields(this);
+			this.exitInvariantsSelection = new long[] {
+				InvariantFootprints.selectInvariants(enclosingClass.classInvariantFootprints, writtenFields),
+				InvariantFootprints.selectInvariants(enclosingClass.packageInvariantFootprints, writtenFields)
+			};
+		}
+		return this.exitInvariantsSelection;
+	}
+
 	public void generatePostconditionCheck(CodeStream codeStream, int returnLocation) {
 		TypeDeclaration enclosingClass = this.scope.enclosingClassScope().referenceContext;
 		boolean invariantChecksInserted = false;
@@ -447,22 +466,32 @@ public abstract class AbstractMethodDeclaration
 					mutatesThisSourceLocation = this.formalSpecification.mutatesThisSourceLocation();
 				if (mutatesThisSourceLocation != -1) {
 					int pc = codeStream.position;
+					long[] selection = exitInvariantsSelection(enclosingClass);
 					if (classRepresentationInvariantsMethod != null) {
-						codeStream.aload_0();
-						codeStream.invoke(Opcodes.OPC_invokespecial, classRepresentationInvariantsMethod.binding, classRepresentationInvariantsMethod.binding.declaringClass);
+						if (selection[0] != 0) {
+							codeStream.aload_0();
+							codeStream.generateInlinedValue(selection[0]);
+							codeStream.invoke(Opcodes.OPC_invokespecial, classRepresentationInvariantsMethod.binding, classRepresentationInvariantsMethod.binding.declaringClass);
+						}
 						invariantChecksInserted = true;
 					}
 					if (packageRepresentationInvariantsMethod != null) {
-						codeStream.aload_0();
-						codeStream.invoke(Opcodes.OPC_invokespecial, packageRepresentationInvariantsMethod.binding, packageRepresentationInvariantsMethod.binding.declaringClass);
+						if (selection[1] != 0) {
+							codeStream.aload_0();
+							codeStream.generateInlinedValue(selection[1]);
+							codeStream.invoke(Opcodes.OPC_invokespecial, packageRepresentationInvariantsMethod.binding, packageRepresentationInvariantsMethod.binding.declaringClass);
+						}
 						invariantChecksInserted = true;
 					}
 					codeStream.recordPositionsFrom(pc, returnLocation);
 				}
 			}
 		}
-		if (this.formalSpecification != null)
+		if (this.formalSpecification != null) {
+			int pc = codeStream.position;
 			this.formalSpecification.generatePostconditionCheck(codeStream);
+			codeStream.recordPositionsFrom(pc, returnLocation);
+		}
 		if (invariantChecksInserted) {
 			// TODO: Do this only if the object is not @immutable?
 			codeStream.aload_0();
@@ -8,10 +8,12 @@ import java.util.HashMap;
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.ASTVisitor;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.codegen.BranchLabel;
 import org.eclipse.jdt.internal.compiler.codegen.CodeStream;
 import org.eclipse.jdt.internal.compiler.codegen.Opcodes;
 import org.eclipse.jdt.internal.compiler.flow.ExceptionHandlingFlowContext;
 import org.eclipse.jdt.internal.compiler.flow.FlowInfo;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.lookup.ArrayBinding;
 import org.eclipse.jdt.internal.compiler.lookup.Binding;
 import org.eclipse.jdt.internal.compiler.lookup.BlockScope;
@@ -231,8 +233,11 @@ public class FormalSpecification {
 	
 	public void initializeMethodBinding() {
 		
+		int runtimeChecks = this.method.scope.compilerOptions().fsc4jRuntimeChecks;
+		boolean checksPreconditions = runtimeChecks >= CompilerOptions.Fsc4jChecksPreconditions && this.preconditions != null;
+		boolean checksPostconditions = runtimeChecks >= CompilerOptions.Fsc4jChecksContracts && (this.postconditions != null || this.throwsConditions != null || this.mayThrowConditions != null);
 		if ((this.method.modifiers & (ClassFileConstants.AccStatic | ClassFileConstants.AccPrivate | ClassFileConstants.AccFinal)) == 0
-				&& !this.method.binding.declaringClass.isFinal() && (this.preconditions != null || this.postconditions != null || this.throwsConditions != null || this.mayThrowConditions != null)) {
+				&& !this.method.binding.declaringClass.isFinal() && (checksPreconditions || checksPostconditions)) {
 
 			this.method.binding.hasSpecificationMethod = true;
 		    
@@ -244,6 +249,31 @@ public class FormalSpecification {
 		if (this.method.ignoreFurtherInvestigation)
 			return;
 		
+		int runtimeChecks = this.method.scope.compilerOptions().fsc4jRuntimeChecks;
+		if (runtimeChecks >= CompilerOptions.Fsc4jChecksContracts) {
+			resolveAndLower();
+			return;
+		}
+		// Clauses that are not checked at this level are neither lowered nor resolved, just like plain Javadoc
+		this.statementsForMethodBody = new ArrayList<>();
+		if (runtimeChecks == CompilerOptions.Fsc4jChecksNone || this.preconditions == null)
+			return;
+		Expression[] postconditions = this.postconditions;
+		Expression[] throwsConditions = this.throwsConditions;
+		Expression[] mayThrowConditions = this.mayThrowConditions;
+		this.postconditions = null;
+		this.throwsConditions = null;
+		this.mayThrowConditions = null;
+		try {
+			resolveAndLower();
+		} finally {
+			this.postconditions = postconditions;
+			this.throwsConditions = throwsConditions;
+			this.mayThrowConditions = mayThrowConditions;
+		}
+	}
+	
+	private void resolveAndLower() {
 		ArrayList<Statement> statementsForBlock = new ArrayList<>();
 		HashMap<String, OldExpression.DistinctExpression> oldExpressions = new HashMap<>();
 		int blockDeclarationsCount = 0;
@@ -873,7 +903,14 @@ public class FormalSpecification {
 	}
 
 	public void generatePostconditionCheck(CodeStream codeStream) {
-		if (this.postconditions != null || this.throwsConditions != null) {
+		if (this.postconditionMethodCall != null && (this.postconditions != null || this.throwsConditions != null)) {
+			BranchLabel checksDisabled = null;
+			if (codeStream.classFile.guardsContractChecks()) {
+				// The postcondition variable is null if the checks were disabled on entry
+				checksDisabled = new BranchLabel(codeStream);
+				codeStream.load(this.postconditionVariableDeclaration.binding);
+				codeStream.ifnull(checksDisabled);
+			}
 			int returnType = this.method.binding.returnType.id;
 			if (returnType == TypeIds.T_void) {
 				codeStream.load(this.postconditionVariableDeclaration.binding);
@@ -897,6 +934,8 @@ public class FormalSpecification {
 			MethodBinding generatedMethod = this.postconditionMethodCall.binding.original();
 			TypeBinding constantPoolDeclaringClass = CodeStream.getConstantPoolDeclaringClass(this.method.scope, generatedMethod, generatedMethod.declaringClass, false);
 			codeStream.invoke(Opcodes.OPC_invokeinterface, generatedMethod, constantPoolDeclaringClass);
+			if (checksDisabled != null)
+				checksDisabled.place();
 		}
 		
 	}
@@ -908,8 +947,21 @@ public class FormalSpecification {
 	}
 
 	public void generateCode(MethodScope scope, CodeStream codeStream) {
+		if (this.statementsForMethodBody.isEmpty())
+			return;
+		BranchLabel checksDisabled = null;
+		if (codeStream.classFile.guardsContractChecks()) {
+			if (this.postconditionVariableDeclaration != null) {
+				codeStream.aconst_null();
+				codeStream.store(this.postconditionVariableDeclaration.binding, false);
+			}
+			checksDisabled = new BranchLabel(codeStream);
+			codeStream.generateContractChecksGuard(this.method, checksDisabled);
+		}
 		for (Statement s : this.statementsForMethodBody)
 			s.generateCode(scope, codeStream);
+		if (checksDisabled != null)
+			checksDisabled.place();
 	}
 
 	public boolean hasEffectClauses() {
@@ -0,0 +1,314 @@
+package org.eclipse.jdt.internal.compiler.ast;
+
+import java.util.ArrayList;
+
+import org.eclipse.jdt.internal.compiler.ASTVisitor;
+import org.eclipse.jdt.internal.compiler.impl.Constant;
+import org.eclipse.jdt.internal.compiler.lookup.ArrayBinding;
+import org.eclipse.jdt.internal.compiler.lookup.Binding;
+import org.eclipse.jdt.internal.compiler.lookup.BlockScope;
+import org.eclipse.jdt.internal.compiler.lookup.FieldBinding;
+import org.eclipse.jdt.internal.compiler.lookup.LocalVariableBinding;
+import org.eclipse.jdt.internal.compiler.lookup.ReferenceBinding;
+import org.eclipse.jdt.internal.compiler.lookup.TypeBinding;
+import org.eclipse.jdt.internal.compiler.lookup.TypeIds;
+
+/**
+ * Supports incremental invariant checking: a method whose body provably writes only some fields of its class needs
+ * to recheck, on exit, only the invariants that read those fields, since its entry check established all of them.
+ *
+ * <p>The invariants methods take a mask whose bit <i>i</i> selects the invariant at statement index <i>i</i>. An
+ * invariant is selectable if its index is below 64 and its footprint, the set of fields of {@code this} it reads, is
+ * known; other invariants are always checked. Specification expressions are assumed not to have side effects.</p>
+ */
+public final class InvariantFootprints {
+
+	/** The mask that selects all invariants. */
+	public static final long ALL_INVARIANTS = -1L;
+
+	private static final FieldBinding[] NO_FIELDS = new FieldBinding[0];
+
+	private InvariantFootprints() {}
+
+	/**
+	 * Answers the fields of {@code this} read by the given resolved invariant, or {@code null} if the invariant may
+	 * read other state (through a method call or by dereferencing an object, for example).
+	 */
+	static FieldBinding[] readFields(Expression invariant) {
+		ArrayList<FieldBinding> fields = new ArrayList<>();
+		if (!collectReadFields(invariant, fields))
+			return null;
+		return fields.isEmpty() ? NO_FIELDS : fields.toArray(new FieldBinding[fields.size()]);
+	}
+
+	private static boolean collectReadFields(Expression e, ArrayList<FieldBinding> fields) {
+		if (e.constant != null && e.constant != Constant.NotAConstant)
+			return true;
+		if (e instanceof Literal || e instanceof ThisReference && !(e instanceof QualifiedThisReference))
+			return true;
+		if (e instanceof SingleNameReference) {
+			Binding binding = ((SingleNameReference) e).binding;
+			if (binding instanceof LocalVariableBinding)
+				return true;
+			return binding instanceof FieldBinding && addFieldOfThis(e, (FieldBinding) binding, fields);
+		}
+		if (e instanceof QualifiedNameReference) {
+			QualifiedNameReference reference = (QualifiedNameReference) e;
+			if (!(reference.binding instanceof FieldBinding) || reference.otherBindings == null)
+				return false;
+			for (FieldBinding otherBinding : reference.otherBindings)
+				if (otherBinding != ArrayBinding.ArrayLength) // the length of an array never changes
+					return false;
+			return addFieldOfThis(e, (FieldBinding) reference.binding, fields);
+		}
+		if (e instanceof FieldReference) {
+			FieldReference reference = (FieldReference) e;
+			if (reference.binding == ArrayBinding.ArrayLength)
+				return collectReadFields(reference.receiver, fields);
+			if (reference.receiver instanceof ThisReference && !(reference.receiver instanceof QualifiedThisReference)
+					&& reference.binding != null && !reference.binding.isStatic()) {
+				fields.add(reference.binding.original());
+				return true;
+			}
+			return false;
+		}
+		if (e instanceof BinaryExpression) {
+			BinaryExpression binary = (BinaryExpression) e;
+			if (isStringConcatenationWithObject(binary, binary.left, binary.right))
+				return false;
+			return collectReadFields(binary.left, fields) && collectReadFields(binary.right, fields);
+		}
+		if (e instanceof UnaryExpression)
+			return collectReadFields(((UnaryExpression) e).expression, fields);
+		if (e instanceof CastExpression)
+			return collectReadFields(((CastExpression) e).expression, fields);
+		if (e instanceof InstanceOfExpression)
+			return ((InstanceOfExpression) e).elementVariable == null && collectReadFields(((InstanceOfExpression) e).expression, fields);
+		if (e instanceof ConditionalExpression) {
+			ConditionalExpression conditional = (ConditionalExpression) e;
+			return collectReadFields(conditional.condition, fields)
+					&& collectReadFields(conditional.valueIfTrue, fields)
+					&& collectReadFields(conditional.valueIfFalse, fields);
+		}
+		return false;
+	}
+
+	private static boolean addFieldOfThis(Expression reference, FieldBinding field, ArrayList<FieldBinding> fields) {
+		if (field.isStatic() || (reference.bits & ASTNode.DepthMASK) != 0) // static field or field of an enclosing instance
+			return false;
+		fields.add(field.original());
+		return true;
+	}
+
+	/** A string concatenation calls {@code toString()} on operands that are neither primitive nor strings. */
+	static boolean isStringConcatenationWithObject(Expression concatenation, Expression left, Expression right) {
+		if (concatenation.resolvedType == null || concatenation.resolvedType.id != TypeIds.T_JavaLangString)
+			return false;
+		return !isPrimitiveOrString(left.resolvedType) || !isPrimitiveOrString(right.resolvedType);
+	}
+
+	private static boolean isPrimitiveOrString(TypeBinding type) {
+		return type != null && (type.isBaseType() || type.id == TypeIds.T_JavaLangString);
+	}
+
+	/**
+	 * Answers the fields, of any object, that the given method's statements may assign, or {@code null} if the
+	 * method may run code that is not part of its body (through a method call, for example) and so may write any field.
+	 * Invocations the compiler inserts, like those of a switch on a string or an enum, count as calls.
+	 */
+	static FieldBinding[] writtenFields(AbstractMethodDeclaration method) {
+		WrittenFieldsCollector collector = new WrittenFieldsCollector(method.binding.declaringClass);
+		if (method.statements != null)
+			for (Statement statement : method.statements) {
+				statement.traverse(collector, method.scope);
+				if (collector.unknown)
+					return null;
+			}
+		return collector.fields.isEmpty() ? NO_FIELDS : collector.fields.toArray(new FieldBinding[collector.fields.size()]);
+	}
+
+	/**
+	 * Answers the mask that selects the invariants, given by their footprints, that must be rechecked after a method
+	 * that wrote the given fields ({@code null} if unknown).
+	 */
+	static long selectInvariants(FieldBinding[][] footprints, FieldBinding[] writtenFields) {
+		if (footprints == null || writtenFields == null)
+			return ALL_INVARIANTS;
+		long mask = 0;
+		for (int i = 0; i < footprints.length; i++)
+			if (!isSelectable(footprints, i) || readsAny(footprints[i], writtenFields))
+				mask |= selectionBit(i);
+		return mask;
+	}
+
+	private static boolean readsAny(FieldBinding[] readFields, FieldBinding[] writtenFields) {
+		for (FieldBinding read : readFields)
+			for (FieldBinding written : writtenFields)
+				if (read == written)
+					return true;
+		return false;
+	}
+
+	/**
+	 * Answers whether the invariant at the given statement index of an invariants method is checked only if selected.
+	 */
+	public static boolean isSelectable(FieldBinding[][] footprints, int index) {
+		return footprints != null && index < Long.SIZE && footprints[index] != null;
+	}
+
+	public static long selectionBit(int index) {
+		return index < Long.SIZE ? 1L << index : 0;
+	}
+
+	private static class WrittenFieldsCollector extends ASTVisitor {
+
+		final ArrayList<FieldBinding> fields = new ArrayList<>();
+		final ReferenceBinding declaringClass;
+		boolean unknown;
+
+		WrittenFieldsCollector(ReferenceBinding declaringClass) {
+			this.declaringClass = declaringClass;
+		}
+
+		private boolean recordWrite(Expression lhs) {
+			if (lhs instanceof Reference) {
+				FieldBinding field = ((Reference) lhs).lastFieldBinding();
+				if (field != null)
+					this.fields.add(field.original());
+			}
+			return !this.unknown;
+		}
+
+		private boolean unknown() {
+			this.unknown = true;
+			return false;
+		}
+
+		/**
+		 * Accessing a static field initializes its class, whose initializer may run any code. The class of the
+		 * receiver, and so the declaring class and its superclasses, are already initialized.
+		 */
+		private boolean recordStaticFieldAccess(Binding binding) {
+			if (binding instanceof FieldBinding && ((FieldBinding) binding).isStatic()) {
+				FieldBinding field = (FieldBinding) binding;
+				if (field.constant() == Constant.NotAConstant && !isInitialized(field.declaringClass))
+					return unknown();
+			}
+			return !this.unknown;
+		}
+
+		private boolean isInitialized(ReferenceBinding type) {
+			for (ReferenceBinding superclass = this.declaringClass; superclass != null; superclass = superclass.superclass())
+				if (TypeBinding.equalsEquals(superclass.erasure(), type.erasure()))
+					return true;
+			return false;
+		}
+
+		/** A switch on a string, an enum, a boxed value or a pattern calls methods to select the case. */
+		private boolean recordSwitch(SwitchStatement switchStatement) {
+			TypeBinding type = switchStatement.expression.resolvedType;
+			if (type == null || !type.isBaseType())
+				return unknown();
+			return !this.unknown;
+		}
+
+		@Override
+		public boolean visit(Assignment assignment, BlockScope scope) {
+			return recordWrite(assignment.lhs);
+		}
+
+		@Override
+		public boolean visit(CompoundAssignment compoundAssignment, BlockScope scope) {
+			if (isStringConcatenationWithObject(compoundAssignment, compoundAssignment.lhs, compoundAssignment.expression))
+				return unknown();
+			return recordWrite(compoundAssignment.lhs);
+		}
+
+		@Override
+		public boolean visit(PostfixExpression postfixExpression, BlockScope scope) {
+			return recordWrite(postfixExpression.lhs);
+		}
+
+		@Override
+		public boolean visit(PrefixExpression prefixExpression, BlockScope scope) {
+			return recordWrite(prefixExpression.lhs);
+		}
+
+		@Override
+		public boolean visit(BinaryExpression binaryExpression, BlockScope scope) {
+			if (isStringConcatenationWithObject(binaryExpression, binaryExpression.left, binaryExpression.right))
+				return unknown();
+			return !this.unknown;
+		}
+
+		@Override
+		public boolean visit(SingleNameReference singleNameReference, BlockScope scope) {
+			return recordStaticFieldAccess(singleNameReference.binding);
+		}
+
+		@Override
+		public boolean visit(QualifiedNameReference qualifiedNameReference, BlockScope scope) {
+			if (qualifiedNameReference.otherBindings != null)
+				for (FieldBinding otherBinding : qualifiedNameReference.otherBindings)
+					if (!recordStaticFieldAccess(otherBinding))
+						return false;
+			return recordStaticFieldAccess(qualifiedNameReference.binding);
+		}
+
+		@Override
+		public boolean visit(FieldReference fieldReference, BlockScope scope) {
+			return recordStaticFieldAccess(fieldReference.binding);
+		}
+
+		@Override
+		public boolean visit(SwitchStatement switchStatement, BlockScope scope) {
+			return recordSwitch(switchStatement);
+		}
+
+		@Override
+		public boolean visit(SwitchExpression switchExpression, BlockScope scope) {
+			return recordSwitch(switchExpression);
+		}
+
+		@Override
+		public boolean visit(AssertStatement assertStatement, BlockScope scope) {
+			if (assertStatement.exceptionArgument != null && !isPrimitiveOrString(assertStatement.exceptionArgument.resolvedType))
+				return unknown(); // the AssertionError converts the message with String.valueOf(Object)
+			return !this.unknown;
+		}
+
+		@Override
+		public boolean visit(MessageSend messageSend, BlockScope scope) {
+			return unknown();
+		}
+
+		@Override
+		public boolean visit(AllocationExpression allocationExpression, BlockScope scope) {
+			return unknown();
+		}
+
+		@Override
+		public boolean visit(QualifiedAllocationExpression qualifiedAllocationExpression, BlockScope scope) {
+			return unknown();
+		}
+
+		@Override
+		public boolean visit(ExplicitConstructorCall explicitConstructor, BlockScope scope) {
+			return unknown();
+		}
+
+		@Override
+		public boolean visit(ForeachStatement forStatement, BlockScope scope) {
+			if (forStatement.collection.resolvedType == null || !forStatement.collection.resolvedType.isArrayType())
+				return unknown(); // calls Iterable.iterator()
+			return !this.unknown;
+		}
+
+		@Override
+		public boolean visit(TryStatement tryStatement, BlockScope scope) {
+			if (tryStatement.resources != null && tryStatement.resources.length > 0)
+				return unknown(); // calls AutoCloseable.close()
+			return !this.unknown;
+		}
+	}
+}
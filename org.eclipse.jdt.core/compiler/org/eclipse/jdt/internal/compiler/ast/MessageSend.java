@@ -144,6 +144,32 @@ public class MessageSend extends Expression implements IPolyExpression, Invocati
 
 	BiConsumer<FlowInfo, Boolean> flowUpdateOnBooleanResult; // we assume only one arg can be affected, hence no need for a list of updates
 
+	/** fsc4j: the receiver's runtime class is statically known, so the method body's own checks suffice (see {@link #receiverHasExactType}) */
+	public boolean bypassesSpecificationMethod;
+	/** fsc4j: the bypass was counted in the compilation result; code is generated again for inlined finally blocks and in wide mode */
+	private boolean bypassCounted;
+
+/**
+ * fsc4j: a call through the specification method checks the method's specification on behalf of the static receiver
+ * type, after which the method body checks it again. If the receiver is statically known to be an instance of exactly
+ * the method's declaring class (a fresh allocation, possibly held by a final local), the body's checks are the same
+ * checks and the call can invoke the method directly.
+ */
+private boolean receiverHasExactType(ReferenceBinding declaringClass) {
+	Expression exactReceiver = this.receiver;
+	if (exactReceiver instanceof SingleNameReference && ((SingleNameReference) exactReceiver).binding instanceof LocalVariableBinding) {
+		LocalVariableBinding local = (LocalVariableBinding) ((SingleNameReference) exactReceiver).binding;
+		if ((local.modifiers & ClassFileConstants.AccFinal) == 0 || local.declaration == null)
+			return false;
+		exactReceiver = local.declaration.initialization;
+	}
+	if (!(exactReceiver instanceof AllocationExpression) || exactReceiver.resolvedType == null)
+		return false;
+	if (exactReceiver instanceof QualifiedAllocationExpression && ((QualifiedAllocationExpression) exactReceiver).anonymousType != null)
+		return false;
+	return TypeBinding.equalsEquals(exactReceiver.resolvedType.erasure(), declaringClass.erasure());
+}
+
 @Override
 public FlowInfo analyseCode(BlockScope currentScope, FlowContext flowContext, FlowInfo flowInfo) {
 	boolean nonStatic = !this.binding.isStatic();
@@ -151,6 +177,9 @@ public FlowInfo analyseCode(BlockScope currentScope, FlowContext flowContext, Fl
 	flowInfo = this.receiver.analyseCode(currentScope, flowContext, flowInfo, nonStatic).unconditionalInits();
 
 	yieldQualifiedCheck(currentScope);
+	if (nonStatic && this.binding.hasSpecificationMethod && !this.binding.isNative()
+			&& receiverHasExactType(this.binding.original().declaringClass))
+		this.bypassesSpecificationMethod = true;
 	// recording the closing of AutoCloseable resources:
 	CompilerOptions compilerOptions = currentScope.compilerOptions();
 	boolean analyseResources = compilerOptions.analyseResourceLeaks;
@@ -549,6 +578,11 @@ public void generateCode(BlockScope currentScope, CodeStream codeStream, boolean
 	generateArguments(this.binding, this.arguments, currentScope, codeStream);
 	pc = codeStream.position;
 	// actual message invocation
+	if (this.bypassesSpecificationMethod && !this.bypassCounted) {
+		// counted here rather than in analyseCode, which also runs on the copies of lambda bodies made during resolution
+		this.bypassCounted = true;
+		currentScope.referenceCompilationUnit().compilationResult.fsc4jEliminatedSpecificationChecks++;
+	}
 	if (this.syntheticAccessor == null){
 		TypeBinding constantPoolDeclaringClass = CodeStream.getConstantPoolDeclaringClass(currentScope, codegenBinding, this.actualReceiverType, this.receiver.isImplicitThis());
 		if (isStatic){
@@ -556,7 +590,7 @@ public void generateCode(BlockScope currentScope, CodeStream codeStream, boolean
 		} else if((this.receiver.isSuper()) ||
 				(!currentScope.enclosingSourceType().isNestmateOf(this.binding.declaringClass) && codegenBinding.isPrivate())){
 			codeStream.invoke(Opcodes.OPC_invokespecial, codegenBinding, constantPoolDeclaringClass, this.typeArguments);
-		} else if (codegenBinding.hasSpecificationMethod) {
+		} else if (codegenBinding.hasSpecificationMethod && !this.bypassesSpecificationMethod && currentScope.compilerOptions().fsc4jRuntimeChecks != CompilerOptions.Fsc4jChecksNone) {
 			// Static interface methods are not inherited, so qualify call by declaring class rather than receiver type
 			// https://github.com/fsc4j/fsc4j/issues/23
 			MethodBinding specificationMethodBinding = codegenBinding.getSpecificationMethodBinding();
@@ -85,6 +85,8 @@ public class TypeDeclaration extends Statement implements ProblemSeverities, Ref
 	public int classRepresentationInvariantsCount;
 	public MethodDeclaration packageInvariantsMethod;
 	public int packageRepresentationInvariantsCount;
+	public FieldBinding[][] classInvariantFootprints; // per statement of classInvariantsMethod, see InvariantFootprints
+	public FieldBinding[][] packageInvariantFootprints; // per statement of packageInvariantsMethod
 
 	public QualifiedAllocationExpression allocation; // for anonymous only
 	public TypeDeclaration enclosingType; // for member types only
@@ -983,6 +985,23 @@ private AssertStatement createAssertStatement(String message, Expression e) {
 	return new AssertStatement(new StringLiteral(message.toCharArray(), e.sourceStart, e.sourceEnd, 0), e, e.sourceStart);
 }
 
+/**
+ * fsc4j: the invariants methods take a mask that selects the invariants to check; see {@link InvariantFootprints}.
+ */
+private static Argument createInvariantsSelectionArgument() {
+	return new Argument("$selectedInvariants".toCharArray(), 0, TypeReference.baseTypeReference(TypeIds.T_long, 0), ClassFileConstants.AccDefault); //$NON-NLS-1$
+}
+
+private static FieldBinding[][] computeInvariantFootprints(MethodDeclaration invariantsMethod) {
+	if (invariantsMethod.ignoreFurtherInvestigation)
+		return null;
+	invariantsMethod.arguments[0].binding.useFlag = LocalVariableBinding.USED;
+	FieldBinding[][] footprints = new FieldBinding[invariantsMethod.statements.length][];
+	for (int i = 0; i < footprints.length; i++)
+		footprints[i] = InvariantFootprints.readFields(((AssertStatement) invariantsMethod.statements[i]).assertExpression);
+	return footprints;
+}
+
 private void addAndResolveSyntheticsForInvariants() {
 	ArrayList<Expression> classRepresentationInvariants = null;
 	ArrayList<Expression> classAbstractStateInvariants = null;
@@ -1033,11 +1052,12 @@ private void addAndResolveSyntheticsForInvariants() {
 		if (this.invariants != null)
 			this.classInvariantsMethod.bodyStart = this.invariants[0].sourceStart;
 		this.classInvariantsMethod.bodyEnd = this.declarationSourceEnd;
+		this.classInvariantsMethod.arguments = new Argument[] { createInvariantsSelectionArgument() };
 		this.classInvariantsMethod.binding = new MethodBinding(
 				ClassFileConstants.AccPublic,
 				this.classInvariantsMethod.selector, //$NON-NLS-1$
 				TypeBinding.VOID,
-				null,
+				new TypeBinding[] { TypeBinding.LONG },
 				null,
 				this.binding);
 		this.classInvariantsMethod.scope = new MethodScope(this.scope, this.classInvariantsMethod, false);
@@ -1053,6 +1073,7 @@ private void addAndResolveSyntheticsForInvariants() {
 		}
 		this.classInvariantsMethod.statements = body.toArray(new Statement[body.size()]);
 		this.classInvariantsMethod.resolve(this.scope);
+		this.classInvariantFootprints = computeInvariantFootprints(this.classInvariantsMethod);
 		if (classRepresentationInvariants != null)
 			for (Expression invariant : classRepresentationInvariants)
 				FormalSpecification.check(ClassFileConstants.AccPrivate, this.binding, this.classInvariantsMethod.scope, invariant);
@@ -1067,11 +1088,12 @@ private void addAndResolveSyntheticsForInvariants() {
 		if (this.invariants != null)
 			this.packageInvariantsMethod.bodyStart = this.invariants[0].sourceStart;
 		this.packageInvariantsMethod.bodyEnd = this.declarationSourceEnd;
+		this.packageInvariantsMethod.arguments = new Argument[] { createInvariantsSelectionArgument() };
 		this.packageInvariantsMethod.binding = new MethodBinding(
 				ClassFileConstants.AccPublic,
 				this.packageInvariantsMethod.selector,
 				TypeBinding.VOID,
-				null,
+				new TypeBinding[] { TypeBinding.LONG },
 				null,
 				this.binding);
 		this.packageInvariantsMethod.scope = new MethodScope(this.scope, this.packageInvariantsMethod, false);
@@ -1086,6 +1108,7 @@ private void addAndResolveSyntheticsForInvariants() {
 				body.add(createAssertStatement("Abstract state invariant does not hold", invariant)); //$NON-NLS-1$
 		this.packageInvariantsMethod.statements = body.toArray(new Statement[body.size()]);
 		this.packageInvariantsMethod.resolve(this.scope);
+		this.packageInvariantFootprints = computeInvariantFootprints(this.packageInvariantsMethod);
 		if (packageRepresentationInvariants != null)
 			for (Expression invariant : packageRepresentationInvariants)
 				FormalSpecification.check(0, this.binding, this.packageInvariantsMethod.scope, invariant);
@@ -1627,7 +1650,8 @@ public void resolve() {
 		if ((methodsLength + missingAbstractMethodslength) > 0xFFFF) {
 			this.scope.problemReporter().tooManyMethods(this);
 		}
-		this.addAndResolveSyntheticsForInvariants();
+		if (this.scope.compilerOptions().fsc4jRuntimeChecks >= CompilerOptions.Fsc4jChecksContracts)
+			this.addAndResolveSyntheticsForInvariants();
 		if (this.methods != null) {
 			for (int i = 0, count = this.methods.length; i < count; i++) {
 				this.methods[i].resolve(this.scope);
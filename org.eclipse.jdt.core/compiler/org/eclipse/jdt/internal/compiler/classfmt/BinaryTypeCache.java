@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.classfmt;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * A process-wide cache of decoded class files, shared by the name environments of all compilations, so that
+ * compilations against the same libraries decode each of their class files once. The cache is used only once a
+ * long-lived process (the batch compile server) {@link #enable() enables} it: a single compilation does not read a
+ * class file twice, and is better served by readers that decode members lazily.
+ *
+ * <p>Entries are keyed by the location of a class file (a jar file, a JDK image or a {@code ct.sym} file), its name
+ * within that location, the release it was read for and its module; an entry whose time stamp differs from the one of
+ * the location being read is replaced. Class files in directories are not cached, since builds rewrite them faster
+ * than their time stamps tell. Readers decode their members lazily and in place, under their own lock; a reader is
+ * {@link ClassFileReader#initialize() initialized}, which decodes its members, before it is cached, and one whose
+ * members fail to decode is not cached. Clients must not modify cached readers.</p>
+ *
+ * <p>The system property {@code org.eclipse.jdt.binaryTypeCacheSize} bounds the total length of the cached class
+ * files, in bytes (64 MB by default, {@code 0} disables the cache); this is the length of the class files as read,
+ * not the heap their decoded readers retain, which is larger. The least recently used entries are evicted
+ * first.</p>
+ */
+public final class BinaryTypeCache {
+
+	/** Reads a class file whose decoded contents are not cached. */
+	public interface ClassFileSource {
+		/** Answers the class file's reader, or {@code null} if there is no such class file. */
+		ClassFileReader read() throws ClassFormatException, IOException;
+	}
+
+	public static final long MAX_SIZE = Long.getLong("org.eclipse.jdt.binaryTypeCacheSize", 64 << 20); //$NON-NLS-1$
+
+	private static final class Key {
+		final String location;
+		final String fileName;
+		final String release;
+		final String module;
+		final int hashCode;
+
+		Key(String location, String fileName, String release, String module) {
+			this.location = location;
+			this.fileName = fileName;
+			this.release = release;
+			this.module = module;
+			this.hashCode = Objects.hash(location, fileName, release, module);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof Key))
+				return false;
+			Key other = (Key) object;
+			return this.location.equals(other.location) && this.fileName.equals(other.fileName)
+					&& Objects.equals(this.release, other.release) && Objects.equals(this.module, other.module);
+		}
+	}
+
+	private static final class Entry {
+		final long timestamp;
+		final ClassFileReader reader;
+		final int size;
+
+		Entry(long timestamp, ClassFileReader reader, int size) {
+			this.timestamp = timestamp;
+			this.reader = reader;
+			this.size = size;
+		}
+	}
+
+	private static volatile boolean enabled;
+	private static final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(1024, 0.75f, true /* access order */);
+	private static long size;
+	private static long hits;
+	/** Lookups of class files that exist but were not cached. */
+	private static long misses;
+	private static long evictions;
+
+	private BinaryTypeCache() {}
+
+	/** Makes the name environments of this process share decoded class files from now on. */
+	public static void enable() {
+		enabled = true;
+	}
+
+	/** Stops the sharing of decoded class files, and drops the ones held. */
+	public static synchronized void disable() {
+		enabled = false;
+		clear();
+	}
+
+	/**
+	 * Answers the fully initialized reader of the given class file, from the cache if it holds one read from the given
+	 * time stamp of the location, and from the given source otherwise.
+	 *
+	 * @param location the path of the jar file, JDK image or {@code ct.sym} file holding the class file
+	 * @param fileName the name of the class file within its location
+	 * @param timestamp the time stamp of the location
+	 * @param release the release the class file is read for ({@code --release}), or {@code null}
+	 * @param module the name of the module the reader is answered for, or {@code null}
+	 */
+	public static ClassFileReader read(String location, String fileName, long timestamp, String release, String module,
+			ClassFileSource source) throws ClassFormatException, IOException {
+		if (!enabled || MAX_SIZE <= 0 || timestamp == 0)
+			return source.read();
+		Key key = new Key(location, fileName, release, module);
+		synchronized (BinaryTypeCache.class) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.timestamp == timestamp) {
+				hits++;
+				return entry.reader;
+			}
+		}
+		ClassFileReader reader = source.read();
+		if (reader == null)
+			return null;
+		int readerSize = reader.reference == null ? 0 : reader.reference.length;
+		if (reader.reference != null) {
+			try {
+				reader.initialize();
+			} catch (ClassFormatException e) {
+				return reader; // the parts that fail to decode are not needed by every compilation
+			}
+		}
+		synchronized (BinaryTypeCache.class) {
+			misses++;
+			Entry previous = entries.put(key, new Entry(timestamp, reader, readerSize));
+			if (previous != null)
+				size -= previous.size;
+			size += readerSize;
+			for (Iterator<Entry> iterator = entries.values().iterator(); size > MAX_SIZE && iterator.hasNext();) {
+				size -= iterator.next().size;
+				iterator.remove();
+				evictions++;
+			}
+		}
+		return reader;
+	}
+
+	public static synchronized long getHits() {
+		return hits;
+	}
+
+	public static synchronized long getMisses() {
+		return misses;
+	}
+
+	public static synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/** Answers the total length of the cached class files. */
+	public static synchronized long getSize() {
+		return size;
+	}
+
+	public static synchronized void clear() {
+		entries.clear();
+		size = 0;
+	}
+}
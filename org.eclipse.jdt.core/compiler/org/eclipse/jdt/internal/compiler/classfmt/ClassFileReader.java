@@ -62,6 +62,10 @@ public class ClassFileReader extends ClassFileStruct implements IBinaryType {
 	private ModuleInfo moduleDeclaration;
 	public char[] moduleName;
 	private int fieldsCount;
+	/** The offset of the fields count while the fields and methods are not decoded, {@code 0} once they are. */
+	private volatile int membersOffset;
+	/** Why the fields and methods failed to decode, in which case there are none. */
+	private ClassFormatException membersFormatException;
 
 	// initialized in case the .class file is a nested type
 	private InnerClassInfo innerInfo;
@@ -321,31 +325,12 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 				readOffset += 2;
 			}
 		}
-		// Read the fields, use exception handlers to catch bad format
+		// Skip the fields and the methods, which are decoded on first access
+		this.membersOffset = readOffset;
 		this.fieldsCount = u2At(readOffset);
-		readOffset += 2;
-		if (this.fieldsCount != 0) {
-			FieldInfo field;
-			this.fields = new FieldInfo[this.fieldsCount];
-			for (int i = 0; i < this.fieldsCount; i++) {
-				field = FieldInfo.createField(this.reference, this.constantPoolOffsets, readOffset, this.version);
-				this.fields[i] = field;
-				readOffset += field.sizeInBytes();
-			}
-		}
-		// Read the methods
+		readOffset = skipMembers(readOffset + 2, this.fieldsCount);
 		this.methodsCount = u2At(readOffset);
-		readOffset += 2;
-		if (this.methodsCount != 0) {
-			this.methods = new MethodInfo[this.methodsCount];
-			boolean isAnnotationType = (this.accessFlags & ClassFileConstants.AccAnnotation) != 0;
-			for (int i = 0; i < this.methodsCount; i++) {
-				this.methods[i] = isAnnotationType
-					? AnnotationMethodInfo.createAnnotationMethod(this.reference, this.constantPoolOffsets, readOffset, this.version)
-					: MethodInfo.createMethod(this.reference, this.constantPoolOffsets, readOffset, this.version);
-				readOffset += this.methods[i].sizeInBytes();
-			}
-		}
+		readOffset = skipMembers(readOffset + 2, this.methodsCount);
 
 		// Read the attributes
 		int attributesCount = u2At(readOffset);
@@ -690,6 +675,7 @@ public char[] getEnclosingTypeName() {
  */
 @Override
 public IBinaryField[] getFields() {
+	decodeMembers();
 	return this.fields;
 }
 /**
@@ -814,9 +800,83 @@ public IBinaryNestedType[] getMemberTypes() {
  */
 @Override
 public IBinaryMethod[] getMethods() {
+	decodeMembers();
 	return this.methods;
 }
 
+/*
+ * Answers the offset just past the given number of field or method infos starting at the given offset.
+ */
+private int skipMembers(int readOffset, int count) {
+	for (int i = 0; i < count; i++) {
+		int attributesCount = u2At(readOffset + 6);
+		readOffset += 8;
+		for (int j = 0; j < attributesCount; j++)
+			readOffset += 6 + u4At(readOffset + 2);
+	}
+	return readOffset;
+}
+
+/*
+ * Decodes the field and method infos, unless already done. Most binary types are only looked at for their
+ * supertypes and a few members, so the infos, and their annotations in particular, are not decoded by the
+ * constructor, which only checks that they fit in the class file. If their contents turn out to be malformed, the
+ * receiver answers no fields and methods, and validateMembers() answers why.
+ */
+private void decodeMembers() {
+	if (this.membersOffset != 0)
+		decodeMembersOnce();
+}
+
+private synchronized void decodeMembersOnce() {
+	int readOffset = this.membersOffset;
+	if (readOffset == 0)
+		return;
+	try {
+		readOffset += 2;
+		if (this.fieldsCount != 0) {
+			FieldInfo field;
+			FieldInfo[] fieldInfos = new FieldInfo[this.fieldsCount];
+			for (int i = 0; i < this.fieldsCount; i++) {
+				field = FieldInfo.createField(this.reference, this.constantPoolOffsets, readOffset, this.version);
+				fieldInfos[i] = field;
+				readOffset += field.sizeInBytes();
+			}
+			this.fields = fieldInfos;
+		}
+		readOffset += 2;
+		if (this.methodsCount != 0) {
+			MethodInfo[] methodInfos = new MethodInfo[this.methodsCount];
+			boolean isAnnotationType = (this.accessFlags & ClassFileConstants.AccAnnotation) != 0;
+			for (int i = 0; i < this.methodsCount; i++) {
+				methodInfos[i] = isAnnotationType
+					? AnnotationMethodInfo.createAnnotationMethod(this.reference, this.constantPoolOffsets, readOffset, this.version)
+					: MethodInfo.createMethod(this.reference, this.constantPoolOffsets, readOffset, this.version);
+				readOffset += methodInfos[i].sizeInBytes();
+			}
+			this.methods = methodInfos;
+		}
+	} catch (RuntimeException e) {
+		this.fields = null;
+		this.fieldsCount = 0;
+		this.methods = null;
+		this.methodsCount = 0;
+		this.membersFormatException = new ClassFormatException(e, this.classFileName, ClassFormatException.ErrTruncatedInput, readOffset);
+	}
+	this.membersOffset = 0;
+}
+
+/**
+ * Decodes the field and method infos unless already done, and throws a ClassFormatException if they are
+ * malformed. Clients that must not mistake a corrupt class file for one without members call this before
+ * {@link #getFields()} and {@link #getMethods()}.
+ */
+public void validateMembers() throws ClassFormatException {
+	decodeMembers();
+	if (this.membersFormatException != null)
+		throw this.membersFormatException;
+}
+
 /*
 public static void main(String[] args) throws ClassFormatException, IOException {
 	if (args == null || args.length != 1) {
@@ -1029,6 +1089,8 @@ public boolean hasStructuralChanges(byte[] newBytes, boolean orderRequired, bool
 	try {
 		ClassFileReader newClassFile =
 			new ClassFileReader(newBytes, this.classFileName);
+		validateMembers();
+		newClassFile.validateMembers();
 		// type level comparison
 		// modifiers
 		if (getModifiers() != newClassFile.getModifiers())
@@ -1368,7 +1430,8 @@ private boolean affectsSignature(IBinaryTypeAnnotation typeAnnotation) {
  * This method is used to fully initialize the contents of the receiver. All methodinfos, fields infos
  * will be therefore fully initialized and we can get rid of the bytes.
  */
-private void initialize() throws ClassFormatException {
+void initialize() throws ClassFormatException {
+	validateMembers();
 	try {
 		for (int i = 0, max = this.fieldsCount; i < max; i++) {
 			this.fields[i].initialize();
@@ -58,6 +58,19 @@ public long u4At(int relativeOffset) {
 	int position = relativeOffset + this.structOffset;
 	return (((this.reference[position++] & 0xFFL) << 24) | ((this.reference[position++] & 0xFF) << 16) | ((this.reference[position++] & 0xFF) << 8) | (this.reference[position] & 0xFF));
 }
+/**
+ * Answers whether the given bytes of a UTF8 constant, as passed to {@link #utf8At(int, int)}, spell the given ASCII
+ * name, without decoding them.
+ */
+public boolean utf8Equals(int relativeOffset, int bytesAvailable, char[] asciiName) {
+	if (bytesAvailable != asciiName.length)
+		return false;
+	int readOffset = this.structOffset + relativeOffset;
+	for (int i = 0; i < bytesAvailable; i++)
+		if (this.reference[readOffset + i] != asciiName[i])
+			return false;
+	return true;
+}
 public char[] utf8At(int relativeOffset, int bytesAvailable) {
 	int length = bytesAvailable;
 	char outputBuf[] = new char[bytesAvailable];
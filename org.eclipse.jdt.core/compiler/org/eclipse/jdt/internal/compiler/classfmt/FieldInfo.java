@@ -48,23 +48,23 @@ public static FieldInfo createField(byte classFileBytes[], int offsets[], int of
 	for (int i = 0; i < attributesCount; i++) {
 		// check the name of each attribute
 		int utf8Offset = fieldInfo.constantPoolOffsets[fieldInfo.u2At(readOffset)] - fieldInfo.structOffset;
-		char[] attributeName = fieldInfo.utf8At(utf8Offset + 3, fieldInfo.u2At(utf8Offset + 1));
-		if (attributeName.length > 0) {
-			switch(attributeName[0]) {
+		int attributeNameLength = fieldInfo.u2At(utf8Offset + 1);
+		if (attributeNameLength > 0) {
+			switch(fieldInfo.u1At(utf8Offset + 3)) {
 				case 'S' :
-					if (CharOperation.equals(AttributeNamesConstants.SignatureName, attributeName))
+					if (fieldInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.SignatureName))
 						fieldInfo.signatureUtf8Offset = fieldInfo.constantPoolOffsets[fieldInfo.u2At(readOffset + 6)] - fieldInfo.structOffset;
 					break;
 				case 'R' :
 					AnnotationInfo[] decodedAnnotations = null;
 					TypeAnnotationInfo[] decodedTypeAnnotations = null;
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeVisibleAnnotationsName)) {
+					if (fieldInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeVisibleAnnotationsName)) {
 						decodedAnnotations = fieldInfo.decodeAnnotations(readOffset, true);
-					} else if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeInvisibleAnnotationsName)) {
+					} else if (fieldInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeInvisibleAnnotationsName)) {
 						decodedAnnotations = fieldInfo.decodeAnnotations(readOffset, false);
-					} else if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeVisibleTypeAnnotationsName)) {
+					} else if (fieldInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeVisibleTypeAnnotationsName)) {
 						decodedTypeAnnotations = fieldInfo.decodeTypeAnnotations(readOffset, true);
-					} else if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeInvisibleTypeAnnotationsName)) {
+					} else if (fieldInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeInvisibleTypeAnnotationsName)) {
 						decodedTypeAnnotations = fieldInfo.decodeTypeAnnotations(readOffset, false);
 					}
 					if (decodedAnnotations != null) {
@@ -334,9 +334,7 @@ private void readConstantAttribute() {
 	boolean isConstant = false;
 	for (int i = 0; i < attributesCount; i++) {
 		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
-		if (CharOperation
-			.equals(attributeName, AttributeNamesConstants.ConstantValueName)) {
+		if (utf8Equals(utf8Offset + 3, u2At(utf8Offset + 1), AttributeNamesConstants.ConstantValueName)) {
 			isConstant = true;
 			// read the right constant
 			int relativeOffset = this.constantPoolOffsets[u2At(readOffset + 6)] - this.structOffset;
@@ -395,16 +393,16 @@ private void readModifierRelatedAttributes() {
 	int readOffset = 8;
 	for (int i = 0; i < attributesCount; i++) {
 		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
+		int attributeNameLength = u2At(utf8Offset + 1);
 		// test added for obfuscated .class file. See 79772
-		if (attributeName.length != 0) {
-			switch(attributeName[0]) {
+		if (attributeNameLength != 0) {
+			switch(u1At(utf8Offset + 3)) {
 				case 'D' :
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.DeprecatedName))
+					if (utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.DeprecatedName))
 						this.accessFlags |= ClassFileConstants.AccDeprecated;
 					break;
 				case 'S' :
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.SyntheticName))
+					if (utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.SyntheticName))
 						this.accessFlags |= ClassFileConstants.AccSynthetic;
 					break;
 			}
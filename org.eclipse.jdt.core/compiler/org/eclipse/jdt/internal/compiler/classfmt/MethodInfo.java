@@ -52,33 +52,33 @@ public static MethodInfo createMethod(byte classFileBytes[], int offsets[], int
 	for (int i = 0; i < attributesCount; i++) {
 		// check the name of each attribute
 		int utf8Offset = methodInfo.constantPoolOffsets[methodInfo.u2At(readOffset)] - methodInfo.structOffset;
-		char[] attributeName = methodInfo.utf8At(utf8Offset + 3, methodInfo.u2At(utf8Offset + 1));
-		if (attributeName.length > 0) {
-			switch(attributeName[0]) {
+		int attributeNameLength = methodInfo.u2At(utf8Offset + 1);
+		if (attributeNameLength > 0) {
+			switch(methodInfo.u1At(utf8Offset + 3)) {
 				case 'M' :
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.MethodParametersName)) {
+					if (methodInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.MethodParametersName)) {
 						methodInfo.decodeMethodParameters(readOffset, methodInfo);
 					}
 					break;
 				case 'S' :
-					if (CharOperation.equals(AttributeNamesConstants.SignatureName, attributeName))
+					if (methodInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.SignatureName))
 						methodInfo.signatureUtf8Offset = methodInfo.constantPoolOffsets[methodInfo.u2At(readOffset + 6)] - methodInfo.structOffset;
 					break;
 				case 'R' :
 					AnnotationInfo[] methodAnnotations = null;
 					AnnotationInfo[][] paramAnnotations = null;
 					TypeAnnotationInfo[] methodTypeAnnotations = null;
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeVisibleAnnotationsName)) {
+					if (methodInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeVisibleAnnotationsName)) {
 						methodAnnotations = decodeMethodAnnotations(readOffset, true, methodInfo);
-					} else if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeInvisibleAnnotationsName)) {
+					} else if (methodInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeInvisibleAnnotationsName)) {
 						methodAnnotations = decodeMethodAnnotations(readOffset, false, methodInfo);
-					} else if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeVisibleParameterAnnotationsName)) {
+					} else if (methodInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeVisibleParameterAnnotationsName)) {
 						paramAnnotations = decodeParamAnnotations(readOffset, true, methodInfo);
-					} else if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeInvisibleParameterAnnotationsName)) {
+					} else if (methodInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeInvisibleParameterAnnotationsName)) {
 						paramAnnotations = decodeParamAnnotations(readOffset, false, methodInfo);
-					} else if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeVisibleTypeAnnotationsName)) {
+					} else if (methodInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeVisibleTypeAnnotationsName)) {
 						methodTypeAnnotations = decodeTypeAnnotations(readOffset, true, methodInfo);
-					} else if (CharOperation.equals(attributeName, AttributeNamesConstants.RuntimeInvisibleTypeAnnotationsName)) {
+					} else if (methodInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.RuntimeInvisibleTypeAnnotationsName)) {
 						methodTypeAnnotations = decodeTypeAnnotations(readOffset, false, methodInfo);
 					}
 					if (methodAnnotations != null) {
@@ -124,7 +124,7 @@ public static MethodInfo createMethod(byte classFileBytes[], int offsets[], int
 					}
 					break;
 				case 'f':
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.Fsc4jHasSpecMethod)) {
+					if (methodInfo.utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.Fsc4jHasSpecMethod)) {
 						methodInfo.hasSpecificationMethod = true;
 					}
 					break;
@@ -385,8 +385,7 @@ private synchronized void readExceptionAttributes() {
 	char[][] names = null;
 	for (int i = 0; i < attributesCount; i++) {
 		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
-		if (CharOperation.equals(attributeName, AttributeNamesConstants.ExceptionsName)) {
+		if (utf8Equals(utf8Offset + 3, u2At(utf8Offset + 1), AttributeNamesConstants.ExceptionsName)) {
 			// read the number of exception entries
 			int entriesNumber = u2At(readOffset + 6);
 			// place the readOffset at the beginning of the exceptions table
@@ -420,24 +419,24 @@ private synchronized void readModifierRelatedAttributes() {
 	int readOffset = 8;
 	for (int i = 0; i < attributesCount; i++) {
 		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
+		int attributeNameLength = u2At(utf8Offset + 1);
 		// test added for obfuscated .class file. See 79772
-		if (attributeName.length != 0) {
-			switch(attributeName[0]) {
+		if (attributeNameLength != 0) {
+			switch(u1At(utf8Offset + 3)) {
 				case 'D' :
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.DeprecatedName))
+					if (utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.DeprecatedName))
 						flags |= ClassFileConstants.AccDeprecated;
 					break;
 				case 'S' :
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.SyntheticName))
+					if (utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.SyntheticName))
 						flags |= ClassFileConstants.AccSynthetic;
 					break;
 				case 'A' :
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.AnnotationDefaultName))
+					if (utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.AnnotationDefaultName))
 						flags |= ClassFileConstants.AccAnnotationDefault;
 					break;
 				case 'V' :
-					if (CharOperation.equals(attributeName, AttributeNamesConstants.VarargsName))
+					if (utf8Equals(utf8Offset + 3, attributeNameLength, AttributeNamesConstants.VarargsName))
 						flags |= ClassFileConstants.AccVarargs;
 			}
 		}
@@ -473,8 +472,7 @@ private synchronized void readCodeAttribute() {
 	if (attributesCount != 0) {
 		for (int i = 0; i < attributesCount; i++) {
 			int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-			char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
-			if (CharOperation.equals(attributeName, AttributeNamesConstants.CodeName)) {
+			if (utf8Equals(utf8Offset + 3, u2At(utf8Offset + 1), AttributeNamesConstants.CodeName)) {
 				decodeCodeAttribute(readOffset);
 				if (this.argumentNames == null) {
 					this.argumentNames = noArgumentNames;
@@ -502,8 +500,7 @@ private void decodeCodeAttribute(int offset) {
 	readOffset += 2;
 	for (int i = 0; i < attributesCount; i++) {
 		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
-		if (CharOperation.equals(attributeName, AttributeNamesConstants.LocalVariableTableName)) {
+		if (utf8Equals(utf8Offset + 3, u2At(utf8Offset + 1), AttributeNamesConstants.LocalVariableTableName)) {
 			decodeLocalVariableAttribute(readOffset, codeLength);
 		}
 		readOffset += (6 + u4At(readOffset + 2));
@@ -4724,6 +4724,16 @@ private void invoke18(byte opcode, int receiverAndArgsSize, int returnTypeSize,
 	}
 }
 
+/**
+ * Branches to the given label if the fsc4j contract checks of the current class are disabled at run time.
+ */
+public void generateContractChecksGuard(AbstractMethodDeclaration method, BranchLabel checksDisabled) {
+	int bootstrapIndex = this.classFile.recordContractChecksBootstrapMethod(method);
+	invokeDynamic(bootstrapIndex, 0, 1, ConstantPool.FSC4J_CONTRACTCHECKS_ENABLED, ConstantPool.FSC4J_CONTRACTCHECKS_ENABLED_SIGNATURE,
+			TypeIds.T_boolean, TypeBinding.BOOLEAN);
+	ifeq(checksDisabled);
+}
+
 public void invokeDynamic(int bootStrapIndex, int argsSize, int returnTypeSize, char[] selector, char[] signature,
 		int typeId, TypeBinding type) {
 	this.invokeDynamic(bootStrapIndex, argsSize, returnTypeSize, selector, signature, false, null, null, typeId, type);
@@ -314,6 +314,10 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	public static final char[] PREVIEW_FEATURE = "/PreviewFeature".toCharArray(); //$NON-NLS-1$
 	public static final char[] TYPESWITCH = "typeSwitch".toCharArray(); //$NON-NLS-1$
 	public static final char[] JAVA_LANG_RUNTIME_SWITCHBOOTSTRAPS_TYPESWITCH_SIGNATURE = "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;[Ljava/lang/Object;)Ljava/lang/invoke/CallSite;".toCharArray(); //$NON-NLS-1$
+	public static final char[] FSC4J_CONTRACTCHECKS = "fsc4j/ContractChecks".toCharArray(); //$NON-NLS-1$
+	public static final char[] FSC4J_CONTRACTCHECKS_BOOTSTRAP_SIGNATURE = "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;)Ljava/lang/invoke/CallSite;".toCharArray(); //$NON-NLS-1$
+	public static final char[] FSC4J_CONTRACTCHECKS_ENABLED = "enabled".toCharArray(); //$NON-NLS-1$
+	public static final char[] FSC4J_CONTRACTCHECKS_ENABLED_SIGNATURE = "()Z".toCharArray(); //$NON-NLS-1$
 
 	/**
 	 * ConstantPool constructor comment.
@@ -872,8 +876,12 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	}
 
 	public int literalIndexForMethodHandle(int referenceKind, TypeBinding declaringClass, char[] selector, char[] signature, boolean isInterface) {
-		int indexForMethod = literalIndexForMethod(declaringClass, selector, signature, isInterface);
-
+		return literalIndexForMethodHandle(referenceKind, literalIndexForMethod(declaringClass, selector, signature, isInterface));
+	}
+	public int literalIndexForMethodHandle(int referenceKind, char[] declaringClass, char[] selector, char[] signature, boolean isInterface) {
+		return literalIndexForMethodHandle(referenceKind, literalIndexForMethod(declaringClass, selector, signature, isInterface));
+	}
+	private int literalIndexForMethodHandle(int referenceKind, int indexForMethod) {
 		int index = this.currentIndex++;
 		int length = this.offsets.length;
 		if (length <= index) {
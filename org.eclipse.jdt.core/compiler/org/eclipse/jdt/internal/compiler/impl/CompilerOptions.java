@@ -208,6 +208,9 @@ public class CompilerOptions {
 
 	public static final String OPTION_ReportSuppressWarningNotFullyAnalysed = "org.eclipse.jdt.core.compiler.problem.suppressWarningsNotFullyAnalysed";  //$NON-NLS-1$
 
+	// Level of runtime checking generated for fsc4j formal specifications
+	public static final String OPTION_Fsc4jRuntimeChecks = "org.eclipse.jdt.core.compiler.fsc4j.runtimeChecks"; //$NON-NLS-1$
+
 	// Internally used option to allow debug framework compile evaluation snippets in context of modules, see bug 543604
 	public static final String OPTION_JdtDebugCompileMode = "org.eclipse.jdt.internal.debug.compile.mode"; //$NON-NLS-1$
 
@@ -254,6 +257,18 @@ public class CompilerOptions {
 	public static final String RETURN_TAG = "return_tag";	//$NON-NLS-1$
 	public static final String NO_TAG = "no_tag";	//$NON-NLS-1$
 	public static final String ALL_STANDARD_TAGS = "all_standard_tags";	//$NON-NLS-1$
+	public static final String FSC4J_CHECKS_NONE = "none"; //$NON-NLS-1$
+	public static final String FSC4J_CHECKS_PRECONDITIONS = "preconditions"; //$NON-NLS-1$
+	public static final String FSC4J_CHECKS_CONTRACTS = "contracts"; //$NON-NLS-1$
+
+	/**
+	 * Levels of runtime checking generated for fsc4j formal specifications, in increasing order:
+	 * no checks at all; preconditions only; preconditions, postconditions, exception clauses and invariants.
+	 * Except for none, the generated checks require the fsc4j runtime classes next to the generated code.
+	 */
+	public static final int Fsc4jChecksNone = 0;
+	public static final int Fsc4jChecksPreconditions = 1;
+	public static final int Fsc4jChecksContracts = 2;
 
 	private static final String[] NO_STRINGS = new String[0];
 
@@ -544,6 +559,9 @@ public class CompilerOptions {
 	/** Enable a less restrictive compile mode for JDT debug. */
 	public boolean enableJdtDebugCompileMode;
 
+	/** Which fsc4j specification clauses are lowered into runtime checks, one of the Fsc4jChecks* levels */
+	public int fsc4jRuntimeChecks;
+
 	// keep in sync with warningTokenToIrritant and warningTokenFromIrritant
 	public final static String[] warningTokens = {
 		"all", //$NON-NLS-1$
@@ -1391,6 +1409,7 @@ public class CompilerOptions {
 		optionsMap.put(OPTION_EnablePreviews, this.enablePreviewFeatures ? ENABLED : DISABLED);
 		optionsMap.put(OPTION_ReportPreviewFeatures, getSeverityString(PreviewFeatureUsed));
 		optionsMap.put(OPTION_ReportSuppressWarningNotFullyAnalysed, getSeverityString(SuppressWarningsNotAnalysed));
+		optionsMap.put(OPTION_Fsc4jRuntimeChecks, getFsc4jRuntimeChecksString(this.fsc4jRuntimeChecks));
 		return optionsMap;
 	}
 
@@ -1592,6 +1611,8 @@ public class CompilerOptions {
 		this.enablePreviewFeatures = false;
 
 		this.enableJdtDebugCompileMode = false;
+
+		this.fsc4jRuntimeChecks = Fsc4jChecksContracts;
 	}
 
 	public void set(Map<String, String> optionsMap) {
@@ -2125,6 +2146,26 @@ public class CompilerOptions {
 				this.enableJdtDebugCompileMode = false;
 			}
 		}
+		if ((optionValue = optionsMap.get(OPTION_Fsc4jRuntimeChecks)) != null) {
+			if (FSC4J_CHECKS_NONE.equals(optionValue)) {
+				this.fsc4jRuntimeChecks = Fsc4jChecksNone;
+			} else if (FSC4J_CHECKS_PRECONDITIONS.equals(optionValue)) {
+				this.fsc4jRuntimeChecks = Fsc4jChecksPreconditions;
+			} else if (FSC4J_CHECKS_CONTRACTS.equals(optionValue)) {
+				this.fsc4jRuntimeChecks = Fsc4jChecksContracts;
+			}
+		}
+	}
+
+	public static String getFsc4jRuntimeChecksString(int fsc4jRuntimeChecks) {
+		switch (fsc4jRuntimeChecks) {
+			case Fsc4jChecksNone :
+				return FSC4J_CHECKS_NONE;
+			case Fsc4jChecksPreconditions :
+				return FSC4J_CHECKS_PRECONDITIONS;
+			default :
+				return FSC4J_CHECKS_CONTRACTS;
+		}
 	}
 
 	private String[] stringToNameList(String optionValue) {
@@ -2261,6 +2302,7 @@ public class CompilerOptions {
 		buf.append("\n\t- API leak: ").append(getSeverityString(APILeak)); //$NON-NLS-1$
 		buf.append("\n\t- unstable auto module name: ").append(getSeverityString(UnstableAutoModuleName)); //$NON-NLS-1$
 		buf.append("\n\t- SuppressWarnings not fully analysed: ").append(getSeverityString(SuppressWarningsNotAnalysed)); //$NON-NLS-1$
+		buf.append("\n\t- fsc4j runtime checks: ").append(getFsc4jRuntimeChecksString(this.fsc4jRuntimeChecks)); //$NON-NLS-1$
 		return buf.toString();
 	}
 
@@ -13,6 +13,15 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.impl;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
 @SuppressWarnings("rawtypes")
 public class CompilerStats implements Comparable {
 
@@ -28,6 +37,233 @@ public class CompilerStats implements Comparable {
 	public long analyzeTime;
 	public long generateTime;
 
+	// time the threads of a multi-threaded compilation spent waiting for each other: the processing thread for room
+	// in the processed units queue and for method bodies parsed ahead, the writing thread for processed units
+	public long processingWaitTime;
+	public long parsingWaitTime;
+	public long writingWaitTime;
+
+	// fsc4j runtime class files emitted next to the generated class files
+	public int fsc4jRuntimeFilesWritten;
+	public int fsc4jRuntimeWritesSkipped;
+
+	// class files not rewritten because their contents on disk were identical (-skipUnchanged)
+	public int unchangedClassFiles;
+
+	// lookups of decoded class files in the process-wide BinaryTypeCache made during the compilation
+	public long binaryTypeCacheHits;
+	public long binaryTypeCacheMisses;
+
+	// invocations of generic methods whose inference outcome was found in, or missing from, the TypeSystem's cache
+	public long inferenceCacheHits;
+	public long inferenceCacheMisses;
+
+	// fsc4j specification checks eliminated statically (calls that bypass the specification method)
+	public int fsc4jEliminatedSpecificationChecks;
+
+	// fine grained statistics, collected only if collectDetails is set: nanoseconds and bytes allocated, per phase
+	// and per unit, measured on the thread doing the work and summed over all threads, so that in a multi-threaded
+	// compilation the parse phases count the work of the parsing workers but not the time spent waiting for them;
+	// the last three phases are nested in the others
+	public static final int PARSE = 0;
+	public static final int METHOD_BODY_PARSE = 1;
+	public static final int RESOLVE = 2;
+	public static final int ANALYZE = 3;
+	public static final int GENERATE = 4;
+	public static final int WRITE = 5;
+	public static final int METHOD_VERIFICATION = 6;
+	public static final int INFERENCE = 7;
+	public static final int STACK_MAPS = 8;
+	public static final String[] PHASE_NAMES = {
+		"parse", "methodBodyParse", "resolve", "analyze", "generate", "write", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+		"methodVerification", "inference", "stackMaps" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	};
+	static final int PHASE_COUNT = PHASE_NAMES.length;
+
+	public boolean collectDetails;
+	public final long[] phaseTimes = new long[PHASE_COUNT];
+	public final long[] phaseAllocations = new long[PHASE_COUNT];
+	private final ThreadLocal<PhaseClock> phaseClocks = ThreadLocal.withInitial(PhaseClock::new);
+	private final List<UnitStats> units = new ArrayList<>();
+
+	private static final MethodHandle threadAllocatedBytes = threadAllocatedBytesHandle();
+
+/**
+ * Statistics of one compilation unit.
+ */
+public static class UnitStats {
+	public final char[] fileName;
+	public final long[] phaseTimes = new long[PHASE_COUNT];
+	public final long[] phaseAllocations = new long[PHASE_COUNT];
+
+	UnitStats(char[] fileName) {
+		this.fileName = fileName;
+	}
+}
+
+/*
+ * The phases being measured on one thread.
+ */
+private static class PhaseClock {
+	final long[] startTimes = new long[PHASE_COUNT];
+	final long[] startAllocations = new long[PHASE_COUNT];
+	final int[] depths = new int[PHASE_COUNT];
+	// the unit being processed by the thread, to which nested phases are charged
+	UnitStats currentUnit;
+}
+
+private static MethodHandle threadAllocatedBytesHandle() {
+	try {
+		Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean"); //$NON-NLS-1$
+		Object bean = ManagementFactory.getThreadMXBean();
+		if (!beanClass.isInstance(bean))
+			return null;
+		return MethodHandles.publicLookup()
+				.findVirtual(beanClass, "getThreadAllocatedBytes", MethodType.methodType(long.class, long.class)) //$NON-NLS-1$
+				.bindTo(bean);
+	} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+		return null; // allocations are not measured on this VM
+	}
+}
+
+/**
+ * Returns the number of bytes allocated so far by the current thread, or 0 if the VM does not tell.
+ */
+public static long allocatedBytes() {
+	if (threadAllocatedBytes == null)
+		return 0;
+	try {
+		return (long) threadAllocatedBytes.invokeExact(Thread.currentThread().getId());
+	} catch (Throwable e) {
+		return 0;
+	}
+}
+
+/**
+ * Answers new statistics for the unit with the given file name, or null if details are not collected.
+ */
+public synchronized UnitStats newUnit(char[] fileName) {
+	if (!this.collectDetails)
+		return null;
+	UnitStats unit = new UnitStats(fileName);
+	this.units.add(unit);
+	return unit;
+}
+
+/**
+ * Starts measuring the given phase on the current thread, where it must not be started again before it ends.
+ */
+public void startPhase(int phase) {
+	if (!this.collectDetails)
+		return;
+	PhaseClock clock = this.phaseClocks.get();
+	clock.startAllocations[phase] = allocatedBytes();
+	clock.startTimes[phase] = System.nanoTime();
+}
+
+/**
+ * Ends measuring the given phase on the current thread, charging it to the given unit statistics (if not null) as
+ * well as to the totals.
+ */
+public void endPhase(int phase, UnitStats unit) {
+	if (!this.collectDetails)
+		return;
+	PhaseClock clock = this.phaseClocks.get();
+	long time = System.nanoTime() - clock.startTimes[phase];
+	long allocation = allocatedBytes() - clock.startAllocations[phase];
+	synchronized (this) {
+		this.phaseTimes[phase] += time;
+		this.phaseAllocations[phase] += allocation;
+		if (unit != null) {
+			unit.phaseTimes[phase] += time;
+			unit.phaseAllocations[phase] += allocation;
+		}
+	}
+}
+
+/**
+ * Sets the unit processed by the current thread, to which its nested phases are charged, or null once it is done.
+ */
+public void setCurrentUnit(UnitStats unit) {
+	if (this.collectDetails)
+		this.phaseClocks.get().currentUnit = unit;
+}
+
+/**
+ * Starts measuring a nested phase on the current thread, where it may be reentered; answers whether
+ * {@link #exitNestedPhase} must be called.
+ */
+public boolean enterNestedPhase(int phase) {
+	if (!this.collectDetails)
+		return false;
+	if (this.phaseClocks.get().depths[phase]++ == 0)
+		startPhase(phase);
+	return true;
+}
+
+public void exitNestedPhase(int phase) {
+	PhaseClock clock = this.phaseClocks.get();
+	if (--clock.depths[phase] == 0)
+		endPhase(phase, clock.currentUnit);
+}
+
+/**
+ * Writes the per phase totals and the per unit statistics as a JSON object.
+ */
+public synchronized void writeJson(Writer writer) throws IOException {
+	writer.write("{\n  \"total\": "); //$NON-NLS-1$
+	writeJsonPhases(writer, this.phaseTimes, this.phaseAllocations);
+	writer.write(",\n  \"units\": ["); //$NON-NLS-1$
+	for (int i = 0; i < this.units.size(); i++) {
+		UnitStats unit = this.units.get(i);
+		writer.write(i == 0 ? "\n    {\"file\": \"" : ",\n    {\"file\": \""); //$NON-NLS-1$ //$NON-NLS-2$
+		for (char c : unit.fileName) {
+			if (c == '"' || c == '\\')
+				writer.write('\\');
+			if (c < ' ')
+				writer.write(String.format("\\u%04x", Integer.valueOf(c))); //$NON-NLS-1$
+			else
+				writer.write(c);
+		}
+		writer.write("\", \"phases\": "); //$NON-NLS-1$
+		writeJsonPhases(writer, unit.phaseTimes, unit.phaseAllocations);
+		writer.write('}');
+	}
+	writer.write("\n  ]\n}\n"); //$NON-NLS-1$
+}
+
+private static void writeJsonPhases(Writer writer, long[] times, long[] allocations) throws IOException {
+	writer.write('{');
+	for (int phase = 0; phase < PHASE_COUNT; phase++) {
+		if (phase > 0)
+			writer.write(", "); //$NON-NLS-1$
+		writer.write('"' + PHASE_NAMES[phase] + "\": {\"nanos\": " + times[phase] + ", \"allocatedBytes\": " + allocations[phase] + '}'); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	writer.write('}');
+}
+
+/**
+ * Writes the per unit statistics, preceded by the per phase totals in a row for the file {@code *}, as CSV.
+ */
+public synchronized void writeCsv(Writer writer) throws IOException {
+	writer.write("file"); //$NON-NLS-1$
+	for (String phase : PHASE_NAMES)
+		writer.write(',' + phase + "Nanos," + phase + "AllocatedBytes"); //$NON-NLS-1$ //$NON-NLS-2$
+	writer.write('\n');
+	writeCsvRow(writer, "*", this.phaseTimes, this.phaseAllocations); //$NON-NLS-1$
+	for (UnitStats unit : this.units)
+		writeCsvRow(writer, new String(unit.fileName), unit.phaseTimes, unit.phaseAllocations);
+}
+
+private static void writeCsvRow(Writer writer, String file, long[] times, long[] allocations) throws IOException {
+	if (file.indexOf(',') >= 0 || file.indexOf('"') >= 0)
+		file = '"' + file.replace("\"", "\"\"") + '"'; //$NON-NLS-1$ //$NON-NLS-2$
+	writer.write(file);
+	for (int phase = 0; phase < PHASE_COUNT; phase++)
+		writer.write("," + times[phase] + ',' + allocations[phase]); //$NON-NLS-1$
+	writer.write('\n');
+}
+
 /**
  * Returns the total elapsed time (between start and end)
  * @return the time spent between start and end
@@ -36,6 +272,16 @@ public long elapsedTime() {
 	return this.overallTime;
 }
 
+/**
+ * Returns the bytes allocated in all phases by the compiling and parsing threads, or 0 if details are not collected.
+ */
+public synchronized long phaseAllocationsTotal() {
+	long total = 0;
+	for (int phase = PARSE; phase <= WRITE; phase++) // the other phases are nested in these
+		total += this.phaseAllocations[phase];
+	return total;
+}
+
 @Override
 public int compareTo(Object o) {
 	CompilerStats otherStats = (CompilerStats) o;
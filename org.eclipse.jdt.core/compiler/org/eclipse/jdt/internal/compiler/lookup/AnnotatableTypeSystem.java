@@ -16,6 +16,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.lookup;
 
+import java.util.function.Predicate;
+
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.util.Util;
 
@@ -26,7 +28,8 @@ import org.eclipse.jdt.internal.compiler.util.Util;
 
    ATS is AnnotatableTypeSystem and not AnnotatedTypeSystem, various methods may actually return unannotated types if the input arguments do not specify any annotations
    and component types of the composite type being constructed are themselves also unannotated. We rely on the master type table maintained by TypeSystem and use
-   getDerivedTypes() and cacheDerivedType() to get/put.
+   findDerivedType() and cacheDerivedType() to get/put. Annotated types are created outside of the locks of the type system, the variant of a thread
+   that loses the race to register it is dropped in favor of the registered one.
 */
 
 public class AnnotatableTypeSystem extends TypeSystem {
@@ -79,20 +82,16 @@ public class AnnotatableTypeSystem extends TypeSystem {
 			System.arraycopy(leafAnnotations, 0, allAnnotations, annotations.length + 1 /* leave a null */, leafAnnotations.length);
 			annotations = allAnnotations;
 		}
-		ArrayBinding nakedType = null;
-		TypeBinding[] derivedTypes = getDerivedTypes(leafType);
-		for (int i = 0, length = derivedTypes.length; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) break;
-			if (!derivedType.isArrayType() || derivedType.dimensions() != dimensions || derivedType.leafComponentType() != leafType) //$IDENTITY-COMPARISON$
-				continue;
-			if (Util.effectivelyEqual(derivedType.getTypeAnnotations(), annotations))
-				return (ArrayBinding) derivedType;
-			if (!derivedType.hasTypeAnnotations())
-				nakedType = (ArrayBinding) derivedType;
-		}
-		if (nakedType == null)
-			nakedType = super.getArrayType(leafType, dimensions);
+		final TypeBinding leaf = leafType;
+		final int dims = dimensions;
+		final AnnotationBinding[] arrayAnnotations = annotations;
+		Predicate<TypeBinding> match = derivedType -> derivedType.isArrayType() && derivedType.dimensions() == dims && derivedType.leafComponentType() == leaf //$IDENTITY-COMPARISON$
+				&& Util.effectivelyEqual(derivedType.getTypeAnnotations(), arrayAnnotations);
+		TypeBinding derivedType = findDerivedType(leafType, match);
+		if (derivedType != null)
+			return (ArrayBinding) derivedType;
+
+		ArrayBinding nakedType = super.getArrayType(leafType, dimensions);
 
 		if (!haveTypeAnnotations(leafType, annotations))
 			return nakedType;
@@ -100,7 +99,7 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		ArrayBinding arrayType = new ArrayBinding(leafType, dimensions, this.environment);
 		arrayType.id = nakedType.id;
 		arrayType.setTypeAnnotations(annotations, this.isAnnotationBasedNullAnalysisEnabled);
-		return (ArrayBinding) cacheDerivedType(leafType, nakedType, arrayType);
+		return (ArrayBinding) cacheDerivedType(leafType, nakedType, arrayType, match);
 	}
 
 	@Override
@@ -121,7 +120,11 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		if (genericType.hasTypeAnnotations())   // @NonNull (List<String>) and not (@NonNull List)<String>
 			throw new IllegalStateException();
 
-		ParameterizedTypeBinding parameterizedType = this.parameterizedTypes.get(genericType, typeArguments, enclosingType, annotations);
+		Object stripe = stripe(getUnannotatedType(genericType).id);
+		ParameterizedTypeBinding parameterizedType;
+		synchronized (stripe) {
+			parameterizedType = this.parameterizedTypes.get(genericType, typeArguments, enclosingType, annotations);
+		}
 		if (parameterizedType != null)
 			return parameterizedType;
 
@@ -133,7 +136,13 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		parameterizedType = new ParameterizedTypeBinding(genericType, typeArguments, enclosingType, this.environment);
 		parameterizedType.id = nakedType.id;
 		parameterizedType.setTypeAnnotations(annotations, this.isAnnotationBasedNullAnalysisEnabled);
-		this.parameterizedTypes.put(genericType, typeArguments, enclosingType, parameterizedType);
+		HashedParameterizedTypes.PTBKey key = this.parameterizedTypes.newKey(genericType, typeArguments, enclosingType);
+		synchronized (stripe) {
+			ParameterizedTypeBinding prior = this.parameterizedTypes.get(genericType, typeArguments, enclosingType, annotations);
+			if (prior != null)
+				return prior;
+			this.parameterizedTypes.put(key, parameterizedType);
+		}
 		return (ParameterizedTypeBinding) cacheDerivedType(genericType, nakedType, parameterizedType);
 	}
 
@@ -150,21 +159,14 @@ public class AnnotatableTypeSystem extends TypeSystem {
 			enclosingType = (ReferenceBinding) enclosingType.original();
 		}
 
-		RawTypeBinding nakedType = null;
-		TypeBinding[] derivedTypes = getDerivedTypes(genericType);
-		for (int i = 0, length = derivedTypes.length; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null)
-				break;
-			if (!derivedType.isRawType() || derivedType.actualType() != genericType || derivedType.enclosingType() != enclosingType) //$IDENTITY-COMPARISON$
-				continue;
-			if (Util.effectivelyEqual(derivedType.getTypeAnnotations(), annotations))
-				return (RawTypeBinding) derivedType;
-			if (!derivedType.hasTypeAnnotations())
-				nakedType = (RawTypeBinding) derivedType;
-		}
-		if (nakedType == null)
-			nakedType = super.getRawType(genericType, enclosingType);
+		final ReferenceBinding enclosing = enclosingType;
+		Predicate<TypeBinding> match = derivedType -> derivedType.isRawType() && derivedType.actualType() == genericType && derivedType.enclosingType() == enclosing //$IDENTITY-COMPARISON$
+				&& Util.effectivelyEqual(derivedType.getTypeAnnotations(), annotations);
+		TypeBinding derivedType = findDerivedType(genericType, match);
+		if (derivedType != null)
+			return (RawTypeBinding) derivedType;
+
+		RawTypeBinding nakedType = super.getRawType(genericType, enclosingType);
 
 		if (!haveTypeAnnotations(genericType, enclosingType, null, annotations))
 			return nakedType;
@@ -172,7 +174,7 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		RawTypeBinding rawType = new RawTypeBinding(genericType, enclosingType, this.environment);
 		rawType.id = nakedType.id;
 		rawType.setTypeAnnotations(annotations, this.isAnnotationBasedNullAnalysisEnabled);
-		return (RawTypeBinding) cacheDerivedType(genericType, nakedType, rawType);
+		return (RawTypeBinding) cacheDerivedType(genericType, nakedType, rawType, match);
 	}
 
 	@Override
@@ -189,25 +191,16 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		if (genericType.hasTypeAnnotations())
 			throw new IllegalStateException();
 
-		WildcardBinding nakedType = null;
 		boolean useDerivedTypesOfBound = bound instanceof TypeVariableBinding || (bound instanceof ParameterizedTypeBinding && !(bound instanceof RawTypeBinding)) ;
-		TypeBinding[] derivedTypes = getDerivedTypes(useDerivedTypesOfBound ? bound : genericType);
-		for (int i = 0, length = derivedTypes.length; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null)
-				break;
-			if (!derivedType.isWildcard() || derivedType.actualType() != genericType || derivedType.rank() != rank) //$IDENTITY-COMPARISON$
-				continue;
-			if (derivedType.boundKind() != boundKind || derivedType.bound() != bound || !Util.effectivelyEqual(derivedType.additionalBounds(), otherBounds)) //$IDENTITY-COMPARISON$
-				continue;
-			if (Util.effectivelyEqual(derivedType.getTypeAnnotations(), annotations))
-				return (WildcardBinding) derivedType;
-			if (!derivedType.hasTypeAnnotations())
-				nakedType = (WildcardBinding) derivedType;
-		}
+		final ReferenceBinding generic = genericType;
+		Predicate<TypeBinding> match = derivedType -> derivedType.isWildcard() && derivedType.actualType() == generic && derivedType.rank() == rank //$IDENTITY-COMPARISON$
+				&& derivedType.boundKind() == boundKind && derivedType.bound() == bound && Util.effectivelyEqual(derivedType.additionalBounds(), otherBounds) //$IDENTITY-COMPARISON$
+				&& Util.effectivelyEqual(derivedType.getTypeAnnotations(), annotations);
+		TypeBinding derivedType = findDerivedType(useDerivedTypesOfBound ? bound : genericType, match);
+		if (derivedType != null)
+			return (WildcardBinding) derivedType;
 
-		if (nakedType == null)
-			nakedType = super.getWildcard(genericType, rank, bound, otherBounds, boundKind);
+		WildcardBinding nakedType = super.getWildcard(genericType, rank, bound, otherBounds, boundKind);
 
 		if (!haveTypeAnnotations(genericType, bound, otherBounds, annotations))
 			return nakedType;
@@ -215,7 +208,7 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		WildcardBinding wildcard = new WildcardBinding(genericType, rank, bound, otherBounds, boundKind, this.environment);
 		wildcard.id = nakedType.id;
 		wildcard.setTypeAnnotations(annotations, this.isAnnotationBasedNullAnalysisEnabled);
-		return (WildcardBinding) cacheDerivedType(useDerivedTypesOfBound ? bound : genericType, nakedType, wildcard);
+		return (WildcardBinding) cacheDerivedType(useDerivedTypesOfBound ? bound : genericType, nakedType, wildcard, match);
 	}
 
 	@Override
@@ -301,30 +294,25 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		if (type.kind() == Binding.PARAMETERIZED_TYPE) {
 			return getParameterizedType(type.actualType(), type.typeArguments(), (ReferenceBinding) enclosingType, annotations);
 		}
-		TypeBinding nakedType = null;
-		TypeBinding[] derivedTypes = getDerivedTypes(type);
-		for (int i = 0, length = derivedTypes.length; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) break;
-
+		Predicate<TypeBinding> match = derivedType -> {
 			if (derivedType.enclosingType() != enclosingType || !Util.effectivelyEqual(derivedType.typeArguments(), type.typeArguments())) //$IDENTITY-COMPARISON$
-				continue;
+				return false;
 
 			switch(type.kind()) {
 				case Binding.ARRAY_TYPE:
 					if (!derivedType.isArrayType() || derivedType.dimensions() != type.dimensions() || derivedType.leafComponentType() != type.leafComponentType()) //$IDENTITY-COMPARISON$
-						continue;
+						return false;
 					break;
 				case Binding.RAW_TYPE:
 					if (!derivedType.isRawType() || derivedType.actualType() != type.actualType()) //$IDENTITY-COMPARISON$
-						continue;
+						return false;
 					break;
 				case Binding.INTERSECTION_TYPE:
 				case Binding.WILDCARD_TYPE:
 					if (!derivedType.isWildcard() || derivedType.actualType() != type.actualType() || derivedType.rank() != type.rank() || derivedType.boundKind() != type.boundKind()) //$IDENTITY-COMPARISON$
-						continue;
+						return false;
 					if (derivedType.bound() != type.bound() || !Util.effectivelyEqual(derivedType.additionalBounds(), type.additionalBounds())) //$IDENTITY-COMPARISON$
-						continue;
+						return false;
 					break;
 				default:
 					switch(derivedType.kind()) {
@@ -333,18 +321,18 @@ public class AnnotatableTypeSystem extends TypeSystem {
 						case Binding.WILDCARD_TYPE:
 						case Binding.INTERSECTION_TYPE18:
 						case Binding.INTERSECTION_TYPE:
-							continue;
+							return false;
 					}
 					break;
 			}
-			if (Util.effectivelyEqual(derivedType.getTypeAnnotations(), annotations)) {
-				return derivedType;
-			}
-			if (!derivedType.hasTypeAnnotations())
-				nakedType = derivedType;
-		}
-		if (nakedType == null)
-			nakedType = getUnannotatedType(type);
+			return Util.effectivelyEqual(derivedType.getTypeAnnotations(), annotations);
+		};
+		TypeBinding derivedType = findDerivedType(type, match);
+		if (derivedType != null)
+			return derivedType;
+
+		// an unannotated type of the same shape as type is its naked type:
+		TypeBinding nakedType = getUnannotatedType(type);
 
 		if (!haveTypeAnnotations(type, enclosingType, null, annotations))
 			return nakedType;
@@ -369,7 +357,8 @@ public class AnnotatableTypeSystem extends TypeSystem {
 				keyType = nakedType;
 				break;
 		}
-		return cacheDerivedType(keyType, nakedType, annotatedType);
+		// register with the naked type first, which is where the above lookup happens:
+		return cacheDerivedType(nakedType, keyType, annotatedType, match);
 	}
 
 	private boolean haveTypeAnnotations(TypeBinding baseType, TypeBinding someType, TypeBinding[] someTypes, AnnotationBinding[] annotations) {
@@ -55,6 +55,8 @@ import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.ast.Annotation;
 import org.eclipse.jdt.internal.compiler.classfmt.AnnotationInfo;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
 import org.eclipse.jdt.internal.compiler.classfmt.ExternalAnnotationProvider.IMethodAnnotationWalker;
 import org.eclipse.jdt.internal.compiler.classfmt.MethodInfo;
 import org.eclipse.jdt.internal.compiler.classfmt.MethodInfoWithAnnotations;
@@ -600,6 +602,17 @@ void cachePartsFrom(IBinaryType binaryType, boolean needFieldsAndMethods) {
 		}
 
 		if (needFieldsAndMethods) {
+			if (binaryType instanceof ClassFileReader) {
+				try {
+					((ClassFileReader) binaryType).validateMembers(); // decoded lazily, so a malformed member only shows now
+				} catch (ClassFormatException e) {
+					// report like a missing class file, the type keeps no fields and methods
+					this.environment.problemReporter.isClassPathCorrect(
+						this.compoundName,
+						this.environment.root.unitBeingCompleted,
+						this.environment.missingClassFileLocation, false);
+				}
+			}
 			IRecordComponent[] iComponents = null;
 			if (binaryType.isRecord()) {
 				iComponents = binaryType.getRecordComponents();
@@ -1351,7 +1364,7 @@ public MethodBinding getExactConstructor(TypeBinding[] argumentTypes) {
 	}
 	int argCount = argumentTypes.length;
 	long range;
-	if ((range = ReferenceBinding.binarySearch(TypeConstants.INIT, this.methods)) >= 0) {
+	if ((range = searchMethods(TypeConstants.INIT, this.methods)) >= 0) {
 		nextMethod: for (int imethod = (int)range, end = (int)(range >> 32); imethod <= end; imethod++) {
 			MethodBinding method = this.methods[imethod];
 			if (method.parameters.length == argCount) {
@@ -1388,7 +1401,7 @@ public MethodBinding getExactMethod(char[] selector, TypeBinding[] argumentTypes
 	boolean foundNothing = true;
 
 	long range;
-	if ((range = ReferenceBinding.binarySearch(selector, this.methods)) >= 0) {
+	if ((range = searchMethods(selector, this.methods)) >= 0) {
 		nextMethod: for (int imethod = (int)range, end = (int)(range >> 32); imethod <= end; imethod++) {
 			MethodBinding method = this.methods[imethod];
 			foundNothing = false; // inner type lookups must know that a method with this name exists
@@ -1432,7 +1445,7 @@ public FieldBinding getField(char[] fieldName, boolean needResolve) {
 			ReferenceBinding.sortFields(this.fields, 0, length);
 		this.tagBits |= TagBits.AreFieldsSorted;
 	}
-	FieldBinding field = ReferenceBinding.binarySearch(fieldName, this.fields);
+	FieldBinding field = searchFields(fieldName, this.fields);
 	return needResolve && field != null ? resolveTypeFor(field) : field;
 }
 /**
@@ -1479,7 +1492,7 @@ public MethodBinding[] getMethods(char[] selector) {
 
 	if ((this.tagBits & TagBits.AreMethodsComplete) != 0) {
 		long range;
-		if ((range = ReferenceBinding.binarySearch(selector, this.methods)) >= 0) {
+		if ((range = searchMethods(selector, this.methods)) >= 0) {
 			int start = (int) range, end = (int) (range >> 32);
 			int length = end - start + 1;
 			if ((this.tagBits & TagBits.AreMethodsComplete) != 0) {
@@ -1499,7 +1512,7 @@ public MethodBinding[] getMethods(char[] selector) {
 		this.tagBits |= TagBits.AreMethodsSorted;
 	}
 	long range;
-	if ((range = ReferenceBinding.binarySearch(selector, this.methods)) >= 0) {
+	if ((range = searchMethods(selector, this.methods)) >= 0) {
 		int start = (int) range, end = (int) (range >> 32);
 		int length = end - start + 1;
 		MethodBinding[] result = new MethodBinding[length];
@@ -1528,7 +1541,7 @@ public MethodBinding[] getMethods(char[] selector, int suggestedParameterLength)
 		this.tagBits |= TagBits.AreMethodsSorted;
 	}
 	long range;
-	if ((range = ReferenceBinding.binarySearch(selector, this.methods)) >= 0) {
+	if ((range = searchMethods(selector, this.methods)) >= 0) {
 		int start = (int) range, end = (int) (range >> 32);
 		int length = end - start + 1;
 		int count = 0;
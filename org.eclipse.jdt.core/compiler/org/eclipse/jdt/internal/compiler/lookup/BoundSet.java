@@ -16,21 +16,18 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.lookup;
 
-import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toMap;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.stream.Stream;
 
 import org.eclipse.jdt.internal.compiler.ast.Wildcard;
 
@@ -59,16 +56,19 @@ class BoundSet {
 	 * For a given inference variable this structure holds all type bounds
 	 * with a relation in { SUPERTYPE, SAME, SUBTYPE }.
 	 * These are internally stored in three sets, one for each of the relations.
+	 * A ThreeSets may be shared by copies of a bound set; only its owner modifies it.
 	 */
 	private static class ThreeSets {
+		final Object owner;
 		Set<TypeBound> superBounds;
 		Set<TypeBound> sameBounds;
 		Set<TypeBound> subBounds;
 		TypeBinding	instantiation;
 		Map<InferenceVariable,TypeBound> inverseBounds; // from right inference variable to bound
 		Set<InferenceVariable> dependencies;
-		public ThreeSets() {
-			// empty, the sets are lazily initialized
+		public ThreeSets(Object owner) {
+			// the sets are lazily initialized
+			this.owner = owner;
 		}
 		/** Add a type bound to the appropriate set. */
 		public boolean addBound(TypeBound bound) {
@@ -82,6 +82,16 @@ class BoundSet {
 			}
 			return result;
 		}
+		public boolean hasBound(TypeBound bound) {
+			Set<TypeBound> set;
+			switch (bound.relation) {
+				case ReductionResult.SUPERTYPE: set = this.superBounds; break;
+				case ReductionResult.SAME: set = this.sameBounds; break;
+				case ReductionResult.SUBTYPE: set = this.subBounds; break;
+				default: return false;
+			}
+			return set != null && set.contains(bound);
+		}
 		private boolean addBound1(TypeBound bound) {
 			switch (bound.relation) {
 				case ReductionResult.SUPERTYPE:
@@ -190,8 +200,8 @@ class BoundSet {
 			}
 			return idx;
 		}
-		public ThreeSets copy() {
-			ThreeSets copy = new ThreeSets();
+		public ThreeSets copy(Object newOwner) {
+			ThreeSets copy = new ThreeSets(newOwner);
 			if (this.superBounds != null)
 				copy.superBounds = new HashSet<>(this.superBounds);
 			if (this.sameBounds != null)
@@ -199,6 +209,8 @@ class BoundSet {
 			if (this.subBounds != null)
 				copy.subBounds = new HashSet<>(this.subBounds);
 			copy.instantiation = this.instantiation;
+			if (this.inverseBounds != null)
+				copy.inverseBounds = new HashMap<>(this.inverseBounds);
 			if (this.dependencies != null) {
 				copy.dependencies = new HashSet<>(this.dependencies);
 			}
@@ -329,22 +341,53 @@ class BoundSet {
 		}
 	}
 	// main storage of type bounds:
-	HashMap<InferenceVariable, ThreeSets> boundsPerVariable = new HashMap<>();
+	HashMap<InferenceVariable, ThreeSets> boundsPerVariable;
 
 	/**
 	 * 18.1.3 bullet 4: G<α1, ..., αn> = capture(G<A1, ..., An>)
 	 * On both sides we only enter types with nonnull arguments.
+	 * Modified only through {@link #addCapture} and {@link #removeCapture}.
 	 */
-	HashMap<ParameterizedTypeBinding,ParameterizedTypeBinding> captures = new HashMap<>();
-	/** 18.1.3 bullet 5: throws α */
-	Set<InferenceVariable> inThrows = new HashSet<>();
+	HashMap<ParameterizedTypeBinding,ParameterizedTypeBinding> captures;
+	/** 18.1.3 bullet 5: throws α; modified only through {@link #addThrows}. */
+	Set<InferenceVariable> inThrows;
 
-	private TypeBound[] incorporatedBounds = Binding.NO_TYPE_BOUNDS;
-	private TypeBound[] unincorporatedBounds = new TypeBound[8];
+	private TypeBound[] incorporatedBounds = Binding.NO_TYPE_BOUNDS; // replaced, never modified
+	private TypeBound[] unincorporatedBounds;
 	private int unincorporatedBoundsCount = 0;
 	private TypeBound[] mostRecentBounds = new TypeBound[4]; // for quick & dirty duplicate elimination
 
-	public BoundSet() {}
+	/*
+	 * Copy-on-write: copy() shares the storage above between the original and the copy, which copy a shared map, set
+	 * or array before modifying it. A ThreeSets belongs to the bound set whose owner it records; a copy gives both bound
+	 * sets new owners, so that either copies a ThreeSets before adding to it.
+	 */
+	private Object owner = new Object();
+	private boolean boundsPerVariableShared;
+	private boolean capturesShared;
+	private boolean inThrowsShared;
+	private boolean unincorporatedBoundsShared;
+
+	public BoundSet() {
+		this.boundsPerVariable = new HashMap<>();
+		this.captures = new HashMap<>();
+		this.inThrows = new HashSet<>();
+		this.unincorporatedBounds = new TypeBound[8];
+	}
+
+	private BoundSet(BoundSet original) {
+		this.boundsPerVariable = original.boundsPerVariable;
+		this.captures = original.captures;
+		this.inThrows = original.inThrows;
+		this.incorporatedBounds = original.incorporatedBounds;
+		this.unincorporatedBounds = original.unincorporatedBounds;
+		this.unincorporatedBoundsCount = original.unincorporatedBoundsCount;
+		this.boundsPerVariableShared = original.boundsPerVariableShared = true;
+		this.capturesShared = original.capturesShared = true;
+		this.inThrowsShared = original.inThrowsShared = true;
+		this.unincorporatedBoundsShared = original.unincorporatedBoundsShared = true;
+		original.owner = new Object();
+	}
 
 	// pre: typeParameters != null, variables[i].typeParameter == typeParameters[i]
 	public void addBoundsFromTypeParameters(InferenceContext18 context, TypeVariableBinding[] typeParameters, InferenceVariable[] variables) {
@@ -378,25 +421,49 @@ class BoundSet {
 
 	/**
 	 * For resolution we work with a copy of the bound set, to enable retrying.
+	 * The copy shares its storage with this bound set until either is modified.
 	 * @return the new bound set.
 	 */
 	public BoundSet copy() {
-		BoundSet copy = new BoundSet();
-		if (!this.boundsPerVariable.isEmpty()) {
-			Iterator<Entry<InferenceVariable, ThreeSets>> setsIterator = this.boundsPerVariable.entrySet().iterator();
-			while (setsIterator.hasNext()) {
-				Entry<InferenceVariable, ThreeSets> entry = setsIterator.next();
-				copy.boundsPerVariable.put(entry.getKey(), entry.getValue().copy());
-			}
+		return new BoundSet(this);
+	}
+
+	/** Answer the bounds of the given variable (a prototype) for modification, creating them if needed. */
+	private ThreeSets threeSetsForUpdate(InferenceVariable variable) {
+		ThreeSets three = this.boundsPerVariable.get(variable);
+		if (three != null && three.owner == this.owner)
+			return three;
+		three = three == null ? new ThreeSets(this.owner) : three.copy(this.owner);
+		if (this.boundsPerVariableShared) {
+			this.boundsPerVariable = new HashMap<>(this.boundsPerVariable);
+			this.boundsPerVariableShared = false;
 		}
-		copy.inThrows.addAll(this.inThrows);
-		copy.captures.putAll(this.captures);
-		if (this.incorporatedBounds.length > 0)
-			System.arraycopy(this.incorporatedBounds, 0, copy.incorporatedBounds = new TypeBound[this.incorporatedBounds.length], 0, this.incorporatedBounds.length);
-		if (this.unincorporatedBoundsCount > 0)
-			System.arraycopy(this.unincorporatedBounds, 0, copy.unincorporatedBounds = new TypeBound[this.unincorporatedBounds.length], 0, this.unincorporatedBounds.length);
-		copy.unincorporatedBoundsCount = this.unincorporatedBoundsCount;
-		return copy;
+		this.boundsPerVariable.put(variable, three);
+		return three;
+	}
+
+	void addCapture(ParameterizedTypeBinding gAlpha, ParameterizedTypeBinding captured) {
+		if (this.capturesShared) {
+			this.captures = new HashMap<>(this.captures);
+			this.capturesShared = false;
+		}
+		this.captures.put(gAlpha, captured);
+	}
+
+	void removeCapture(ParameterizedTypeBinding gAlpha) {
+		if (this.capturesShared) {
+			this.captures = new HashMap<>(this.captures);
+			this.capturesShared = false;
+		}
+		this.captures.remove(gAlpha);
+	}
+
+	void addThrows(InferenceVariable variable) {
+		if (this.inThrowsShared) {
+			this.inThrows = new HashSet<>(this.inThrows);
+			this.inThrowsShared = false;
+		}
+		this.inThrows.add(variable);
 	}
 
 	public void addBound(TypeBound bound, LookupEnvironment environment) {
@@ -429,12 +496,18 @@ class BoundSet {
 
 		InferenceVariable variable = bound.left.prototype();
 		ThreeSets three = this.boundsPerVariable.get(variable);
-		if (three == null)
-			this.boundsPerVariable.put(variable, (three = new ThreeSets()));
+		if (three != null && three.owner != this.owner && three.hasBound(bound))
+			return; // known bound, don't copy shared bounds
+		three = threeSetsForUpdate(variable);
 		if (three.addBound(bound)) {
 			int unincorporatedBoundsLength = this.unincorporatedBounds.length;
-			if (this.unincorporatedBoundsCount >= unincorporatedBoundsLength)
+			if (this.unincorporatedBoundsCount >= unincorporatedBoundsLength) {
 				System.arraycopy(this.unincorporatedBounds, 0, this.unincorporatedBounds = new TypeBound[unincorporatedBoundsLength * 2], 0, unincorporatedBoundsLength);
+				this.unincorporatedBoundsShared = false;
+			} else if (this.unincorporatedBoundsShared) {
+				this.unincorporatedBounds = this.unincorporatedBounds.clone();
+				this.unincorporatedBoundsShared = false;
+			}
 			this.unincorporatedBounds[this.unincorporatedBoundsCount ++] = bound;
 			// check if this makes the inference variable instantiated:
 			TypeBinding typeBinding = bound.right;
@@ -445,9 +518,7 @@ class BoundSet {
 				// this should be needed to determine IV dependencies independent of direction.
 				// TODO: so far no test could be identified which actually needs it ...
 				InferenceVariable rightIV = (InferenceVariable) bound.right.prototype();
-				three = this.boundsPerVariable.get(rightIV);
-				if (three == null)
-					this.boundsPerVariable.put(rightIV, (three = new ThreeSets()));
+				three = threeSetsForUpdate(rightIV);
 				if (three.inverseBounds == null)
 					three.inverseBounds = new HashMap<>();
 				three.inverseBounds.put(rightIV, bound);
@@ -498,21 +569,235 @@ class BoundSet {
 		return num;
 	}
 
+	/**
+	 * Index over the bounds of one round of incorporation, which determines the pairs of bounds worth combining.
+	 * Except for parameterized dependencies (see {@link BoundSet#enableOptimizationForBug543480}) two bounds can only
+	 * imply a new constraint if they mention a common inference variable, so each bound is paired only with those
+	 * bounds that share an inference variable with it, plus those whose inference variables cannot be determined.
+	 * Partners are answered in their original order, so the constraints are derived in the same order as when
+	 * visiting all pairs. With annotation based null analysis all pairs are visited, since they may carry null hints.
+	 */
+	private static class IncorporationIndex {
+		final TypeBound[] first;
+		final TypeBound[] next;
+		final boolean selective;
+		private Map<InferenceVariable,int[]> positionsByVariable;	// positions in next of bounds mentioning a given inference variable
+		private int[] opaquePositions;								// positions in next of bounds to be combined with every bound
+		private int[] visited;
+		private int visitStamp;
+		private Map<InferenceVariable,TypeBound> properTypesByInferenceVariable;
+		private Map<TypeBound,ConstraintTypeFormula> parameterizedDependencyResults;
+
+		IncorporationIndex(TypeBound[] first, TypeBound[] next, boolean selective) {
+			this.first = first;
+			this.next = next;
+			this.selective = selective;
+			if (selective) {
+				this.positionsByVariable = new HashMap<>();
+				int[] opaque = new int[4];
+				int opaqueCount = 0;
+				List<InferenceVariable> variables = new ArrayList<>();
+				for (int j = 0; j < next.length; j++) {
+					variables.clear();
+					if (!variablesOf(next[j], variables)) {
+						if (opaqueCount == opaque.length)
+							System.arraycopy(opaque, 0, opaque = new int[opaqueCount * 2], 0, opaqueCount);
+						opaque[opaqueCount++] = j;
+						continue;
+					}
+					for (InferenceVariable variable : variables) {
+						int[] positions = this.positionsByVariable.get(variable);
+						if (positions == null) {
+							this.positionsByVariable.put(variable, positions = new int[] { 0, 0, 0, 0, 0 });
+						} else if (positions[positions[0]] == j) {
+							continue; // variable mentioned twice in the same bound
+						} else if (positions[0] + 1 == positions.length) {
+							System.arraycopy(positions, 0, positions = new int[positions.length * 2], 0, positions[0] + 1);
+							this.positionsByVariable.put(variable, positions);
+						}
+						positions[++positions[0]] = j; // positions[0] holds the count
+					}
+				}
+				System.arraycopy(opaque, 0, this.opaquePositions = new int[opaqueCount], 0, opaqueCount);
+				this.visited = new int[next.length];
+			}
+		}
+
+		/**
+		 * Answer the positions in next of the bounds to be combined with the bound at position i in first,
+		 * in ascending order, or null if all bounds in next need to be visited.
+		 */
+		int[] partners(int i) {
+			if (!this.selective)
+				return null;
+			List<InferenceVariable> variables = new ArrayList<>();
+			if (!variablesOf(this.first[i], variables))
+				return null;
+			int stamp = ++this.visitStamp;
+			int[] result = new int[this.opaquePositions.length + 8];
+			int count = 0;
+			for (int j : this.opaquePositions) {
+				this.visited[j] = stamp;
+				result[count++] = j;
+			}
+			for (InferenceVariable variable : variables) {
+				int[] positions = this.positionsByVariable.get(variable);
+				if (positions == null)
+					continue;
+				for (int k = 1; k <= positions[0]; k++) {
+					int j = positions[k];
+					if (this.visited[j] == stamp)
+						continue;
+					this.visited[j] = stamp;
+					if (count == result.length)
+						System.arraycopy(result, 0, result = new int[count * 2], 0, count);
+					result[count++] = j;
+				}
+			}
+			if (count < result.length)
+				System.arraycopy(result, 0, result = new int[count], 0, count);
+			Arrays.sort(result);
+			return result;
+		}
+
+		/** Answer all bounds {@code α = U} where {@code U} is proper, one per inference variable, preferring those from next. */
+		Map<InferenceVariable,TypeBound> properTypesByInferenceVariable() {
+			if (this.properTypesByInferenceVariable == null) {
+				Map<InferenceVariable,TypeBound> map = new HashMap<>();
+				collectProperSameBounds(this.next, map);
+				if (this.first != this.next)
+					collectProperSameBounds(this.first, map);
+				this.properTypesByInferenceVariable = map;
+			}
+			return this.properTypesByInferenceVariable;
+		}
+
+		/** Answer the constraints implied by parameterized dependencies so far, keyed by the identity of the dependency. */
+		Map<TypeBound,ConstraintTypeFormula> parameterizedDependencyResults() {
+			if (this.parameterizedDependencyResults == null)
+				this.parameterizedDependencyResults = new IdentityHashMap<>();
+			return this.parameterizedDependencyResults;
+		}
+
+		private static void collectProperSameBounds(TypeBound[] bounds, Map<InferenceVariable,TypeBound> map) {
+			for (TypeBound bound : bounds) {
+				if (bound.relation == ReductionResult.SAME && bound.right.isProperType(true))
+					map.putIfAbsent(bound.left, bound);
+			}
+		}
+
+		/**
+		 * Collect the prototypes of all inference variables mentioned by the given bound.
+		 * Answer false if the bound is to be combined with all other bounds, because it is a parameterized dependency,
+		 * or because its type may mention inference variables that cannot be collected.
+		 */
+		private static boolean variablesOf(TypeBound bound, List<InferenceVariable> variables) {
+			if (enableOptimizationForBug543480 && isParameterizedDependency(bound))
+				return false;
+			variables.add(bound.left.prototype());
+			return variablesOf(bound.right, variables);
+		}
+
+		private static boolean variablesOf(TypeBinding type, List<InferenceVariable> variables) {
+			if (type == null)
+				return true;
+			if (type instanceof InferenceVariable) {
+				variables.add(((InferenceVariable) type).prototype());
+				return true;
+			}
+			switch (type.kind()) {
+				case Binding.PARAMETERIZED_TYPE:
+					ParameterizedTypeBinding parameterizedType = (ParameterizedTypeBinding) type;
+					if (parameterizedType.arguments != null) {
+						for (TypeBinding argument : parameterizedType.arguments) {
+							if (TypeBinding.notEquals(argument, type) && !variablesOf(argument, variables))
+								return false;
+						}
+					}
+					return parameterizedType.isStatic() || variablesOf(parameterizedType.enclosingType(), variables);
+				case Binding.ARRAY_TYPE:
+					return variablesOf(type.leafComponentType(), variables);
+				case Binding.WILDCARD_TYPE:
+				case Binding.INTERSECTION_TYPE:
+					WildcardBinding wildcard = (WildcardBinding) type;
+					if (!variablesOf(wildcard.bound, variables))
+						return false;
+					if (wildcard.otherBounds != null) {
+						for (TypeBinding otherBound : wildcard.otherBounds) {
+							if (!variablesOf(otherBound, variables))
+								return false;
+						}
+					}
+					return true;
+				case Binding.INTERSECTION_TYPE18:
+					for (TypeBinding intersectingType : ((IntersectionTypeBinding18) type).intersectingTypes) {
+						if (!variablesOf(intersectingType, variables))
+							return false;
+					}
+					return true;
+				default:
+					// type variables, captures etc. may hide inference variables in their bounds
+					return type.isProperType(false);
+			}
+		}
+	}
+
+	/**
+	 * Key for detecting formulas that have already been reduced during one incorporation, using the same notion
+	 * of type identity as {@link ConstraintTypeFormula#equalsEquals(ConstraintTypeFormula)}. Null annotations are
+	 * taken into account, since reducing a formula with different null annotations may contribute null hints.
+	 */
+	private static final class FormulaKey {
+		final ConstraintTypeFormula formula;
+		final long nullTagBits;
+		final int hashCode;
+
+		FormulaKey(ConstraintTypeFormula formula) {
+			this.formula = formula;
+			this.nullTagBits = (formula.left.tagBits & TagBits.AnnotationNullMASK) << 2 | (formula.right.tagBits & TagBits.AnnotationNullMASK);
+			this.hashCode = ((hash(formula.left) * 31 + hash(formula.right)) * 31 + formula.relation) * 2 + (formula.isSoft ? 1 : 0);
+		}
+
+		// consistent with TypeBinding.equalsEquals()
+		private static int hash(TypeBinding type) {
+			if (type instanceof LocalTypeBinding)
+				return ((LocalTypeBinding) type).sourceStart;
+			if (type.id != TypeIds.NoId)
+				return type.id;
+			return System.identityHashCode(type);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof FormulaKey))
+				return false;
+			FormulaKey other = (FormulaKey) object;
+			return this.nullTagBits == other.nullTagBits && this.formula.equalsEquals(other.formula);
+		}
+	}
+
 	// Driver for the real workhorse - Implements generational incorporation a la generational garbage collector.
 	boolean incorporate(InferenceContext18 context) throws InferenceFailureException {
 		if (this.unincorporatedBoundsCount == 0 && this.captures.isEmpty())
 			return true;
 
+		// toss out duplicate formulas, in pathological cases there are a good quarter million of them:
+		Set<FormulaKey> reducedFormulas = new HashSet<>();
 		do {
 			TypeBound [] freshBounds;
 			System.arraycopy(this.unincorporatedBounds, 0, freshBounds = new TypeBound[this.unincorporatedBoundsCount], 0, this.unincorporatedBoundsCount);
 			this.unincorporatedBoundsCount = 0;
 
 			// Pairwise bidirectional compare all bounds from previous generation with the fresh set.
-			if (!incorporate(context, this.incorporatedBounds, freshBounds))
+			if (!incorporate(context, this.incorporatedBounds, freshBounds, reducedFormulas))
 				return false;
 			// Pairwise bidirectional compare all fresh bounds.
-			if (!incorporate(context, freshBounds, freshBounds))
+			if (!incorporate(context, freshBounds, freshBounds, reducedFormulas))
 				return false;
 
 			// Merge the bounds into one incorporated generation.
@@ -531,18 +816,21 @@ class BoundSet {
 	 * <b>JLS 18.3:</b> Try to infer new constraints from pairs of existing type bounds.
 	 * Each new constraint is first reduced and checked for TRUE or FALSE, which will
 	 * abort the processing.
+	 * Only pairs of bounds that can be combined are visited, see {@link IncorporationIndex}.
 	 * @param context the context that manages our inference variables
+	 * @param reducedFormulas the formulas reduced so far, which are not reduced again
 	 * @return false if any constraint resolved to false, true otherwise
 	 * @throws InferenceFailureException a compile error has been detected during inference
 	 */
-	boolean incorporate(InferenceContext18 context, TypeBound [] first, TypeBound [] next) throws InferenceFailureException {
+	boolean incorporate(InferenceContext18 context, TypeBound [] first, TypeBound [] next, Set<FormulaKey> reducedFormulas) throws InferenceFailureException {
 		boolean analyzeNull = context.environment.globalOptions.isAnnotationBasedNullAnalysisEnabled;
-		ConstraintTypeFormula [] mostRecentFormulas = new ConstraintTypeFormula[4]; // poor man's cache to toss out duplicates, in pathological cases there are a good quarter million of them.
+		IncorporationIndex index = new IncorporationIndex(first, next, !analyzeNull);
 		// check each pair, in each way.
 		for (int i = 0, iLength = first.length; i < iLength; i++) {
 			TypeBound boundI = first[i];
-			for (int j = 0, jLength = next.length; j < jLength; j++) {
-				TypeBound boundJ = next[j];
+			int[] partners = index.partners(i);
+			for (int p = 0, pLength = partners == null ? next.length : partners.length; p < pLength; p++) {
+				TypeBound boundJ = next[partners == null ? p : partners[p]];
 				if (boundI == boundJ)
 					continue;
 				int iteration = 1;
@@ -558,18 +846,18 @@ class BoundSet {
 						case ReductionResult.SAME:
 							switch (boundJ.relation) {
 								case ReductionResult.SAME:
-									newConstraint = combineSameSame(boundI, boundJ, first, next);
+									newConstraint = combineSameSame(boundI, boundJ, index);
 									break;
 								case ReductionResult.SUBTYPE:
 								case ReductionResult.SUPERTYPE:
-									newConstraint = combineSameSubSuper(boundI, boundJ, first, next);
+									newConstraint = combineSameSubSuper(boundI, boundJ, index);
 									break;
 							}
 							break;
 						case ReductionResult.SUBTYPE:
 							switch (boundJ.relation) {
 								case ReductionResult.SAME:
-									newConstraint = combineSameSubSuper(boundJ, boundI, first, next);
+									newConstraint = combineSameSubSuper(boundJ, boundI, index);
 									break;
 								case ReductionResult.SUPERTYPE:
 									newConstraint = combineSuperAndSub(boundJ, boundI);
@@ -583,7 +871,7 @@ class BoundSet {
 						case ReductionResult.SUPERTYPE:
 							switch (boundJ.relation) {
 								case ReductionResult.SAME:
-									newConstraint = combineSameSubSuper(boundJ, boundI, first, next);
+									newConstraint = combineSameSubSuper(boundJ, boundI, index);
 									break;
 								case ReductionResult.SUBTYPE:
 									newConstraint = combineSuperAndSub(boundI, boundJ);
@@ -593,22 +881,10 @@ class BoundSet {
 									break;
 							}
 					}
+					if (newConstraint != null && newConstraint.left == newConstraint.right) //$IDENTITY-COMPARISON$
+						newConstraint = null;
 					if (newConstraint != null) {
-						if (newConstraint.left == newConstraint.right) { //$IDENTITY-COMPARISON$
-							newConstraint = null;
-						} else 	if (newConstraint.equalsEquals(mostRecentFormulas[0]) || newConstraint.equalsEquals(mostRecentFormulas[1]) ||
-									newConstraint.equalsEquals(mostRecentFormulas[2]) || newConstraint.equalsEquals(mostRecentFormulas[3])) {
-							newConstraint = null;
-						}
-					}
-					if (newConstraint != null) {
-						// bubble formulas around the cache.
-						mostRecentFormulas[3] = mostRecentFormulas[2];
-						mostRecentFormulas[2] = mostRecentFormulas[1];
-						mostRecentFormulas[1] = mostRecentFormulas[0];
-						mostRecentFormulas[0] = newConstraint;
-
-						if (!reduceOneConstraint(context, newConstraint))
+						if (reducedFormulas.add(new FormulaKey(newConstraint)) && !reduceOneConstraint(context, newConstraint))
 							return false;
 
 						if (analyzeNull) {
@@ -729,7 +1005,8 @@ class BoundSet {
 				}
 			}
 		}
-		this.captures.clear();
+		this.captures = new HashMap<>();
+		this.capturesShared = false;
 		return true;
 	}
 
@@ -748,7 +1025,7 @@ class BoundSet {
 			reduceOneConstraint(context, formula);
 	}
 
-	private ConstraintTypeFormula combineSameSame(TypeBound boundS, TypeBound boundT, TypeBound[] firstBounds, TypeBound[] nextBounds) {
+	private ConstraintTypeFormula combineSameSame(TypeBound boundS, TypeBound boundT, IncorporationIndex index) {
 
 		// α = S and α = T imply ⟨S = T⟩
 		if (TypeBinding.equalsEquals(boundS.left, boundT.left))
@@ -756,10 +1033,10 @@ class BoundSet {
 
 		// match against more shapes:
 		ConstraintTypeFormula newConstraint;
-		newConstraint = combineSameSameWithProperType(boundS, boundT, firstBounds, nextBounds);
+		newConstraint = combineSameSameWithProperType(boundS, boundT, index);
 		if (newConstraint != null)
 			return newConstraint;
-		newConstraint = combineSameSameWithProperType(boundT, boundS, firstBounds, nextBounds);
+		newConstraint = combineSameSameWithProperType(boundT, boundS, index);
 		if (newConstraint != null)
 			return newConstraint;
 		return null;
@@ -767,14 +1044,14 @@ class BoundSet {
 
 	// pre: boundLeft.left != boundRight.left
 	private ConstraintTypeFormula combineSameSameWithProperType(TypeBound boundLeft, TypeBound boundRight,
-			TypeBound[] firstBounds, TypeBound[] nextBounds) {
+			IncorporationIndex index) {
 		//  α = U and S = T imply ⟨S[α:=U] = T[α:=U]⟩
 		TypeBinding u = boundLeft.right;
 		if (enableOptimizationForBug543480 && isParameterizedDependency(boundRight)) {
 			// Performance optimization: do not incorporate arguments one by one, which yielt 2^n new bounds (n=number of type arguments) in the past.
 			// Instead, all arguments of a parameterized dependency are incorporated at once - but only when they are available.
 			return incorporateIntoParameterizedDependencyIfAllArgumentsAreProperTypes(boundRight,
-					firstBounds, nextBounds);
+					index);
 		}
 		if (u.isProperType(true)) {
 			InferenceVariable alpha = boundLeft.left;
@@ -785,7 +1062,7 @@ class BoundSet {
 		return null;
 	}
 
-	private ConstraintTypeFormula combineSameSubSuper(TypeBound boundS, TypeBound boundT, TypeBound[] firstBounds, TypeBound[] nextBounds) {
+	private ConstraintTypeFormula combineSameSubSuper(TypeBound boundS, TypeBound boundT, IncorporationIndex index) {
 		//  α = S and α <: T imply ⟨S <: T⟩
 		//  α = S and T <: α imply ⟨T <: S⟩
 		InferenceVariable alpha = boundS.left;
@@ -812,13 +1089,13 @@ class BoundSet {
 				return ConstraintTypeFormula.create(t, s, boundT.relation, boundT.isSoft||boundS.isSoft);
 			}
 		}
-		return combineSameSubSuperWithProperType(boundS, boundT, alpha, firstBounds, nextBounds);
+		return combineSameSubSuperWithProperType(boundS, boundT, alpha, index);
 	}
 
 	// pre: boundLeft.left != boundRight.left
 	// pre: boundLeft.left != boundRight.right
 	private ConstraintTypeFormula combineSameSubSuperWithProperType(TypeBound boundLeft, TypeBound boundRight,
-			InferenceVariable alpha, TypeBound[] firstBounds, TypeBound[] nextBounds) {
+			InferenceVariable alpha, IncorporationIndex index) {
 		//  α = U and S <: T imply ⟨S[α:=U] <: T[α:=U]⟩
 		TypeBinding u = boundLeft.right;
 
@@ -826,7 +1103,7 @@ class BoundSet {
 			// Performance optimization: do not incorporate arguments one by one, which yielt 2^n new bounds (n=number of type arguments) in the past.
 			// Instead, all arguments of a parameterized dependency are incorporated at once - but only when they are available.
 			return incorporateIntoParameterizedDependencyIfAllArgumentsAreProperTypes(boundRight,
-								firstBounds, nextBounds);
+								index);
 		}
 		if (u.isProperType(true)) {
 			boolean substitute = TypeBinding.equalsEquals(alpha, boundRight.left);
@@ -866,24 +1143,30 @@ class BoundSet {
 		return null;
 	}
 
-	private boolean isParameterizedDependency(TypeBound typeBound) {
+	private static boolean isParameterizedDependency(TypeBound typeBound) {
 		return typeBound.right.kind() == Binding.PARAMETERIZED_TYPE
 				&& !typeBound.right.isProperType(true) /* is a dependency, not a type bound */
 				&& typeBound.right.isParameterizedTypeWithActualArguments();
 	}
 
 	private ConstraintTypeFormula incorporateIntoParameterizedDependencyIfAllArgumentsAreProperTypes(TypeBound typeBound,
-			TypeBound[] firstBounds, TypeBound[] nextBounds) {
-		Collection<TypeBound> properTypesForAllInferenceVariables = getProperTypesForAllInferenceVariablesOrNull((ParameterizedTypeBinding)typeBound.right, firstBounds, nextBounds);
+			IncorporationIndex index) {
+		// the outcome only depends on the proper types available in this round, which are shared by all partners:
+		Map<TypeBound,ConstraintTypeFormula> results = index.parameterizedDependencyResults();
+		if (results.containsKey(typeBound))
+			return results.get(typeBound);
+		ConstraintTypeFormula result = null;
+		Collection<TypeBound> properTypesForAllInferenceVariables = getProperTypesForAllInferenceVariablesOrNull((ParameterizedTypeBinding)typeBound.right, index);
 		if (null != properTypesForAllInferenceVariables) {
-			return combineWithProperTypes(properTypesForAllInferenceVariables, typeBound);
+			result = combineWithProperTypes(properTypesForAllInferenceVariables, typeBound);
 		}
-		return null;
+		results.put(typeBound, result);
+		return result;
 	}
 
 	private Collection<TypeBound> getProperTypesForAllInferenceVariablesOrNull(ParameterizedTypeBinding parameterizedType,
-			TypeBound[] firstBounds, TypeBound[] nextBounds) {
-		final Map<InferenceVariable,TypeBound> properTypesByInferenceVariable = properTypesByInferenceVariable(firstBounds, nextBounds);
+			IncorporationIndex index) {
+		final Map<InferenceVariable,TypeBound> properTypesByInferenceVariable = index.properTypesByInferenceVariable();
 		if(properTypesByInferenceVariable.size() == 0) {
 			return null;
 		}
@@ -894,26 +1177,6 @@ class BoundSet {
 		return null;
 	}
 
-	private Map<InferenceVariable,TypeBound> properTypesByInferenceVariable(TypeBound[] firstBounds, TypeBound[] nextBounds) {
-		return getBoundsStream(firstBounds, nextBounds)
-				.filter(bound -> bound.relation == ReductionResult.SAME)
-				.filter(bound -> bound.right.isProperType(true))
-				.collect(toMap(bound -> bound.left, identity(),
-						// If nextBounds and firstBounds have a bound for the IV, prefer the newer one from nextBounds.
-						(boundFromNextBounds, boundFromFirstBounds) -> boundFromNextBounds));
-	}
-
-	private Stream<TypeBound> getBoundsStream(TypeBound[] firstBounds, TypeBound[] nextBounds) {
-		if(firstBounds == nextBounds) {
-			return Arrays.stream(firstBounds);
-		}
-		// The next bounds are considered initially because it seems more
-		// likely that they contain the new bounds that enable successful
-		// incorporation in this run in case no incorporation was possible
-		// in previous runs.
-		return Stream.concat(Arrays.stream(nextBounds), Arrays.stream(firstBounds));
-	}
-
 	private Set<InferenceVariable> getInferenceVariables(ParameterizedTypeBinding parameterizedType) {
 		final Set<InferenceVariable> inferenceVariables = new LinkedHashSet<>();
 		for(final TypeBinding argument: parameterizedType.arguments) {
@@ -35,6 +35,7 @@ import org.eclipse.jdt.internal.compiler.ast.LambdaExpression;
 import org.eclipse.jdt.internal.compiler.ast.ReferenceExpression;
 import org.eclipse.jdt.internal.compiler.ast.SwitchExpression;
 import org.eclipse.jdt.internal.compiler.ast.Wildcard;
+import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
 import org.eclipse.jdt.internal.compiler.lookup.TypeConstants.BoundCheckStatus;
 import org.eclipse.jdt.internal.compiler.util.Sorting;
 
@@ -364,7 +365,7 @@ public class InferenceContext18 {
 			TypeBinding parameter = parameters[i];
 			for (int j = 0; j < thrownExceptions.length; j++) {
 				if (TypeBinding.equalsEquals(parameter, thrownExceptions[j])) {
-					this.currentBounds.inThrows.add(variables[i].prototype());
+					this.currentBounds.addThrows(variables[i].prototype());
 					break;
 				}
 			}
@@ -1019,6 +1020,17 @@ public class InferenceContext18 {
 	 * @throws InferenceFailureException a compile error has been detected during inference
 	 */
 	public /*@Nullable*/ BoundSet solve(boolean inferringApplicability) throws InferenceFailureException {
+		CompilerStats stats = this.environment.stats;
+		boolean measured = stats != null && stats.enterNestedPhase(CompilerStats.INFERENCE);
+		try {
+			return doSolve(inferringApplicability);
+		} finally {
+			if (measured)
+				stats.exitNestedPhase(CompilerStats.INFERENCE);
+		}
+	}
+
+	private /*@Nullable*/ BoundSet doSolve(boolean inferringApplicability) throws InferenceFailureException {
 
 		if (!reduce())
 			return null;
@@ -1050,12 +1062,19 @@ public class InferenceContext18 {
 	}
 
 	public /*@Nullable*/ BoundSet solve(InferenceVariable[] toResolve) throws InferenceFailureException {
-		if (!reduce())
-			return null;
-		if (!this.currentBounds.incorporate(this))
-			return null;
+		CompilerStats stats = this.environment.stats;
+		boolean measured = stats != null && stats.enterNestedPhase(CompilerStats.INFERENCE);
+		try {
+			if (!reduce())
+				return null;
+			if (!this.currentBounds.incorporate(this))
+				return null;
 
-		return resolve(toResolve);
+			return resolve(toResolve);
+		} finally {
+			if (measured)
+				stats.exitNestedPhase(CompilerStats.INFERENCE);
+		}
 	}
 
 	/**
@@ -1260,7 +1279,7 @@ public class InferenceContext18 {
 						}
 						captureKeys = toRemove.iterator();
 						while (captureKeys.hasNext())
-							tmpBoundSet.captures.remove(captureKeys.next());
+							tmpBoundSet.removeCapture(captureKeys.next());
 						tmpBoundSet.addBound(new TypeBound(variable, zsj, ReductionResult.SAME), this.environment);
 					}
 					if (tmpBoundSet.incorporate(this)) {
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.lookup;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.eclipse.jdt.internal.compiler.ast.ExpressionContext;
+
+/**
+ * Remembers the outcome of Java 8 inference for invocations of generic methods that have no poly expressions among
+ * their arguments, so that further invocations of the same method with the same argument types in the same context
+ * skip inference. Only outcomes that do not depend on the invocation site are recorded: the invocation type must have
+ * been inferred without unchecked conversion against a proper target type (or none), and neither the types involved
+ * nor the solutions may mention captures, since these are specific to a position in the source.
+ *
+ * <p>Keys and solutions compare type bindings by identity, which the {@link TypeSystem} guarantees for as long as it is
+ * not reset; the cache is owned by the type system and cleared along with it. Like the type system, it may be used
+ * by several threads. Beyond {@link #MAX_RESULTS} outcomes, the least recently used ones are dropped.</p>
+ */
+final class InferenceResultCache {
+
+	static final int MAX_RESULTS = 4096;
+
+	static final class Result {
+		final TypeBinding[] solutions;
+		final int inferenceKind;
+
+		Result(TypeBinding[] solutions, int inferenceKind) {
+			this.solutions = solutions;
+			this.inferenceKind = inferenceKind;
+		}
+	}
+
+	private static final class Key {
+		final MethodBinding method;
+		final TypeBinding[] arguments;
+		final TypeBinding expectedType;
+		final ExpressionContext context;
+		final boolean isPolyExpression;
+		final int hashCode;
+
+		Key(MethodBinding method, TypeBinding[] arguments, TypeBinding expectedType, ExpressionContext context, boolean isPolyExpression) {
+			this.method = method;
+			this.arguments = arguments;
+			this.expectedType = expectedType;
+			this.context = context;
+			this.isPolyExpression = isPolyExpression;
+			int hash = System.identityHashCode(method);
+			for (TypeBinding argument : arguments)
+				hash = hash * 31 + System.identityHashCode(argument);
+			hash = hash * 31 + System.identityHashCode(expectedType);
+			this.hashCode = hash * 31 + context.ordinal();
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof Key))
+				return false;
+			Key other = (Key) object;
+			if (this.method != other.method || this.expectedType != other.expectedType || this.context != other.context //$IDENTITY-COMPARISON$
+					|| this.isPolyExpression != other.isPolyExpression || this.arguments.length != other.arguments.length)
+				return false;
+			for (int i = 0; i < this.arguments.length; i++) {
+				if (this.arguments[i] != other.arguments[i]) //$IDENTITY-COMPARISON$
+					return false;
+			}
+			return true;
+		}
+	}
+
+	private LinkedHashMap<Key, Result> results = new LinkedHashMap<>(16, 0.75f, true /* access order */);
+
+	/** Answers the recorded outcome of inference for the given invocation shape, or null. */
+	synchronized Result get(MethodBinding method, TypeBinding[] arguments, TypeBinding expectedType, ExpressionContext context, boolean isPolyExpression) {
+		return this.results.get(new Key(method, arguments, expectedType, context, isPolyExpression));
+	}
+
+	/**
+	 * Records the outcome of inference for the given invocation shape, if it does not depend on the invocation site. The
+	 * arguments must not be modified afterwards.
+	 */
+	synchronized void put(MethodBinding method, TypeBinding[] arguments, TypeBinding expectedType, ExpressionContext context, boolean isPolyExpression, Result result) {
+		if (mentionsCapture(arguments) || mentionsCapture(result.solutions) || (expectedType != null && mentionsCapture(new TypeBinding[] { expectedType })))
+			return;
+		this.results.put(new Key(method, arguments, expectedType, context, isPolyExpression), result);
+		for (Iterator<Result> iterator = this.results.values().iterator(); this.results.size() > MAX_RESULTS;) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	synchronized void clear() {
+		if (!this.results.isEmpty())
+			this.results = new LinkedHashMap<>(16, 0.75f, true /* access order */);
+	}
+
+	private static boolean mentionsCapture(TypeBinding[] types) {
+		boolean[] found = new boolean[1];
+		TypeBindingVisitor.visit(new TypeBindingVisitor() {
+			@Override
+			public boolean visit(TypeVariableBinding typeVariable) {
+				if (typeVariable.isCapture())
+					found[0] = true;
+				return !found[0];
+			}
+			@Override
+			public boolean visit(WildcardBinding wildcard) {
+				return !found[0];
+			}
+			@Override
+			public boolean visit(ParameterizedTypeBinding parameterizedType) {
+				return !found[0];
+			}
+		}, types);
+		return found[0];
+	}
+}
@@ -57,6 +57,7 @@ import org.eclipse.jdt.internal.compiler.ast.Wildcard;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.env.*;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
 import org.eclipse.jdt.internal.compiler.impl.ITypeRequestor;
 import org.eclipse.jdt.internal.compiler.problem.AbortCompilation;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
@@ -102,6 +103,7 @@ public class LookupEnvironment implements ProblemReasons, TypeConstants {
 	// step 3 : build fields and method bindings.
 	private int stepCompleted; 					// ROOT_ONLY
 	public ITypeRequestor typeRequestor;		// SHARED
+	public CompilerStats stats;					// SHARED, null unless compiling
 
 	private SimpleLookupTable uniqueParameterizedGenericMethodBindings;
 
@@ -186,6 +188,7 @@ LookupEnvironment(LookupEnvironment rootEnv, ModuleBinding module) {
 	this.module = module;
 	this.typeRequestor = rootEnv.typeRequestor;
 	this.globalOptions = rootEnv.globalOptions;
+	this.stats = rootEnv.stats;
 	this.problemReporter = rootEnv.problemReporter;
 	this.defaultPackage = new PlainPackageBinding(this); // assume the default package always exists
 	this.defaultImports = null;
@@ -33,6 +33,7 @@ import java.util.Set;
 import org.eclipse.jdt.internal.compiler.ast.*;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
@@ -1008,11 +1009,18 @@ ReferenceBinding[] resolvedExceptionTypesFor(MethodBinding method) {
 }
 
 void verify() {
-	computeMethods();
-	computeInheritedMethods();
-	checkMethods();
-	if (this.type.isClass())
-		checkForMissingHashCodeMethod();
+	CompilerStats stats = this.environment.stats;
+	boolean measured = stats != null && stats.enterNestedPhase(CompilerStats.METHOD_VERIFICATION);
+	try {
+		computeMethods();
+		computeInheritedMethods();
+		checkMethods();
+		if (this.type.isClass())
+			checkForMissingHashCodeMethod();
+	} finally {
+		if (measured)
+			stats.exitNestedPhase(CompilerStats.METHOD_VERIFICATION);
+	}
 }
 
 void verify(SourceTypeBinding someType) {
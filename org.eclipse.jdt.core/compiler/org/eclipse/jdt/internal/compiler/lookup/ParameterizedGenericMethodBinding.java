@@ -199,6 +199,15 @@ public class ParameterizedGenericMethodBinding extends ParameterizedMethodBindin
 		return methodSubstitute;
 	}
 
+	private static boolean hasPolyArguments(Invocation invocation) {
+		Expression[] arguments = invocation.arguments();
+		for (int i = 0, length = arguments == null ? 0 : arguments.length; i < length; i++) {
+			if (arguments[i].getPolyExpressions().length > 0)
+				return true;
+		}
+		return false;
+	}
+
 	public static MethodBinding computeCompatibleMethod18(MethodBinding originalMethod, TypeBinding[] arguments, final Scope scope, InvocationSite invocationSite) {
 
 		TypeVariableBinding[] typeVariables = originalMethod.typeVariables;
@@ -243,6 +252,37 @@ public class ParameterizedGenericMethodBinding extends ParameterizedMethodBindin
 			final boolean isPolyExpression = invocationSite instanceof Expression &&   ((Expression) invocationSite).isTrulyExpression() &&
 					((Expression)invocationSite).isPolyExpression(originalMethod);
 			boolean isDiamond = isPolyExpression && originalMethod.isConstructor();
+			// an invocation not nested in another inference, with only proper, standalone arguments, can reuse an earlier outcome:
+			InferenceResultCache inferenceResults = null;
+			TypeBinding[] keyArguments = null;
+			if (previousContext == null && allArgumentsAreProper && !compilerOptions.isAnnotationBasedNullAnalysisEnabled
+					&& invocationSite instanceof Invocation && !hasPolyArguments((Invocation) invocationSite)) {
+				TypeBinding expectedType = invocationSite.invocationTargetType();
+				if (expectedType == null || expectedType.isProperType(true)) {
+					inferenceResults = environment.typeSystem.inferenceResults;
+					keyArguments = arguments.clone(); // inference may update arguments
+					InferenceResultCache.Result cached = inferenceResults.get(originalMethod, keyArguments, expectedType, invocationSite.getExpressionContext(), isPolyExpression);
+					if (environment.stats != null) {
+						if (cached != null)
+							environment.stats.inferenceCacheHits++;
+						else
+							environment.stats.inferenceCacheMisses++;
+					}
+					if (cached != null) {
+						infCtx18.inferenceKind = cached.inferenceKind;
+						infCtx18.stepCompleted = InferenceContext18.TYPE_INFERRED_FINAL;
+						methodSubstitute = environment.createParameterizedGenericMethod(originalMethod, cached.solutions, false, false, expectedType);
+						// the bound check passed when the outcome was recorded, but it also tags unchecked bounds on the substitute
+						MethodBinding problemMethod = methodSubstitute.boundCheck18(scope, arguments, invocationSite);
+						if (problemMethod != null)
+							return problemMethod;
+						if (expectedType != null)
+							((Invocation) invocationSite).registerResult(expectedType, methodSubstitute);
+						((Invocation) invocationSite).registerInferenceContext(methodSubstitute, infCtx18);
+						return methodSubstitute;
+					}
+				}
+			}
 			if (arguments.length == parameters.length) {
 				infCtx18.inferenceKind = requireBoxing ? InferenceContext18.CHECK_LOOSE : InferenceContext18.CHECK_STRICT; // engine may still slip into loose mode and adjust level.
 				infCtx18.inferInvocationApplicability(originalMethod, arguments, isDiamond);
@@ -295,6 +335,9 @@ public class ParameterizedGenericMethodBinding extends ParameterizedMethodBindin
 							if (problemMethod != null) {
 								return problemMethod;
 							}
+							if (inferenceResults != null && !hasReturnProblem && !infCtx18.usesUncheckedConversion)
+								inferenceResults.put(originalMethod, keyArguments, expectedType, invocationSite.getExpressionContext(), isPolyExpression,
+										new InferenceResultCache.Result(solutions, infCtx18.inferenceKind));
 						} else {
 							methodSubstitute = new PolyParameterizedGenericMethodBinding(methodSubstitute);
 						}
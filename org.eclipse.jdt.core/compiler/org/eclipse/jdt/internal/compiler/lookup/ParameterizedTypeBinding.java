@@ -686,7 +686,7 @@ public class ParameterizedTypeBinding extends ReferenceBinding implements Substi
 
 		if ((this.tagBits & TagBits.AreMethodsComplete) != 0) { // have resolved all arg types & return type of the methods
 			long range;
-			if ((range = ReferenceBinding.binarySearch(TypeConstants.INIT, this.methods)) >= 0) {
+			if ((range = searchMethods(TypeConstants.INIT, this.methods)) >= 0) {
 				nextMethod: for (int imethod = (int)range, end = (int)(range >> 32); imethod <= end; imethod++) {
 					MethodBinding method = this.methods[imethod];
 					if (method.parameters.length == argCount) {
@@ -728,7 +728,7 @@ public class ParameterizedTypeBinding extends ReferenceBinding implements Substi
 
 		if ((this.tagBits & TagBits.AreMethodsComplete) != 0) { // have resolved all arg types & return type of the methods
 			long range;
-			if ((range = ReferenceBinding.binarySearch(selector, this.methods)) >= 0) {
+			if ((range = searchMethods(selector, this.methods)) >= 0) {
 				nextMethod: for (int imethod = (int)range, end = (int)(range >> 32); imethod <= end; imethod++) {
 					MethodBinding method = this.methods[imethod];
 					foundNothing = false; // inner type lookups must know that a method with this name exists
@@ -788,12 +788,12 @@ public class ParameterizedTypeBinding extends ReferenceBinding implements Substi
 	public FieldBinding getField(char[] fieldName, boolean needResolve) {
 		if (((this.tagBits & TagBits.AreFieldsComplete) == 0) && ((this.type.tagBits & TagBits.AreFieldsSorted) != 0)) {
 			// assume that completing fields is in progress
-			FieldBinding originalField = ReferenceBinding.binarySearch(fieldName, this.type.unResolvedFields());
+			FieldBinding originalField = this.type.searchFields(fieldName, this.type.unResolvedFields());
 			if (originalField == null)
 				return null; // avoid useless, possibly premature resolving
 		}
 		fields(); // ensure fields have been initialized... must create all at once unlike methods
-		return ReferenceBinding.binarySearch(fieldName, this.fields);
+		return searchFields(fieldName, this.fields);
 	}
 
 	/**
@@ -803,7 +803,7 @@ public class ParameterizedTypeBinding extends ReferenceBinding implements Substi
 	public MethodBinding[] getMethods(char[] selector) {
 		if (this.methods != null) {
 			long range;
-			if ((range = ReferenceBinding.binarySearch(selector, this.methods)) >= 0) {
+			if ((range = searchMethods(selector, this.methods)) >= 0) {
 				int start = (int) range;
 				int length = (int) (range >> 32) - start + 1;
 				// cannot optimize since some clients rely on clone array
@@ -88,6 +88,7 @@ abstract public class ReferenceBinding extends TypeBinding {
 	char[] signature;
 
 	private SimpleLookupTable compatibleCache;
+	private SelectorIndex methodIndex, fieldIndex; // built lazily for the sorted members last looked up, see #searchMethods()
 
 	int typeBits; // additional bits characterizing this type
 	protected MethodBinding [] singleAbstractMethod;
@@ -197,6 +198,35 @@ public static long binarySearch(char[] selector, MethodBinding[] sortedMethods)
 	return -1;
 }
 
+/**
+ * Answers the same range as {@link #binarySearch(char[], MethodBinding[])} for sortedMethods, which are the methods of
+ * this type, through a selector index built on first lookup and kept for as long as the array is not replaced.
+ */
+long searchMethods(char[] selector, MethodBinding[] sortedMethods) {
+	if (sortedMethods == null || sortedMethods.length < SelectorIndex.MIN_MEMBERS)
+		return binarySearch(selector, sortedMethods);
+	SelectorIndex index = this.methodIndex;
+	if (index == null || index.members != sortedMethods) //$IDENTITY-COMPARISON$
+		this.methodIndex = index = SelectorIndex.forMethods(sortedMethods);
+	return index.isSorted() ? index.range(selector) : binarySearch(selector, sortedMethods);
+}
+
+/**
+ * Answers the same field as {@link #binarySearch(char[], FieldBinding[])} for sortedFields, which are the fields of
+ * this type, through a selector index built on first lookup and kept for as long as the array is not replaced.
+ */
+FieldBinding searchFields(char[] name, FieldBinding[] sortedFields) {
+	if (sortedFields == null || sortedFields.length < SelectorIndex.MIN_MEMBERS)
+		return binarySearch(name, sortedFields);
+	SelectorIndex index = this.fieldIndex;
+	if (index == null || index.members != sortedFields) //$IDENTITY-COMPARISON$
+		this.fieldIndex = index = SelectorIndex.forFields(sortedFields);
+	if (!index.isSorted())
+		return binarySearch(name, sortedFields);
+	long range = index.range(name);
+	return range >= 0 ? sortedFields[(int) range] : null;
+}
+
 /**
  * Compares two strings lexicographically.
  * The comparison is based on the Unicode value of each character in
@@ -1345,7 +1375,7 @@ boolean implementsMethod(MethodBinding method) {
 	while (type != null) {
 		MethodBinding[] methods = type.methods();
 		long range;
-		if ((range = ReferenceBinding.binarySearch(selector, methods)) >= 0) {
+		if ((range = type.searchMethods(selector, methods)) >= 0) {
 			int start = (int) range, end = (int) (range >> 32);
 			for (int i = start; i <= end; i++) {
 				if (methods[i].areParametersEqual(method))
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.lookup;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+
+/**
+ * Open addressing hashtable of {selector --> range of members} over a sorted array of methods or fields, answering the
+ * same ranges as {@link ReferenceBinding#binarySearch(char[], MethodBinding[])} without comparing selectors along a
+ * search path. The hash of each selector is kept next to it so that probes only compare characters on a hash match.
+ *
+ * <p>An index describes the array it was built from, which it remembers: since sorted member arrays are replaced
+ * rather than modified once they are looked up, an index is valid for as long as its owner still holds that array.</p>
+ */
+final class SelectorIndex {
+
+	/** Below this many members, a binary search costs no more than hashing the selector. */
+	static final int MIN_MEMBERS = 8;
+
+	final Object[] members;
+
+	private final char[][] keyTable;
+	private final int[] hashTable;
+	private final int[] startTable;
+	private final int[] endTable;
+	private final int mask;
+
+	private SelectorIndex(Object[] members, int groups) {
+		this.members = members;
+		int size = groups == 0 ? 0 : Integer.highestOneBit(groups) << 2; // load factor at most 1/2
+		this.keyTable = new char[size][];
+		this.hashTable = new int[size];
+		this.startTable = new int[size];
+		this.endTable = new int[size];
+		this.mask = size - 1;
+	}
+
+	/** Answers an index of the given methods, which should be sorted by selector. */
+	static SelectorIndex forMethods(MethodBinding[] sortedMethods) {
+		int length = sortedMethods.length;
+		char[][] selectors = new char[length][];
+		for (int i = 0; i < length; i++)
+			selectors[i] = sortedMethods[i].selector;
+		return build(sortedMethods, selectors);
+	}
+
+	/** Answers an index of the given fields, which should be sorted by name. */
+	static SelectorIndex forFields(FieldBinding[] sortedFields) {
+		int length = sortedFields.length;
+		char[][] names = new char[length][];
+		for (int i = 0; i < length; i++)
+			names[i] = sortedFields[i].name;
+		return build(sortedFields, names);
+	}
+
+	private static SelectorIndex build(Object[] members, char[][] selectors) {
+		int length = selectors.length;
+		int groups = 1;
+		for (int i = 1; i < length; i++) {
+			char[] previous = selectors[i - 1], current = selectors[i];
+			int compare = ReferenceBinding.compare(previous, current, previous.length, current.length);
+			if (compare > 0)
+				return new SelectorIndex(members, 0); // not sorted, members with the same selector may not be contiguous
+			if (compare < 0)
+				groups++;
+		}
+		SelectorIndex index = new SelectorIndex(members, groups);
+		for (int start = 0, end; start < length; start = end + 1) {
+			char[] selector = selectors[start];
+			for (end = start; end + 1 < length && CharOperation.equals(selectors[end + 1], selector); end++) {
+				// extend the range of members sharing this selector
+			}
+			int hash = CharOperation.hashCode(selector);
+			int slot = hash & index.mask;
+			while (index.keyTable[slot] != null)
+				slot = (slot + 1) & index.mask;
+			index.keyTable[slot] = selector;
+			index.hashTable[slot] = hash;
+			index.startTable[slot] = start;
+			index.endTable[slot] = end;
+		}
+		return index;
+	}
+
+	/**
+	 * Answers whether the indexed members were found to be sorted. Ranges are only available if they were, otherwise
+	 * lookups have to search the members themselves.
+	 */
+	boolean isSorted() {
+		return this.keyTable.length > 0;
+	}
+
+	/**
+	 * Answers the range of members named selector, encoded like
+	 * {@link ReferenceBinding#binarySearch(char[], MethodBinding[])} as (start + (end<<32)), or -1 if there are none.
+	 */
+	long range(char[] selector) {
+		int hash = CharOperation.hashCode(selector);
+		int slot = hash & this.mask;
+		char[] key;
+		while ((key = this.keyTable[slot]) != null) {
+			if (this.hashTable[slot] == hash && CharOperation.equals(key, selector))
+				return this.startTable[slot] + ((long) this.endTable[slot] << 32);
+			slot = (slot + 1) & this.mask;
+		}
+		return -1;
+	}
+}
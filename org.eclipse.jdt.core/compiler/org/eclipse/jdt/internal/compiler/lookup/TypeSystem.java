@@ -19,7 +19,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.lookup;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
 
 import org.eclipse.jdt.internal.compiler.ast.ASTNode;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
@@ -68,7 +70,7 @@ public class TypeSystem {
 
 	public final class HashedParameterizedTypes {
 
-		private final class PTBKey extends ReferenceBinding { // extends ReferenceBinding so it can be used as wrapper
+		final class PTBKey extends ReferenceBinding { // extends ReferenceBinding so it can be used as wrapper
 			protected ReferenceBinding type; // must ensure the type is resolved
 			public TypeBinding[] arguments;
 			private ReferenceBinding enclosingType;
@@ -130,7 +132,8 @@ public class TypeSystem {
 			}
 		}
 
-		HashMap<PTBKey, ParameterizedTypeBinding []> hashedParameterizedTypes = new HashMap<>(256);
+		// values are replaced rather than modified, under the stripe of their unannotated generic type
+		ConcurrentHashMap<PTBKey, ParameterizedTypeBinding []> hashedParameterizedTypes = new ConcurrentHashMap<>(256);
 
 		ParameterizedTypeBinding get(ReferenceBinding genericType, TypeBinding[] typeArguments, ReferenceBinding enclosingType, AnnotationBinding[] annotations) {
 
@@ -166,7 +169,11 @@ public class TypeSystem {
 			return null;
 		}
 
-		void put (ReferenceBinding genericType, TypeBinding[] typeArguments, ReferenceBinding enclosingType, ParameterizedTypeBinding parameterizedType)  {
+		/* Answer the key under which put() registers a parameterized type. Like the constructor of the parameterized type, the key
+		   registers itself as a wrapper of unresolved types, which swaps in those resolved meanwhile and converts them to raw types
+		   under their own stripes, so create it outside of any stripe.
+		*/
+		PTBKey newKey(ReferenceBinding genericType, TypeBinding[] typeArguments, ReferenceBinding enclosingType) {
 			ReferenceBinding unannotatedGenericType = (ReferenceBinding) getUnannotatedType(genericType);
 			int typeArgumentsLength = typeArguments == null ? 0: typeArguments.length;
 			TypeBinding [] unannotatedTypeArguments = typeArguments == null ? null : new TypeBinding[typeArgumentsLength];
@@ -175,8 +182,10 @@ public class TypeSystem {
 			}
 			ReferenceBinding unannotatedEnclosingType = enclosingType == null ? null : (ReferenceBinding) getUnannotatedType(enclosingType);
 
-			PTBKey key = new PTBKey(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, TypeSystem.this.environment);
+			return new PTBKey(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, TypeSystem.this.environment);
+		}
 
+		void put (PTBKey key, ParameterizedTypeBinding parameterizedType)  {
 			ParameterizedTypeBinding [] parameterizedTypeBindings = this.hashedParameterizedTypes.get(key);
 			int slot;
 			if (parameterizedTypeBindings == null) {
@@ -191,20 +200,103 @@ public class TypeSystem {
 		}
 	}
 
-	private int typeid = TypeIds.T_LastWellKnownTypeId;
-	private TypeBinding [][] types;
-	protected HashedParameterizedTypes parameterizedTypes;  // auxiliary fast lookup table for parameterized types.
-	private SimpleLookupTable annotationTypes; // cannot store in types, since AnnotationBinding is not a TypeBinding and we don't want types to operate at Binding level.
+	/* Concurrency: the tables below may be used by several threads resolving against the same environment.
+	   The derived types of a type (its row in types) are guarded by one of a fixed set of lock stripes chosen by the id of the type,
+	   parameterized types by the stripe of their unannotated generic type. Id allocation and the table of rows itself are guarded by
+	   tableLock, which must never be held while acquiring a stripe. While holding a stripe, no other stripe is acquired either, so
+	   bindings whose construction calls back into the type system (captures, intersections, annotated types) are created outside of
+	   any lock and only registered if no other thread registered an equal type in the meantime. This includes parameterized types
+	   and their PTBKeys: both register as wrappers of unresolved types, and UnresolvedReferenceBinding.addWrapper() swaps in a type
+	   resolved meanwhile through LookupEnvironment.convertUnresolvedBinaryToRawType(), which calls getRawType() on another stripe.
+	   Captures are interned in a map of their own, keyed by their position, rather than in the row of their wildcard.
+	*/
+
+	/* Position of a capture: captures are interned per position of the capturing expression in a compilation unit. */
+	private static final class CaptureKey {
+		private final TypeBinding wildcard;
+		private final ReferenceBinding contextType;
+		private final int start;
+		private final int end;
+		private final ASTNode cud;
+
+		CaptureKey(TypeBinding wildcard, ReferenceBinding contextType, int start, int end, ASTNode cud) {
+			this.wildcard = wildcard;
+			this.contextType = contextType;
+			this.start = start;
+			this.end = end;
+			this.cud = cud;
+		}
+		@Override
+		public boolean equals(Object other) {
+			CaptureKey that = (CaptureKey) other; // homogeneous container.
+			return this.wildcard == that.wildcard && this.contextType == that.contextType && this.start == that.start && this.end == that.end //$IDENTITY-COMPARISON$
+					&& this.cud == that.cud;
+		}
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int hashCode = System.identityHashCode(this.wildcard);
+			hashCode = hashCode * prime + System.identityHashCode(this.contextType);
+			hashCode = hashCode * prime + this.start;
+			hashCode = hashCode * prime + this.end;
+			return hashCode * prime + System.identityHashCode(this.cud);
+		}
+	}
+
+	private static final int STRIPE_COUNT = 64; // must be a power of 2
+	private final Object[] stripes;
+	private final Object tableLock = new Object();
+	private int typeid = TypeIds.T_LastWellKnownTypeId; // guarded by tableLock
+	private volatile AtomicReferenceArray<TypeBinding[]> types; // rows are replaced under tableLock, modified under the stripe of their id
+	protected volatile HashedParameterizedTypes parameterizedTypes;  // auxiliary fast lookup table for parameterized types.
+	private SimpleLookupTable annotationTypes; // cannot store in types, since AnnotationBinding is not a TypeBinding and we don't want types to operate at Binding level. Guarded by tableLock.
+	private final ConcurrentHashMap<CaptureKey, CaptureBinding> captures = new ConcurrentHashMap<>();
+	final InferenceResultCache inferenceResults = new InferenceResultCache(); // relies on the identity of the types above
 	LookupEnvironment environment;
 
 	public TypeSystem(LookupEnvironment environment) {
 		this.environment = environment;
+		this.stripes = new Object[STRIPE_COUNT];
+		for (int i = 0; i < STRIPE_COUNT; i++)
+			this.stripes[i] = new Object();
 		this.annotationTypes = new SimpleLookupTable(16);
 		this.typeid = TypeIds.T_LastWellKnownTypeId;
-		this.types = new TypeBinding[TypeIds.T_LastWellKnownTypeId * 2][];
+		this.types = new AtomicReferenceArray<>(TypeIds.T_LastWellKnownTypeId * 2);
 		this.parameterizedTypes = new HashedParameterizedTypes();
 	}
 
+	/** Answer the lock guarding the derived types of the type with the given id. */
+	protected final Object stripe(int id) {
+		return this.stripes[id & (STRIPE_COUNT - 1)];
+	}
+
+	private TypeBinding[] row(int id) {
+		AtomicReferenceArray<TypeBinding[]> table = this.types;
+		return id >= 0 && id < table.length() ? table.get(id) : null;
+	}
+
+	private void setRow(int id, TypeBinding[] row) {
+		synchronized (this.tableLock) {
+			this.types.set(id, row);
+		}
+	}
+
+	// Allocate a fresh id for a type whose derived types are initially given by row.
+	private int newId(TypeBinding[] row) {
+		synchronized (this.tableLock) {
+			AtomicReferenceArray<TypeBinding[]> table = this.types;
+			int typesLength = table.length();
+			if (this.typeid == typesLength) {
+				AtomicReferenceArray<TypeBinding[]> newTable = new AtomicReferenceArray<>(typesLength * 2);
+				for (int i = 0; i < typesLength; i++)
+					newTable.set(i, table.get(i));
+				this.types = table = newTable;
+			}
+			table.set(this.typeid, row);
+			return this.typeid++;
+		}
+	}
+
 	// Given a type, answer its unannotated aka naked prototype. This is also a convenient way to "register" a type with TypeSystem and have it id stamped.
 	public final TypeBinding getUnannotatedType(TypeBinding type) {
 		UnresolvedReferenceBinding urb = null;
@@ -216,27 +308,32 @@ public class TypeSystem {
 			}
 		}
 		try {
-			if (type.id == TypeIds.NoId) {
-				if (type.hasTypeAnnotations())
-					throw new IllegalStateException();
-				int typesLength = this.types.length;
-				if (this.typeid == typesLength)
-					System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-				this.types[type.id = this.typeid++] = new TypeBinding[4];
-			} else {
-				TypeBinding nakedType = this.types[type.id] == null ? null : this.types[type.id][0];
-				if (type.hasTypeAnnotations() && nakedType == null)
-					throw new IllegalStateException();
+			if (type.id != TypeIds.NoId) {
+				TypeBinding[] derivedTypes = row(type.id);
+				TypeBinding nakedType = derivedTypes == null ? null : derivedTypes[0];
 				if (nakedType != null)
 					return nakedType;
-				this.types[type.id] = new TypeBinding[4];  // well known type, assigned id elsewhere.
+			}
+			synchronized (this.tableLock) {
+				if (type.id == TypeIds.NoId) {
+					if (type.hasTypeAnnotations())
+						throw new IllegalStateException();
+					type.id = newId(new TypeBinding[] { type, null, null, null });
+				} else {
+					TypeBinding[] derivedTypes = row(type.id);
+					TypeBinding nakedType = derivedTypes == null ? null : derivedTypes[0];
+					if (type.hasTypeAnnotations() && nakedType == null)
+						throw new IllegalStateException();
+					if (nakedType != null)
+						return nakedType;
+					setRow(type.id, new TypeBinding[] { type, null, null, null });  // well known type, assigned id elsewhere.
+				}
 			}
 		} finally {
 			if (urb != null && urb.id == TypeIds.NoId)
 				urb.id = type.id;
 		}
-
-		return this.types[type.id][0] = type;
+		return type;
 	}
 
 	/**
@@ -246,11 +343,17 @@ public class TypeSystem {
 	 */
 	public void forceRegisterAsDerived(TypeBinding derived) {
 		int id = derived.id;
-		if (id != TypeIds.NoId && this.types[id] != null) {
-			TypeBinding unannotated = this.types[id][0];
-			if (unannotated == derived) { //$IDENTITY-COMPARISON$
-				// was previously registered as unannotated, replace by a fresh clone to remain unannotated:
-				this.types[id][0] = unannotated = derived.clone(null);
+		if (id != TypeIds.NoId && row(id) != null) {
+			TypeBinding unannotated;
+			synchronized (stripe(id)) {
+				TypeBinding[] derivedTypes = row(id);
+				unannotated = derivedTypes[0];
+				if (unannotated == derived) { //$IDENTITY-COMPARISON$
+					// was previously registered as unannotated, replace by a fresh clone to remain unannotated:
+					derivedTypes = derivedTypes.clone(); // readers of the unannotated type don't lock, give them a consistent row
+					derivedTypes[0] = unannotated = derived.clone(null);
+					setRow(id, derivedTypes);
+				}
 			}
 			// proceed as normal:
 			cacheDerivedType(unannotated, derived);
@@ -275,27 +378,27 @@ public class TypeSystem {
 			leafType = leafType.leafComponentType();
 		}
 		TypeBinding unannotatedLeafType = getUnannotatedType(leafType);
-		TypeBinding[] derivedTypes = this.types[unannotatedLeafType.id];
-		int i, length = derivedTypes.length;
-		for (i = 0; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null)
-				break;
-			if (!derivedType.isArrayType() || derivedType.hasTypeAnnotations())
-				continue;
-			if (derivedType.leafComponentType() == unannotatedLeafType && derivedType.dimensions() == dimensions) //$IDENTITY-COMPARISON$
-				return (ArrayBinding) derivedType;
-		}
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[unannotatedLeafType.id] = derivedTypes;
-		}
-		TypeBinding arrayType = derivedTypes[i] = new ArrayBinding(unannotatedLeafType, dimensions, this.environment);
-		int typesLength = this.types.length;
-		if (this.typeid == typesLength)
-			System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-		this.types[this.typeid] = new TypeBinding[1];
-		return (ArrayBinding) (this.types[arrayType.id = this.typeid++][0] = arrayType);
+		synchronized (stripe(unannotatedLeafType.id)) {
+			TypeBinding[] derivedTypes = row(unannotatedLeafType.id);
+			int i, length = derivedTypes.length;
+			for (i = 0; i < length; i++) {
+				TypeBinding derivedType = derivedTypes[i];
+				if (derivedType == null)
+					break;
+				if (!derivedType.isArrayType() || derivedType.hasTypeAnnotations())
+					continue;
+				if (derivedType.leafComponentType() == unannotatedLeafType && derivedType.dimensions() == dimensions) //$IDENTITY-COMPARISON$
+					return (ArrayBinding) derivedType;
+			}
+			if (i == length) {
+				System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
+				setRow(unannotatedLeafType.id, derivedTypes);
+			}
+			ArrayBinding arrayType = new ArrayBinding(unannotatedLeafType, dimensions, this.environment);
+			derivedTypes[i] = arrayType;
+			arrayType.id = newId(new TypeBinding[] { arrayType });
+			return arrayType;
+		}
 	}
 
 	public ArrayBinding getArrayType(TypeBinding leafComponentType, int dimensions, AnnotationBinding[] annotations) {
@@ -323,18 +426,24 @@ public class TypeSystem {
 		}
 		ReferenceBinding unannotatedEnclosingType = enclosingType == null ? null : (ReferenceBinding) getUnannotatedType(enclosingType);
 
-		ParameterizedTypeBinding parameterizedType = this.parameterizedTypes.get(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, Binding.NO_ANNOTATIONS);
-		if (parameterizedType != null)
+		Object stripe = stripe(unannotatedGenericType.id);
+		synchronized (stripe) {
+			ParameterizedTypeBinding parameterizedType = this.parameterizedTypes.get(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, Binding.NO_ANNOTATIONS);
+			if (parameterizedType != null)
+				return parameterizedType;
+		}
+		// the constructors may convert unresolved types to raw types under other stripes, so create outside of the stripe:
+		ParameterizedTypeBinding parameterizedType = new ParameterizedTypeBinding(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, this.environment);
+		HashedParameterizedTypes.PTBKey key = this.parameterizedTypes.newKey(genericType, typeArguments, enclosingType);
+		synchronized (stripe) {
+			ParameterizedTypeBinding prior = this.parameterizedTypes.get(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, Binding.NO_ANNOTATIONS);
+			if (prior != null)
+				return prior;
+			cacheDerivedType(unannotatedGenericType, parameterizedType);
+			this.parameterizedTypes.put(key, parameterizedType);
+			parameterizedType.id = newId(new TypeBinding[] { parameterizedType });
 			return parameterizedType;
-
-		parameterizedType = new ParameterizedTypeBinding(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, this.environment);
-		cacheDerivedType(unannotatedGenericType, parameterizedType);
-		this.parameterizedTypes.put(genericType, typeArguments, enclosingType, parameterizedType);
-		int typesLength = this.types.length;
-		if (this.typeid == typesLength)
-			System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-		this.types[this.typeid] = new TypeBinding[1];
-		return (ParameterizedTypeBinding) (this.types[parameterizedType.id = this.typeid++][0] = parameterizedType);
+		}
 	}
 
 	public ParameterizedTypeBinding getParameterizedType(ReferenceBinding genericType, TypeBinding[] typeArguments, ReferenceBinding enclosingType, AnnotationBinding[] annotations) {
@@ -351,29 +460,29 @@ public class TypeSystem {
 		ReferenceBinding unannotatedGenericType = (ReferenceBinding) getUnannotatedType(genericType);
 		ReferenceBinding unannotatedEnclosingType = enclosingType == null ? null : (ReferenceBinding) getUnannotatedType(enclosingType);
 
-		TypeBinding[] derivedTypes = this.types[unannotatedGenericType.id];
-		int i, length = derivedTypes.length;
-		for (i = 0; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null)
-				break;
-			if (!derivedType.isRawType() || derivedType.actualType() != unannotatedGenericType || derivedType.hasTypeAnnotations()) //$IDENTITY-COMPARISON$
-				continue;
-			if (derivedType.enclosingType() == unannotatedEnclosingType) //$IDENTITY-COMPARISON$
-				return (RawTypeBinding) derivedType;
-		}
+		synchronized (stripe(unannotatedGenericType.id)) {
+			TypeBinding[] derivedTypes = row(unannotatedGenericType.id);
+			int i, length = derivedTypes.length;
+			for (i = 0; i < length; i++) {
+				TypeBinding derivedType = derivedTypes[i];
+				if (derivedType == null)
+					break;
+				if (!derivedType.isRawType() || derivedType.actualType() != unannotatedGenericType || derivedType.hasTypeAnnotations()) //$IDENTITY-COMPARISON$
+					continue;
+				if (derivedType.enclosingType() == unannotatedEnclosingType) //$IDENTITY-COMPARISON$
+					return (RawTypeBinding) derivedType;
+			}
 
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[unannotatedGenericType.id] = derivedTypes;
-		}
+			if (i == length) {
+				System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
+				setRow(unannotatedGenericType.id, derivedTypes);
+			}
 
-		TypeBinding rawTytpe = derivedTypes[i] = new RawTypeBinding(unannotatedGenericType, unannotatedEnclosingType, this.environment);
-		int typesLength = this.types.length;
-		if (this.typeid == typesLength)
-			System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-		this.types[this.typeid] = new TypeBinding[1];
-		return (RawTypeBinding) (this.types[rawTytpe.id = this.typeid++][0] = rawTytpe);
+			RawTypeBinding rawTytpe = new RawTypeBinding(unannotatedGenericType, unannotatedEnclosingType, this.environment);
+			derivedTypes[i] = rawTytpe;
+			rawTytpe.id = newId(new TypeBinding[] { rawTytpe });
+			return rawTytpe;
+		}
 	}
 
 	public RawTypeBinding getRawType(ReferenceBinding genericType, ReferenceBinding enclosingType, AnnotationBinding[] annotations) {
@@ -396,74 +505,48 @@ public class TypeSystem {
 		TypeBinding unannotatedBound = bound == null ? null : getUnannotatedType(bound);
 
 		boolean useDerivedTypesOfBound = unannotatedBound instanceof TypeVariableBinding || (unannotatedBound instanceof ParameterizedTypeBinding && !(unannotatedBound instanceof RawTypeBinding));
-		TypeBinding[] derivedTypes = this.types[useDerivedTypesOfBound ? unannotatedBound.id :unannotatedGenericType.id];  // by construction, cachedInfo != null now.
-
-		int i, length = derivedTypes.length;
-		for (i = 0; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null)
-				break;
-			if (!derivedType.isWildcard() || derivedType.actualType() != unannotatedGenericType || derivedType.hasTypeAnnotations()) //$IDENTITY-COMPARISON$
-				continue;
-			if (derivedType.rank() != rank || derivedType.boundKind() != boundKind || derivedType.bound() != unannotatedBound) //$IDENTITY-COMPARISON$
-				continue;
-			if (Util.effectivelyEqual(derivedType.additionalBounds(), unannotatedOtherBounds))
-				return (WildcardBinding) derivedType;
-		}
+		int keyId = useDerivedTypesOfBound ? unannotatedBound.id : unannotatedGenericType.id;
+		synchronized (stripe(keyId)) {
+			TypeBinding[] derivedTypes = row(keyId);  // by construction, cachedInfo != null now.
+
+			int i, length = derivedTypes.length;
+			for (i = 0; i < length; i++) {
+				TypeBinding derivedType = derivedTypes[i];
+				if (derivedType == null)
+					break;
+				if (!derivedType.isWildcard() || derivedType.actualType() != unannotatedGenericType || derivedType.hasTypeAnnotations()) //$IDENTITY-COMPARISON$
+					continue;
+				if (derivedType.rank() != rank || derivedType.boundKind() != boundKind || derivedType.bound() != unannotatedBound) //$IDENTITY-COMPARISON$
+					continue;
+				if (Util.effectivelyEqual(derivedType.additionalBounds(), unannotatedOtherBounds))
+					return (WildcardBinding) derivedType;
+			}
 
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[useDerivedTypesOfBound ? unannotatedBound.id :unannotatedGenericType.id] = derivedTypes;
+			if (i == length) {
+				System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
+				setRow(keyId, derivedTypes);
+			}
+			WildcardBinding wildcard = new WildcardBinding(unannotatedGenericType, rank, unannotatedBound, unannotatedOtherBounds, boundKind, this.environment);
+			derivedTypes[i] = wildcard;
+			wildcard.id = newId(new TypeBinding[] { wildcard });
+			return wildcard;
 		}
-		TypeBinding wildcard = derivedTypes[i] = new WildcardBinding(unannotatedGenericType, rank, unannotatedBound, unannotatedOtherBounds, boundKind, this.environment);
-
-		int typesLength = this.types.length;
-		if (this.typeid == typesLength)
-			System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-		this.types[this.typeid] = new TypeBinding[1];
-		return (WildcardBinding) (this.types[wildcard.id = this.typeid++][0] = wildcard);
 	}
 
 	// No need for an override in ATS, since interning is position specific and either the wildcard there is annotated or not.
 	public final CaptureBinding getCapturedWildcard(WildcardBinding wildcard, ReferenceBinding contextType, int start, int end, ASTNode cud, int id) {
 
-		WildcardBinding unannotatedWildcard = (WildcardBinding) getUnannotatedType(wildcard);
-		TypeBinding[] derivedTypes = this.types[unannotatedWildcard.id];  // by construction, cachedInfo != null now.
-		int i, length = derivedTypes.length;
-
-		/* Search backwards looking at recent captures, if we encounter a capture from a different compilation unit, this is a fresh uninterned capture.
-		   While compiling one file, we may reach into another file to build structure, we should not compile method bodies there, so we expect to see
-		   all captures from the same file together without being interleaved by captures from other files.
+		/* Captures of different compilation units may be interleaved, when several units are resolved at once or when resolving one
+		   unit reaches into another, so the capture of a position is looked up by all of wildcard, context type, position and unit.
 		*/
-		int nullSlot = length;
-		for (i = length - 1; i >= -1; --i) {
-			if (i == -1) {
-				i = nullSlot;
-				break;
-			}
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) {
-				nullSlot = i;
-				continue;
-			}
-			if (!derivedType.isCapture())
-				continue;
-			CaptureBinding prior = (CaptureBinding) derivedType;
-			if (prior.cud != cud) { // Searching further to the left is futile, exit the loop.
-				i = nullSlot;
-				break;
-			}
-			if (prior.sourceType != contextType || prior.start != start || prior.end != end) //$IDENTITY-COMPARISON$
-				continue;
-			return prior;
-		}
-
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[unannotatedWildcard.id] = derivedTypes;
-		}
-		return (CaptureBinding) (derivedTypes[i] = new CaptureBinding(wildcard, contextType, start, end, cud, id));
-		// the above constructor already registers the capture, don't repeat that here
+		CaptureKey key = new CaptureKey(getUnannotatedType(wildcard), contextType, start, end, cud);
+		CaptureBinding capture = this.captures.get(key);
+		if (capture != null)
+			return capture;
+		// the constructor already registers the capture, which may lock stripes, so create it outside of any lock:
+		capture = new CaptureBinding(wildcard, contextType, start, end, cud, id);
+		CaptureBinding prior = this.captures.putIfAbsent(key, capture);
+		return prior != null ? prior : capture;
 	}
 
 	public WildcardBinding getWildcard(ReferenceBinding genericType, int rank, TypeBinding bound, TypeBinding[] otherBounds, int boundKind, AnnotationBinding[] annotations) {
@@ -474,35 +557,54 @@ public class TypeSystem {
 		return type; // Nothing to do for plain vanilla type system.
 	}
 
+	/** Answer a snapshot of the types derived from the given type. */
 	protected final TypeBinding /* @NonNull */ [] getDerivedTypes(TypeBinding keyType) {
 		keyType = getUnannotatedType(keyType);
-		return this.types[keyType.id];
+		synchronized (stripe(keyType.id)) {
+			return row(keyType.id).clone();
+		}
+	}
+
+	/** Answer the first type derived from the given key type that satisfies the given match, or null if there is none. */
+	protected final TypeBinding findDerivedType(TypeBinding keyType, Predicate<TypeBinding> match) {
+		keyType = getUnannotatedType(keyType);
+		synchronized (stripe(keyType.id)) {
+			for (TypeBinding derivedType : row(keyType.id)) {
+				if (derivedType == null)
+					break;
+				if (match.test(derivedType))
+					return derivedType;
+			}
+		}
+		return null;
 	}
 
 	private TypeBinding cacheDerivedType(TypeBinding keyType, TypeBinding derivedType) {
 		if (keyType == null || derivedType == null || keyType.id == TypeIds.NoId)
 			throw new IllegalStateException();
 
-		TypeBinding[] derivedTypes = this.types[keyType.id];
-		// binary search for the *earliest* slot with a null reference. By design and construction, a null value will never be followed by a valid derived type.
-		int first, last,length = derivedTypes.length;
-		first = 0; last = length;
-		int i = (first + last) / 2;
-		do {
-			  if (derivedTypes[i] == null) {
-				  if (i == first || i > 0 && derivedTypes[i - 1] != null)
-					  break;
-				  last = i - 1;
-			  } else {
-				  first = i + 1;
-			  }
-			  i = (first + last) / 2;
-		} while (i < length && first <= last);
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[keyType.id] = derivedTypes;
-		}
-		return derivedTypes[i] = derivedType;
+		synchronized (stripe(keyType.id)) {
+			TypeBinding[] derivedTypes = row(keyType.id);
+			// binary search for the *earliest* slot with a null reference. By design and construction, a null value will never be followed by a valid derived type.
+			int first, last,length = derivedTypes.length;
+			first = 0; last = length;
+			int i = (first + last) / 2;
+			do {
+				  if (derivedTypes[i] == null) {
+					  if (i == first || i > 0 && derivedTypes[i - 1] != null)
+						  break;
+					  last = i - 1;
+				  } else {
+					  first = i + 1;
+				  }
+				  i = (first + last) / 2;
+			} while (i < length && first <= last);
+			if (i == length) {
+				System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
+				setRow(keyType.id, derivedTypes);
+			}
+			return derivedTypes[i] = derivedType;
+		}
 	}
 
 	protected final TypeBinding cacheDerivedType(TypeBinding keyType, TypeBinding nakedType, TypeBinding derivedType) {
@@ -528,17 +630,37 @@ public class TypeSystem {
 		return derivedType;
 	}
 
+	/**
+	 * Like {@link #cacheDerivedType(TypeBinding, TypeBinding, TypeBinding)}, unless another thread has meanwhile cached a type
+	 * derived from the key type that satisfies the given match, which is answered instead.
+	 */
+	protected final TypeBinding cacheDerivedType(TypeBinding keyType, TypeBinding nakedType, TypeBinding derivedType, Predicate<TypeBinding> match) {
+		synchronized (stripe(getUnannotatedType(keyType).id)) {
+			TypeBinding prior = findDerivedType(keyType, match);
+			if (prior != null)
+				return prior;
+			cacheDerivedType(keyType, derivedType);
+		}
+		if (nakedType.id != keyType.id) {
+			cacheDerivedType(nakedType, derivedType);
+		}
+		return derivedType;
+	}
+
 	/* Return a unique annotation binding for an annotation with either no or all default element-value pairs.
 	   We may return a resolved annotation when requested for unresolved one, but not vice versa.
 	*/
 	public final AnnotationBinding getAnnotationType(ReferenceBinding annotationType, boolean requiredResolved) {
-		AnnotationBinding annotation = (AnnotationBinding) this.annotationTypes.get(annotationType);
-		if (annotation == null) {
-			if (requiredResolved)
-				annotation = new AnnotationBinding(annotationType, Binding.NO_ELEMENT_VALUE_PAIRS);
-			else
-				annotation = new UnresolvedAnnotationBinding(annotationType, Binding.NO_ELEMENT_VALUE_PAIRS, this.environment);
-			this.annotationTypes.put(annotationType, annotation);
+		AnnotationBinding annotation;
+		synchronized (this.tableLock) {
+			annotation = (AnnotationBinding) this.annotationTypes.get(annotationType);
+			if (annotation == null) {
+				if (requiredResolved)
+					annotation = new AnnotationBinding(annotationType, Binding.NO_ELEMENT_VALUE_PAIRS);
+				else
+					annotation = new UnresolvedAnnotationBinding(annotationType, Binding.NO_ELEMENT_VALUE_PAIRS, this.environment);
+				this.annotationTypes.put(annotationType, annotation);
+			}
 		}
 		if (requiredResolved)
 			annotation.resolve();
@@ -550,10 +672,9 @@ public class TypeSystem {
 	}
 
 	public void cleanUp(int typeId) {
-		if (typeId != -1 && typeId < this.typeid && this.types != null) {
-			TypeBinding[] typesForId = this.types[typeId];
-			if (typesForId != null) {
-				for (TypeBinding type : typesForId)
+		if (typeId != -1 && row(typeId) != null) {
+			synchronized (stripe(typeId)) {
+				for (TypeBinding type : row(typeId))
 					if (type instanceof SourceTypeBinding)
 						((SourceTypeBinding) type).scope = null;
 			}
@@ -561,10 +682,14 @@ public class TypeSystem {
 	}
 
 	public void reset() {
-		this.annotationTypes = new SimpleLookupTable(16);
-		this.typeid = TypeIds.T_LastWellKnownTypeId;
-		this.types = new TypeBinding[TypeIds.T_LastWellKnownTypeId * 2][];
-		this.parameterizedTypes = new HashedParameterizedTypes();
+		synchronized (this.tableLock) {
+			this.annotationTypes = new SimpleLookupTable(16);
+			this.typeid = TypeIds.T_LastWellKnownTypeId;
+			this.types = new AtomicReferenceArray<>(TypeIds.T_LastWellKnownTypeId * 2);
+			this.parameterizedTypes = new HashedParameterizedTypes();
+		}
+		this.captures.clear();
+		this.inferenceResults.clear();
 	}
 
 	public void updateCaches(UnresolvedReferenceBinding unresolvedType, ReferenceBinding resolvedType) {
@@ -574,23 +699,27 @@ public class TypeSystem {
 		}
 		if (unresolvedTypeId != TypeIds.NoId) {
 			// https://bugs.eclipse.org/bugs/show_bug.cgi?id=432977
-			TypeBinding[] derivedTypes = this.types[unresolvedTypeId];
-			for (int i = 0, length = derivedTypes == null ? 0 : derivedTypes.length; i < length; i++) {
-				if (derivedTypes[i] == null)
-					break;
-				if (derivedTypes[i] == unresolvedType) { //$IDENTITY-COMPARISON$
-					if(resolvedType.id == TypeIds.NoId)
-						resolvedType.id = unresolvedTypeId;
-					derivedTypes[i] = resolvedType;
+			synchronized (stripe(unresolvedTypeId)) {
+				TypeBinding[] derivedTypes = row(unresolvedTypeId);
+				for (int i = 0, length = derivedTypes == null ? 0 : derivedTypes.length; i < length; i++) {
+					if (derivedTypes[i] == null)
+						break;
+					if (derivedTypes[i] == unresolvedType) { //$IDENTITY-COMPARISON$
+						if(resolvedType.id == TypeIds.NoId)
+							resolvedType.id = unresolvedTypeId;
+						derivedTypes[i] = resolvedType;
+					}
 				}
 			}
 		}
-		if (this.annotationTypes.get(unresolvedType) != null) { // update the key
-			Object[] keys = this.annotationTypes.keyTable;
-			for (int i = 0, l = keys.length; i < l; i++) {
-				if (keys[i] == unresolvedType) {
-					keys[i] = resolvedType; // hashCode is based on compoundName so this works.
-					break;
+		synchronized (this.tableLock) {
+			if (this.annotationTypes.get(unresolvedType) != null) { // update the key
+				Object[] keys = this.annotationTypes.keyTable;
+				for (int i = 0, l = keys.length; i < l; i++) {
+					if (keys[i] == unresolvedType) {
+						keys[i] = resolvedType; // hashCode is based on compoundName so this works.
+						break;
+					}
 				}
 			}
 		}
@@ -604,25 +733,27 @@ public class TypeSystem {
 		if (keyType == null || intersectingTypesLength == 1)
 			return keyType;
 
-		TypeBinding[] derivedTypes = getDerivedTypes(keyType);
-		int i, length = derivedTypes.length;
-		next:
-		for (i = 0; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null)
-				break;
+		Predicate<TypeBinding> match = derivedType -> {
 			if (!derivedType.isIntersectionType18())
-				continue;
+				return false;
 			ReferenceBinding [] priorIntersectingTypes = derivedType.getIntersectingTypes();
 			if (priorIntersectingTypes.length != intersectingTypesLength)
-				continue;
+				return false;
 			for (int j = 0; j < intersectingTypesLength; j++) {
 				if (intersectingTypes[j] != priorIntersectingTypes[j]) //$IDENTITY-COMPARISON$
-					continue next;
+					return false;
 			}
-			return derivedType;
+			return true;
+		};
+		TypeBinding intersectionType = findDerivedType(keyType, match);
+		if (intersectionType != null)
+			return intersectionType;
+		// the constructor may look up types, so create the intersection outside of the stripe:
+		intersectionType = new IntersectionTypeBinding18(intersectingTypes, this.environment);
+		synchronized (stripe(getUnannotatedType(keyType).id)) {
+			TypeBinding prior = findDerivedType(keyType, match);
+			return prior != null ? prior : cacheDerivedType(keyType, intersectionType);
 		}
-		return cacheDerivedType(keyType, new IntersectionTypeBinding18(intersectingTypes, this.environment));
 	}
 
 	/**
@@ -631,13 +762,15 @@ public class TypeSystem {
 	 */
 	public void fixTypeVariableDeclaringElement(TypeVariableBinding var, Binding declaringElement) {
 		int id = var.id;
-		if (id < this.typeid && this.types[id] != null) {
-			for (TypeBinding t : this.types[id]) {
-				if (t instanceof TypeVariableBinding)
-					((TypeVariableBinding)t).declaringElement = declaringElement;
+		if (id != TypeIds.NoId && row(id) != null) {
+			synchronized (stripe(id)) {
+				for (TypeBinding t : row(id)) {
+					if (t instanceof TypeVariableBinding)
+						((TypeVariableBinding)t).declaringElement = declaringElement;
+				}
 			}
 		} else {
 			var.declaringElement = declaringElement;
 		}
 	}
-}
\ No newline at end of file
+}
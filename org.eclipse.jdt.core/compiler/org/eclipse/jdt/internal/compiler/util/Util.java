@@ -26,7 +26,14 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -433,6 +440,133 @@ public class Util implements SuffixConstants {
 			}
 		}
 	}
+	public static final int MAPPED_FILE_THRESHOLD = 16 * 1024;
+
+	private static final ThreadLocal<ByteBuffer> fileReadBuffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(MAPPED_FILE_THRESHOLD));
+
+	private static volatile boolean mapFiles = true;
+
+	/**
+	 * Sets whether {@link #getMappedFileCharContent(File, String)} maps large files, or reads them into a heap buffer.
+	 * A mapping may keep its file from being changed or deleted until it is garbage collected on some platforms,
+	 * which a process that outlives a compilation, like the compile server, must avoid.
+	 */
+	public static void setFileMapping(boolean enabled) {
+		mapFiles = enabled;
+	}
+
+	/**
+	 * Returns the contents of the given file as a char array, like {@link #getFileCharContent(File, String)}, but
+	 * without reading them into a byte array first: a file of at least {@link #MAPPED_FILE_THRESHOLD} bytes is decoded
+	 * straight from a memory mapping (unless {@link #setFileMapping(boolean) disabled}), a smaller one from a buffer owned
+	 * by the calling thread. Characters are decoded in place into the returned array when the encoding is UTF-8,
+	 * US-ASCII or ISO-8859-1.
+	 * @throws IOException if a problem occurred reading the file.
+	 */
+	public static char[] getMappedFileCharContent(File file, String encoding) throws IOException {
+		Charset charset;
+		try {
+			charset = Charset.forName(encoding);
+		} catch (IllegalArgumentException e) {
+			// encoding is not supported
+			charset = Charset.defaultCharset();
+		}
+		Path path;
+		try {
+			path = file.toPath();
+		} catch (InvalidPathException e) {
+			return getFileCharContent(file, encoding);
+		}
+		ByteBuffer bytes;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size >= MAPPED_FILE_THRESHOLD) {
+				if (size > Integer.MAX_VALUE)
+					throw new IOException("File too large: " + file); //$NON-NLS-1$
+				if (mapFiles) {
+					bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+				} else {
+					bytes = ByteBuffer.allocate((int) size + 1); // one more byte, to notice that the file grew
+					while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+						// read until the end of the file or of the buffer
+					}
+					if (bytes.position() != size) // the file changed since its size was read
+						return getFileCharContent(file, encoding);
+					bytes.flip();
+				}
+			} else {
+				bytes = fileReadBuffers.get();
+				bytes.clear();
+				while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+					// read until the end of the file or of the buffer
+				}
+				if (!bytes.hasRemaining()) // the file grew since its size was read
+					return getFileCharContent(file, encoding);
+				bytes.flip();
+			}
+		}
+		return decode(bytes, charset);
+	}
+
+	/*
+	 * Decodes the given bytes, skipping a byte order mark, into a char array of the exact length.
+	 */
+	private static char[] decode(ByteBuffer bytes, Charset charset) {
+		byte[] bom = bomByEncoding.get(charset.name());
+		if (bom != null && startsWith(bytes, bom))
+			bytes.position(bytes.position() + bom.length);
+		int length = bytes.remaining();
+		if (!charset.equals(StandardCharsets.UTF_8) && !charset.equals(StandardCharsets.US_ASCII) && !charset.equals(StandardCharsets.ISO_8859_1))
+			return toCharArray(charset.decode(bytes));
+		// these charsets never decode a byte sequence into more chars than bytes, so the chars are decoded in place
+		char[] chars = new char[length];
+		CharBuffer decoded = CharBuffer.wrap(chars);
+		CharsetDecoder decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		int start = bytes.position();
+		boolean overflow;
+		if (bytes.hasArray()) {
+			overflow = decoder.decode(bytes, decoded, true).isOverflow();
+		} else {
+			// a mapping is decoded through a small heap buffer, which the charset decoders handle much faster
+			ByteBuffer chunk = fileReadBuffers.get();
+			chunk.clear();
+			boolean endOfInput;
+			do {
+				int chunkLength = Math.min(chunk.remaining(), bytes.remaining());
+				bytes.get(chunk.array(), chunk.position(), chunkLength);
+				chunk.position(chunk.position() + chunkLength);
+				chunk.flip();
+				endOfInput = !bytes.hasRemaining();
+				overflow = decoder.decode(chunk, decoded, endOfInput).isOverflow();
+				chunk.compact();
+			} while (!endOfInput && !overflow);
+		}
+		if (overflow || decoder.flush(decoded).isOverflow()) {
+			bytes.position(start);
+			return toCharArray(charset.decode(bytes));
+		}
+		int count = decoded.position();
+		return count == length ? chars : Arrays.copyOf(chars, count);
+	}
+
+	private static char[] toCharArray(CharBuffer buffer) {
+		char[] chars = buffer.array();
+		int count = buffer.remaining();
+		return count == chars.length ? chars : Arrays.copyOf(chars, count);
+	}
+
+	private static boolean startsWith(ByteBuffer bytes, byte[] start) {
+		if (bytes.remaining() < start.length) {
+			return false;
+		}
+		for (int i = 0; i < start.length; i++) {
+			if (bytes.get(bytes.position() + i) != start[i])
+				return false;
+		}
+		return true;
+	}
 	private static FileOutputStream getFileOutputStream(boolean generatePackagesStructure, String outputPath, String relativeFileName) throws IOException {
 		if (generatePackagesStructure) {
 			return new FileOutputStream(new File(buildAllDirectoriesInto(outputPath, relativeFileName)));
@@ -0,0 +1,110 @@
+package fsc4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runtime switch for the contract checks generated by fsc4j.
+ *
+ * Generated code guards its precondition, postcondition and invariant checks with an {@code invokedynamic}
+ * instruction linked by {@link #bootstrap} to a call site shared by all classes of a package. The call site's
+ * target is a constant, so the JIT compiler folds the guard and disabled checks cost nothing; switching a package
+ * relinks its call site, which deoptimizes the code that depends on it.
+ *
+ * Checks are enabled unless the system property {@code fsc4j.checks} is {@code false}. The system property
+ * {@code fsc4j.checks.disabledPackages} lists, separated by commas, packages whose checks start out disabled.
+ * A check that has started (that is, whose precondition was evaluated) always runs to completion.
+ */
+public final class ContractChecks {
+
+	private static final MethodType GUARD_TYPE = MethodType.methodType(boolean.class);
+
+	private static final Map<String, MutableCallSite> callSites = new HashMap<>();
+	private static final Map<String, Boolean> packageSettings = new HashMap<>();
+	private static boolean enabledByDefault = !"false".equals(System.getProperty("fsc4j.checks"));
+
+	static {
+		String disabledPackages = System.getProperty("fsc4j.checks.disabledPackages");
+		if (disabledPackages != null)
+			for (String packageName : disabledPackages.split(",")) {
+				packageName = packageName.trim();
+				if (!packageName.isEmpty())
+					packageSettings.put(packageName, Boolean.FALSE);
+			}
+	}
+
+	private ContractChecks() {}
+
+	/**
+	 * Bootstrap method for the guards of generated contract checks; the call site answers whether the checks of
+	 * the calling class's package are enabled.
+	 */
+	public static CallSite bootstrap(MethodHandles.Lookup lookup, String name, MethodType type) {
+		if (!type.equals(GUARD_TYPE))
+			throw new IllegalArgumentException("Contract checks guard must have type ()boolean, not " + type);
+		String className = lookup.lookupClass().getName();
+		int lastDot = className.lastIndexOf('.');
+		return getCallSite(lastDot < 0 ? "" : className.substring(0, lastDot));
+	}
+
+	private static synchronized MutableCallSite getCallSite(String packageName) {
+		MutableCallSite callSite = callSites.get(packageName);
+		if (callSite == null) {
+			callSite = new MutableCallSite(MethodHandles.constant(boolean.class, isEnabled(packageName)));
+			callSites.put(packageName, callSite);
+		}
+		return callSite;
+	}
+
+	/**
+	 * Answers whether the contract checks of the given package (the empty string for the unnamed package) are enabled.
+	 */
+	public static synchronized boolean isEnabled(String packageName) {
+		Boolean setting = packageSettings.get(packageName);
+		return setting != null ? setting : enabledByDefault;
+	}
+
+	/**
+	 * Enables or disables the contract checks of the given package (the empty string for the unnamed package).
+	 */
+	public static synchronized void setEnabled(String packageName, boolean enabled) {
+		packageSettings.put(packageName, enabled);
+		relink();
+	}
+
+	/**
+	 * Enables or disables the contract checks of the packages for which {@link #setEnabled} was not called.
+	 */
+	public static synchronized void setEnabledByDefault(boolean enabled) {
+		enabledByDefault = enabled;
+		relink();
+	}
+
+	private static void relink() {
+		ArrayList<MutableCallSite> changed = new ArrayList<>();
+		for (Map.Entry<String, MutableCallSite> entry : callSites.entrySet()) {
+			MutableCallSite callSite = entry.getValue();
+			boolean enabled = isEnabled(entry.getKey());
+			if (enabled != isEnabled(callSite)) {
+				callSite.setTarget(MethodHandles.constant(boolean.class, enabled));
+				changed.add(callSite);
+			}
+		}
+		if (!changed.isEmpty())
+			MutableCallSite.syncAll(changed.toArray(new MutableCallSite[changed.size()]));
+	}
+
+	private static boolean isEnabled(MutableCallSite callSite) {
+		try {
+			return (boolean)callSite.getTarget().invokeExact();
+		} catch (Throwable e) {
+			throw new AssertionError(e);
+		}
+	}
+
+}
@@ -2,24 +2,34 @@ package fsc4j;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.IdentityHashMap;
-import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 enum UnitType { UNIT_VALUE; }
 
+/**
+ * A map from objects, compared by identity and held weakly, to values.
+ *
+ * The table uses open addressing over identity hash codes, so that lookups neither allocate nor take a lock;
+ * updates are serialized on the map. Entries whose key has been collected are emptied by the cleaner thread
+ * and dropped when the table is next rebuilt.
+ */
 class WeakConcurrentIdentityHashMap<K, V> {
 	
+	private static final int INITIAL_CAPACITY = 16;
+	
 	private static ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
 	private static Thread cleanerThread = new Thread() {
 		@Override
 		public void run() {
 			try {
 				for (;;) {
-					WeakConcurrentIdentityHashMap<?, ?>.Key key = (WeakConcurrentIdentityHashMap<?, ?>.Key)referenceQueue.remove();
-					key.remove();
+					WeakConcurrentIdentityHashMap<?, ?>.Entry entry = (WeakConcurrentIdentityHashMap<?, ?>.Entry)referenceQueue.remove();
+					entry.remove();
 				}
 			} catch (InterruptedException e) {
 				e.printStackTrace();
@@ -31,60 +41,118 @@ class WeakConcurrentIdentityHashMap<K, V> {
 		cleanerThread.start();
 	}
 	
-	private ConcurrentHashMap<Key, V> map = new ConcurrentHashMap<Key, V>();
+	private volatile AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+	/** Number of occupied slots, including those of collected keys. Guarded by {@code this}. */
+	private int occupiedCount;
 	
-	private class Key extends WeakReference<K> {
+	private class Entry extends WeakReference<K> {
 		final int hashCode;
-		Key(K object) {
+		volatile V value;
+		
+		Entry(K object, int hashCode, V value) {
 			super(object, referenceQueue);
-			this.hashCode = System.identityHashCode(object);
+			this.hashCode = hashCode;
+			this.value = value;
 		}
 		
-		@Override
-		public boolean equals(Object obj) {
-			if (obj == this)
-				return true;
-			if (!(obj instanceof WeakConcurrentIdentityHashMap<?, ?>.Key))
-				return false;
-			WeakConcurrentIdentityHashMap<?, ?>.Key other = (WeakConcurrentIdentityHashMap<?, ?>.Key)obj;
-			Object thisReferent = this.get();
-			if (thisReferent == null)
-				return false;
-			Object otherReferent = other.get();
-			return thisReferent == otherReferent;
+		void remove() {
+			this.value = null;
 		}
-		
-		@Override
-		public int hashCode() {
-			return this.hashCode;
+	}
+	
+	private static int indexFor(int hashCode, int length) {
+		// Identity hash codes tend to be poorly distributed in the low bits
+		int h = hashCode ^ (hashCode >>> 16);
+		return (h * 0x9E3779B9) & (length - 1);
+	}
+	
+	private Entry find(AtomicReferenceArray<Entry> entries, Object key, int hashCode) {
+		int length = entries.length();
+		for (int i = indexFor(hashCode, length); ; i = (i + 1) & (length - 1)) {
+			Entry entry = entries.get(i);
+			if (entry == null)
+				return null;
+			if (entry.hashCode == hashCode && entry.get() == key)
+				return entry;
 		}
-		
-		void remove() {
-			WeakConcurrentIdentityHashMap.this.map.remove(this);
+	}
+	
+	/** Must be called while holding the lock on {@code this}. */
+	private V put0(K key, V value, boolean onlyIfAbsent) {
+		int hashCode = System.identityHashCode(key);
+		AtomicReferenceArray<Entry> entries = this.table;
+		Entry entry = find(entries, key, hashCode);
+		if (entry != null) {
+			V oldValue = entry.value;
+			if (!onlyIfAbsent || oldValue == null)
+				entry.value = value;
+			return oldValue;
+		}
+		if ((this.occupiedCount + 1) * 3 > entries.length() * 2)
+			entries = rehash(entries);
+		int length = entries.length();
+		int i = indexFor(hashCode, length);
+		while (entries.get(i) != null)
+			i = (i + 1) & (length - 1);
+		entries.set(i, new Entry(key, hashCode, value));
+		this.occupiedCount++;
+		return null;
+	}
+	
+	/** Copies the live entries into a new table, sized for them, and publishes it. */
+	private AtomicReferenceArray<Entry> rehash(AtomicReferenceArray<Entry> entries) {
+		int liveCount = 0;
+		for (int i = 0; i < entries.length(); i++) {
+			Entry entry = entries.get(i);
+			if (entry != null && entry.get() != null)
+				liveCount++;
+		}
+		int length = INITIAL_CAPACITY;
+		while ((liveCount + 1) * 3 > length)
+			length <<= 1;
+		AtomicReferenceArray<Entry> newEntries = new AtomicReferenceArray<>(length);
+		for (int i = 0; i < entries.length(); i++) {
+			Entry entry = entries.get(i);
+			if (entry != null && entry.get() != null) {
+				int j = indexFor(entry.hashCode, length);
+				while (newEntries.get(j) != null)
+					j = (j + 1) & (length - 1);
+				newEntries.set(j, entry);
+			}
 		}
+		this.occupiedCount = liveCount;
+		this.table = newEntries;
+		return newEntries;
 	}
 	
-	public void put(K key, V value) {
-		this.map.put(new Key(key), value);
+	public synchronized void put(K key, V value) {
+		put0(key, value, false);
 	}
 	
-	public V putIfAbsent(K key, V value) {
-		return this.map.putIfAbsent(new Key(key), value);
+	public synchronized V putIfAbsent(K key, V value) {
+		return put0(key, value, true);
 	}
 
 	public V get(K key) {
-		return this.map.get(new Key(key));
+		Entry entry = find(this.table, key, System.identityHashCode(key));
+		return entry == null ? null : entry.value;
 	}
 	
 	public V getOrDefault(K key, V defaultValue) {
-		return this.map.getOrDefault(new Key(key), defaultValue);
+		V value = get(key);
+		return value == null ? defaultValue : value;
 	}
 	
 	public void forEachEntry(BiConsumer<K, V> consumer) {
-		for (Key key : this.map.keySet()) {
-			K referent = key.get();
-			if (referent != null)
-				consumer.accept(referent, this.map.get(key));
+		AtomicReferenceArray<Entry> entries = this.table;
+		for (int i = 0; i < entries.length(); i++) {
+			Entry entry = entries.get(i);
+			if (entry == null)
+				continue;
+			K referent = entry.get();
+			V value = entry.value;
+			if (referent != null && value != null)
+				consumer.accept(referent, value);
 		}
 	}
 	
@@ -119,31 +187,88 @@ enum PermissionLevel {
 	
 }
 
+/**
+ * The permissions a specification frame holds on one object, as parallel arrays of classes and permission levels.
+ * An object typically has permissions for only a few classes, so a linear scan beats a map. The object itself is
+ * held weakly.
+ */
+final class ObjectPermissions extends WeakReference<Object> {
+	
+	private Class<?>[] classes = new Class<?>[2];
+	private PermissionLevel[] levels = new PermissionLevel[2];
+	private int size;
+	/** The traversal of the owning frame that last visited the object; see {@link EffectChecker.SpecificationFrame#requiresPermission}. */
+	int visitEpoch;
+	
+	ObjectPermissions(Object object) {
+		super(object);
+	}
+	
+	PermissionLevel get(Class<?> classObject) {
+		for (int i = 0; i < this.size; i++)
+			if (this.classes[i] == classObject)
+				return this.levels[i];
+		return PermissionLevel.NONE;
+	}
+	
+	void add(Class<?> classObject, PermissionLevel level) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.classes[i] == classObject) {
+				this.levels[i] = PermissionLevel.max(this.levels[i], level);
+				return;
+			}
+		}
+		if (this.size == this.classes.length) {
+			this.classes = Arrays.copyOf(this.classes, this.size * 2);
+			this.levels = Arrays.copyOf(this.levels, this.size * 2);
+		}
+		this.classes[this.size] = classObject;
+		this.levels[this.size++] = level;
+	}
+	
+	void addAll(ObjectPermissions other) {
+		for (int i = 0; i < other.size; i++)
+			add(other.classes[i], other.levels[i]);
+	}
+	
+}
+
 public class EffectChecker {
 	
 	public static class SpecificationFrame {
 		
 		private final SpecificationFrame enclosingFrame;
-		private final WeakConcurrentIdentityHashMap<Object, WeakHashMap<Class<?>, PermissionLevel>> permissions = new WeakConcurrentIdentityHashMap<>();
+		private final WeakConcurrentIdentityHashMap<Object, ObjectPermissions> permissions = new WeakConcurrentIdentityHashMap<>();
+		/** The values of {@link #permissions}, in insertion order, so that {@link #pop()} need not scan the table. */
+		private final ArrayList<ObjectPermissions> permissionsList = new ArrayList<>();
+		private int traversalEpoch;
+		private Object[] worklist = new Object[16];
+		private int worklistSize;
+		private final Consumer<Object> visitor = this::visit;
 
 		private SpecificationFrame(SpecificationFrame enclosingFrame) {
 			this.enclosingFrame = enclosingFrame;
 		}
 		
 		private PermissionLevel getPermissionLevelFor(Class<?> classObject, Object object) {
-			WeakHashMap<Class<?>, PermissionLevel> map = this.permissions.get(object);
-			if (map == null)
+			ObjectPermissions objectPermissions = this.permissions.get(object);
+			if (objectPermissions == null)
 				return PermissionLevel.NONE;
-			return map.getOrDefault(classObject, PermissionLevel.NONE);
+			return objectPermissions.get(classObject);
 		}
 		
-		private void addPermissionFor(Class<?> classObject, Object object, PermissionLevel permissionLevel) {
-			WeakHashMap<Class<?>, PermissionLevel> map = this.permissions.get(object);
-			if (map == null) {
-				map = new WeakHashMap<>();
-				this.permissions.put(object, map);
+		private ObjectPermissions getOrCreatePermissions(Object object) {
+			ObjectPermissions objectPermissions = this.permissions.get(object);
+			if (objectPermissions == null) {
+				objectPermissions = new ObjectPermissions(object);
+				this.permissions.put(object, objectPermissions);
+				this.permissionsList.add(objectPermissions);
 			}
-			map.put(classObject, PermissionLevel.max(map.getOrDefault(classObject, PermissionLevel.NONE), permissionLevel));
+			return objectPermissions;
+		}
+		
+		private void addPermissionFor(Class<?> classObject, Object object, PermissionLevel permissionLevel) {
+			getOrCreatePermissions(object).add(classObject, permissionLevel);
 		}
 		
 		void assertCanCreate0(Object object, Class<?> classObject) {
@@ -200,36 +325,50 @@ public class EffectChecker {
 			addPermissionFor(classObject, object, level);
 		}
 		
-		private void requiresPermission1(Object object, Class<?> classObject, PermissionLevel level) {
-			if (classObject != Object.class) {
-				requiresPermission0(object, classObject, level);
-				requiresPermission1(object, classObject.getSuperclass(), level);
-				ClassInfo classInfo = getClassInfo(classObject);
-				if (classInfo != null) {
-					classInfo.representationObjectIterator.forEachRelatedObject(object, repObject -> {
-						requiresPermission(repObject, repObject.getClass(), level);
-					});
-				}
+		private void visit(Object object) {
+			ObjectPermissions objectPermissions = getOrCreatePermissions(object);
+			if (objectPermissions.visitEpoch != this.traversalEpoch) {
+				objectPermissions.visitEpoch = this.traversalEpoch;
+				if (this.worklistSize == this.worklist.length)
+					this.worklist = Arrays.copyOf(this.worklist, this.worklistSize * 2);
+				this.worklist[this.worklistSize++] = object;
 			}
 		}
 		
-		private void requiresPeerGroupPermission(Object object, Class<?> classObject, PermissionLevel level, IdentityHashMap<Object, UnitType> peerObjectsVisited) {
-			requiresPermission1(object, classObject, level);
-			peerObjectsVisited.put(object, UnitType.UNIT_VALUE);
-			ClassInfo classInfo = getClassInfo(classObject);
-			if (classInfo != null)
-				classInfo.peerObjectIterator.forEachRelatedObject(object, peerObject -> {
-					if (!peerObjectsVisited.containsKey(peerObject))
-						requiresPeerGroupPermission(peerObject, peerObject.getClass(), level, peerObjectsVisited);
-				});
-		}
-		
-		void requiresPermission(Object object, Class<?> classObject, PermissionLevel level) {
-			requiresPeerGroupPermission(object, classObject, level, new IdentityHashMap<>());
+		/**
+		 * Requires the given permission on the object, on its representation objects and on its peer group, transitively.
+		 * 
+		 * Each call is a new traversal epoch; an object is visited at most once per traversal, which is tracked by
+		 * stamping its permissions record with the epoch rather than by a visited set. The traversal uses an explicit
+		 * worklist, so long chains of peer or representation objects cannot overflow the stack.
+		 */
+		void requiresPermission(Object object, PermissionLevel level) {
+			int base = this.worklistSize;
+			this.traversalEpoch++;
+			try {
+				visit(object);
+				while (this.worklistSize > base) {
+					Object current = this.worklist[--this.worklistSize];
+					this.worklist[this.worklistSize] = null;
+					Class<?> runtimeClass = current.getClass();
+					for (Class<?> classObject = runtimeClass; classObject != Object.class; classObject = classObject.getSuperclass()) {
+						requiresPermission0(current, classObject, level);
+						ClassInfo classInfo = getClassInfo(classObject);
+						if (classInfo != null)
+							classInfo.representationObjectIterator.forEachRelatedObject(current, this.visitor);
+					}
+					ClassInfo classInfo = getClassInfo(runtimeClass);
+					if (classInfo != null)
+						classInfo.peerObjectIterator.forEachRelatedObject(current, this.visitor);
+				}
+			} finally {
+				while (this.worklistSize > base)
+					this.worklist[--this.worklistSize] = null;
+			}
 		}
 		
 		public boolean inspects(Object object) {
-			requiresPermission(object, object.getClass(), PermissionLevel.INSPECT);
+			requiresPermission(object, PermissionLevel.INSPECT);
 			return true;
 		}
 		
@@ -246,7 +385,7 @@ public class EffectChecker {
 		}
 		
 		public boolean mutates(Object object) {
-			requiresPermission(object, object.getClass(), PermissionLevel.MUTATE);
+			requiresPermission(object, PermissionLevel.MUTATE);
 			return true;
 		}
 		
@@ -266,28 +405,37 @@ public class EffectChecker {
 			if (specificationStackVariable.get() != this)
 				throw new AssertionError("Cannot pop a specification frame that is not the top frame.");
 			if (this.enclosingFrame != null) {
-				this.permissions.forEachEntry((key, value) -> {
-					for (Class<?> classObject : value.keySet())
-						this.enclosingFrame.addPermissionFor(classObject, key, value.get(classObject));
-				});
+				for (ObjectPermissions objectPermissions : this.permissionsList) {
+					Object object = objectPermissions.get();
+					if (object != null)
+						this.enclosingFrame.getOrCreatePermissions(object).addAll(objectPermissions);
+				}
 			}
 			specificationStackVariable.set(this.enclosingFrame);
 		}
 		
 	}
 	
-	private static final WeakHashMap<Class<?>, WeakReference<ClassInfo>> classInfoMap = new WeakHashMap<>();
+	/**
+	 * The registered class info per class. {@link ClassValue} gives lock-free lookups; the class info itself is
+	 * held weakly, as before, so that registering it does not keep the class loader alive.
+	 */
+	private static final ClassValue<AtomicReference<WeakReference<ClassInfo>>> classInfoRegistry = new ClassValue<AtomicReference<WeakReference<ClassInfo>>>() {
+		@Override
+		protected AtomicReference<WeakReference<ClassInfo>> computeValue(Class<?> type) {
+			return new AtomicReference<>();
+		}
+	};
 	private static final WeakConcurrentIdentityHashMap<Object, WeakConcurrentIdentityHashMap<Class<?>, UnitType>> createdObjectsSet = new WeakConcurrentIdentityHashMap<>();
 	private static final ThreadLocal<SpecificationFrame> specificationStackVariable = new ThreadLocal<>();
 	
-	public synchronized static void registerClassInfo(Class<?> classObject, ClassInfo classInfo) {
-		if (classInfoMap.containsKey(classObject))
+	public static void registerClassInfo(Class<?> classObject, ClassInfo classInfo) {
+		if (!classInfoRegistry.get(classObject).compareAndSet(null, new WeakReference<>(classInfo)))
 			throw new AssertionError("The class info for this class has already been registered.");
-		classInfoMap.put(classObject, new WeakReference<>(classInfo));
 	}
 	
-	public synchronized static ClassInfo getClassInfo(Class<?> classObject) {
-		WeakReference<ClassInfo> classInfoReference = classInfoMap.get(classObject);
+	public static ClassInfo getClassInfo(Class<?> classObject) {
+		WeakReference<ClassInfo> classInfoReference = classInfoRegistry.get(classObject).get();
 		if (classInfoReference == null)
 			return null;
 		return classInfoReference.get();
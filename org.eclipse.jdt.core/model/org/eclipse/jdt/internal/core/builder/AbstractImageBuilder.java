@@ -20,6 +20,7 @@ import org.eclipse.jdt.core.*;
 import org.eclipse.jdt.core.compiler.*;
 import org.eclipse.jdt.internal.compiler.*;
 import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.batch.Fsc4jRuntimeEmitter;
 import org.eclipse.jdt.internal.compiler.batch.Main;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
@@ -59,6 +60,7 @@ protected LinkedHashSet<SourceFile> problemSourceFiles;
 protected boolean compiledAllAtOnce;
 
 private boolean inCompiler;
+private final Set<IContainer> fsc4jRuntimeOutputFolders = new HashSet<>();
 
 protected boolean keepStoringProblemMarkers;
 protected Set<SourceFile> filesWithAnnotations = null;
@@ -201,10 +203,12 @@ public void acceptResult(CompilationResult result) {
 					createProblemFor(compilationUnit.resource, null, Messages.build_inconsistentClassFile, JavaCore.ERROR);
 			}
 		}
-		try {
-			writeFsc4jRuntimeClassFiles(compilationUnit);
-		} catch (CoreException e) {
-			throw new RuntimeException(e);
+		if (this.compiler.options.fsc4jRuntimeChecks != CompilerOptions.Fsc4jChecksNone) {
+			try {
+				writeFsc4jRuntimeClassFiles(compilationUnit);
+			} catch (CoreException e) {
+				throw new RuntimeException(e);
+			}
 		}
 		if (result.hasAnnotations && this.filesWithAnnotations != null) // only initialized if an annotation processor is attached
 			this.filesWithAnnotations.add(compilationUnit);
@@ -858,24 +862,30 @@ protected void updateTasksFor(SourceFile sourceFile, CompilationResult result) t
 	storeTasksFor(sourceFile, tasks);
 }
 private void writeFsc4jRuntimeClassFiles(SourceFile compilationUnit) throws CoreException {
-	for (String filename : Main.fsc4jRuntimeFilenames) {
-		IPath filePath = new Path(filename);
-		IContainer outputFolder = compilationUnit.sourceLocation.binaryFolder;
+	IContainer outputFolder = compilationUnit.sourceLocation.binaryFolder;
+	if (!this.fsc4jRuntimeOutputFolders.add(outputFolder))
+		return; // already written during this build
+	byte[][] contents;
+	try {
+		contents = Fsc4jRuntimeEmitter.getRuntimeClassFileContents();
+	} catch (IOException e) {
+		throw new RuntimeException(e);
+	}
+	for (int i = 0; i < Main.fsc4jRuntimeFilenames.length; i++) {
+		IPath filePath = new Path(Main.fsc4jRuntimeFilenames[i]);
 		IContainer container = outputFolder;
 		if (filePath.segmentCount() > 1) {
 			container = createFolder(filePath.removeLastSegments(1), outputFolder);
 			filePath = new Path(filePath.lastSegment());
 		}
-		
+
 		IFile file = container.getFile(filePath);
-		if (file.exists())
-			break;
-		try {
-			try (InputStream input = Main.class.getClassLoader().getResourceAsStream(filename)) {
-				file.create(input, IResource.FORCE | IResource.DERIVED, null);
-			}
-		} catch (IOException e) {
-			throw new RuntimeException(e);
+		if (file.exists()) {
+			if (Arrays.equals(Util.getResourceContentsAsByteArray(file), contents[i]))
+				continue; // identical contents, keep the existing file and its timestamp
+			file.setContents(new ByteArrayInputStream(contents[i]), true, false, null);
+		} else {
+			file.create(new ByteArrayInputStream(contents[i]), IResource.FORCE | IResource.DERIVED, null);
 		}
 	}
 }
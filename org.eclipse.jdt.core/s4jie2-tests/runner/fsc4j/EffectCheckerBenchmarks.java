@@ -0,0 +1,280 @@
+package fsc4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Measures the data structures of the fsc4j effect checker under contention.
+ *
+ * <p>Each benchmark runs an operation from 1, 4 and 16 threads at once and reports, per operation, the time each
+ * thread spends and the bytes it allocates, next to the same figures for the implementation it replaced, which is
+ * reproduced here. This class lives in package {@code fsc4j} since the structures it measures are package-private.</p>
+ *
+ * <p>Usage: {@code fsc4j.EffectCheckerBenchmarks [warmupMillis [measurementMillis]]}; run with the fsc4j runtime and
+ * this class on the class path, like {@link org.eclipse.jdt.core.s4jie2Benchmarks}.</p>
+ */
+@SuppressWarnings("nls")
+public class EffectCheckerBenchmarks {
+
+	private static final int[] threadCounts = { 1, 4, 16 };
+	private static final int batchSize = 1000;
+
+	static long warmupMillis = 500;
+	static long measurementMillis = 2000;
+
+	/** Defeats dead code elimination of the measured operations. */
+	static volatile int sink;
+
+	/** An operation to measure, run count times by the thread with the given index. */
+	interface Operation {
+		int run(int threadIndex, int count);
+	}
+
+	static class Result {
+		double nanosPerOp;
+		double bytesPerOp;
+	}
+
+	static long allocatedBytes(ThreadMXBean threads) {
+		if (threads instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		return 0;
+	}
+
+	/** Runs the operation on threadCount threads at once; reports the time and allocation per operation and thread. */
+	static Result measure(int threadCount, Operation operation) throws InterruptedException {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		CyclicBarrier barrier = new CyclicBarrier(threadCount);
+		long[] operations = new long[threadCount];
+		long[] nanos = new long[threadCount];
+		long[] bytes = new long[threadCount];
+		Thread[] workers = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			int threadIndex = t;
+			workers[t] = new Thread(() -> {
+				try {
+					int result = 0;
+					long warmupEnd = System.nanoTime() + warmupMillis * 1_000_000;
+					while (System.nanoTime() < warmupEnd)
+						result += operation.run(threadIndex, batchSize);
+					barrier.await();
+					long bytesStart = allocatedBytes(threads);
+					long start = System.nanoTime();
+					long end = start + measurementMillis * 1_000_000;
+					long count = 0;
+					long now;
+					do {
+						result += operation.run(threadIndex, batchSize);
+						count += batchSize;
+						now = System.nanoTime();
+					} while (now < end);
+					operations[threadIndex] = count;
+					nanos[threadIndex] = now - start;
+					bytes[threadIndex] = allocatedBytes(threads) - bytesStart;
+					sink += result;
+				} catch (InterruptedException | BrokenBarrierException e) {
+					throw new AssertionError(e);
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers)
+			worker.join();
+		long totalOperations = 0, totalNanos = 0, totalBytes = 0;
+		for (int t = 0; t < threadCount; t++) {
+			totalOperations += operations[t];
+			totalNanos += nanos[t];
+			totalBytes += bytes[t];
+		}
+		Result result = new Result();
+		result.nanosPerOp = (double) totalNanos / totalOperations;
+		result.bytesPerOp = (double) totalBytes / totalOperations;
+		return result;
+	}
+
+	static void report(String benchmark, String implementation, Operation operation) throws InterruptedException {
+		for (int threadCount : threadCounts) {
+			Result result = measure(threadCount, operation);
+			System.out.println(String.format("%-24s %-28s %8d %12.1f %12.1f",
+					benchmark, implementation, threadCount, result.nanosPerOp, result.bytesPerOp));
+		}
+	}
+
+	/**
+	 * The identity map that {@link WeakConcurrentIdentityHashMap} replaced: a {@link ConcurrentHashMap} keyed by weak
+	 * references registered with a reference queue, one of which is allocated for every lookup.
+	 */
+	static class KeyAllocatingIdentityMap<K, V> {
+
+		private static final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
+
+		private final ConcurrentHashMap<Key, V> map = new ConcurrentHashMap<>();
+
+		private class Key extends WeakReference<K> {
+			final int hashCode;
+
+			Key(K object) {
+				super(object, referenceQueue);
+				this.hashCode = System.identityHashCode(object);
+			}
+
+			@Override
+			public boolean equals(Object obj) {
+				if (obj == this)
+					return true;
+				if (!(obj instanceof KeyAllocatingIdentityMap<?, ?>.Key))
+					return false;
+				Object referent = get();
+				return referent != null && referent == ((KeyAllocatingIdentityMap<?, ?>.Key) obj).get();
+			}
+
+			@Override
+			public int hashCode() {
+				return this.hashCode;
+			}
+		}
+
+		void put(K key, V value) {
+			this.map.put(new Key(key), value);
+		}
+
+		V get(K key) {
+			return this.map.get(new Key(key));
+		}
+	}
+
+	/** Lookups of present keys in a weak identity map shared by all threads, as done for every permission check. */
+	static void benchmarkIdentityMapLookups() throws InterruptedException {
+		Object[] keys = new Object[1024];
+		WeakConcurrentIdentityHashMap<Object, Object> map = new WeakConcurrentIdentityHashMap<>();
+		KeyAllocatingIdentityMap<Object, Object> previousMap = new KeyAllocatingIdentityMap<>();
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new Object();
+			map.put(keys[i], keys[i]);
+			previousMap.put(keys[i], keys[i]);
+		}
+		int mask = keys.length - 1;
+		report("identity map get", "WeakConcurrentIdentityHashMap", (threadIndex, count) -> {
+			int found = 0;
+			for (int i = 0, k = threadIndex * 61; i < count; i++, k += 7)
+				if (map.get(keys[k & mask]) != null)
+					found++;
+			return found;
+		});
+		report("identity map get", "previous (allocating keys)", (threadIndex, count) -> {
+			int found = 0;
+			for (int i = 0, k = threadIndex * 61; i < count; i++, k += 7)
+				if (previousMap.get(keys[k & mask]) != null)
+					found++;
+			return found;
+		});
+	}
+
+	/**
+	 * The class info registry that the {@link ClassValue} in {@link EffectChecker} replaced: a {@link WeakHashMap}
+	 * behind a global lock.
+	 */
+	static class SynchronizedClassInfoRegistry {
+
+		private final WeakHashMap<Class<?>, WeakReference<ClassInfo>> classInfoMap = new WeakHashMap<>();
+
+		synchronized void registerClassInfo(Class<?> classObject, ClassInfo classInfo) {
+			if (this.classInfoMap.containsKey(classObject))
+				throw new AssertionError("The class info for this class has already been registered.");
+			this.classInfoMap.put(classObject, new WeakReference<>(classInfo));
+		}
+
+		synchronized ClassInfo getClassInfo(Class<?> classObject) {
+			WeakReference<ClassInfo> classInfoReference = this.classInfoMap.get(classObject);
+			return classInfoReference == null ? null : classInfoReference.get();
+		}
+	}
+
+	static class Shape {}
+	static class Polygon extends Shape {}
+	static class Quadrilateral extends Polygon {}
+	static class Rectangle extends Quadrilateral {}
+	static class Square extends Rectangle {}
+
+	/**
+	 * Class info lookups for every class in the hierarchy of an object, as done by each {@code inspects} or
+	 * {@code mutates} clause; one of the classes has no class info.
+	 */
+	static void benchmarkClassInfoLookups() throws InterruptedException {
+		Class<?>[] hierarchy = { Square.class, Rectangle.class, Quadrilateral.class, Polygon.class, Shape.class };
+		SynchronizedClassInfoRegistry previousRegistry = new SynchronizedClassInfoRegistry();
+		ClassInfo[] classInfos = new ClassInfo[hierarchy.length - 1]; // keeps the weakly held class infos alive
+		for (int i = 0; i < classInfos.length; i++) {
+			classInfos[i] = new ClassInfo();
+			EffectChecker.registerClassInfo(hierarchy[i], classInfos[i]);
+			previousRegistry.registerClassInfo(hierarchy[i], classInfos[i]);
+		}
+		report("class info lookup", "ClassValue registry", (threadIndex, count) -> {
+			int found = 0;
+			for (int i = 0; i < count; i++)
+				if (EffectChecker.getClassInfo(hierarchy[i % hierarchy.length]) != null)
+					found++;
+			return found;
+		});
+		report("class info lookup", "previous (synchronized)", (threadIndex, count) -> {
+			int found = 0;
+			for (int i = 0; i < count; i++)
+				if (previousRegistry.getClassInfo(hierarchy[i % hierarchy.length]) != null)
+					found++;
+			return found;
+		});
+		sink += classInfos.length;
+	}
+
+	static class Cell {}
+
+	/**
+	 * Nested specification frames, as entered by nested calls of methods with effect clauses: the outermost frame
+	 * mutates a number of objects and each nested frame inspects them again, after which all frames are popped. Time
+	 * and allocation are reported per frame, which stays flat as long as pushing and popping a frame does not depend
+	 * on the depth.
+	 */
+	static void benchmarkNestedFrames() throws InterruptedException {
+		Object[] objects = new Object[8];
+		for (int i = 0; i < objects.length; i++)
+			objects[i] = new Cell();
+		EffectChecker.SpecificationFrame[] frames = new EffectChecker.SpecificationFrame[64];
+		for (int depth = 1; depth <= frames.length; depth <<= 1) {
+			int frameCount = depth;
+			Result result = measure(1, (threadIndex, count) -> {
+				for (int i = 0; i < count; i++) {
+					frames[0] = EffectChecker.pushNewFrame();
+					frames[0].mutatesAll(objects);
+					for (int level = 1; level < frameCount; level++) {
+						frames[level] = EffectChecker.pushNewFrame();
+						frames[level].inspectsAll(objects);
+					}
+					for (int level = frameCount; --level >= 0;)
+						frames[level].pop();
+				}
+				return count;
+			});
+			System.out.println(String.format("%-24s %-28s %8d %12.1f %12.1f",
+					"nested frames per frame", "depth " + depth, 1, result.nanosPerOp / depth, result.bytesPerOp / depth));
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length > 0)
+			warmupMillis = Long.parseLong(args[0]);
+		if (args.length > 1)
+			measurementMillis = Long.parseLong(args[1]);
+
+		System.out.println(String.format("%-24s %-28s %8s %12s %12s", "Benchmark", "Implementation", "Threads", "ns/op", "B/op"));
+		benchmarkIdentityMapLookups();
+		benchmarkClassInfoLookups();
+		benchmarkNestedFrames();
+	}
+
+}
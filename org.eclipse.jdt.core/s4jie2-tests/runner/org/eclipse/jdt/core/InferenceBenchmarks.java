@@ -0,0 +1,126 @@
+package org.eclipse.jdt.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * Measures Java 8 type inference on a generated corpus of fluent-API and {@code Collectors} chains, whose overloads,
+ * poly expressions and nested lambdas make the inference try many alternatives, each on a copy of the bound set.
+ *
+ * <p>The corpus is compiled repeatedly on a single thread; the time and the bytes allocated per compilation are
+ * reported. To compare two versions of the compiler, run this class once with each of them on the class path.</p>
+ *
+ * <p>Usage: {@code InferenceBenchmarks [classCount [iterations]]}; run from the {@code org.eclipse.jdt.core}
+ * directory, like {@link s4jie2Benchmarks}.</p>
+ */
+@SuppressWarnings("nls")
+public class InferenceBenchmarks {
+
+	private static final String corpusPath = "s4jie2-tests/bin_benchmarks/inference";
+
+	static int classCount = 40;
+	static int iterations = 10;
+	static final int warmupIterations = 3;
+
+	/** Answers the source of a corpus class, whose methods vary their chains with the given index. */
+	static String corpusClass(int index) {
+		StringBuilder source = new StringBuilder();
+		source.append("package corpus;\n")
+				.append("import java.util.*;\n")
+				.append("import java.util.function.*;\n")
+				.append("import java.util.stream.*;\n")
+				.append("public class Chains").append(index).append(" {\n")
+				.append("	static <T, K, V> Map<K, List<V>> index(Collection<T> items, Function<? super T, ? extends K> key, Function<? super T, ? extends V> value) {\n")
+				.append("		return items.stream().collect(Collectors.groupingBy(key, TreeMap::new, Collectors.mapping(value, Collectors.toList())));\n")
+				.append("	}\n")
+				.append("	static <T> T pick(Supplier<T> supplier) { return supplier.get(); }\n")
+				.append("	static <T> T pick(T value, BinaryOperator<T> merge) { return merge.apply(value, value); }\n");
+		for (int method = 0; method < 10; method++) {
+			int limit = index + method;
+			source.append("	Object chain").append(method).append("(List<String> words) {\n")
+					.append("		Map<Integer, List<String>> byLength = index(words, String::length, w -> w.substring(0, Math.min(w.length(), ").append(limit).append(")));\n")
+					.append("		Map<Boolean, Map<Character, Long>> counts = words.stream().collect(Collectors.partitioningBy(w -> w.length() > ").append(limit)
+					.append(", Collectors.groupingBy(w -> w.charAt(0), Collectors.counting())));\n")
+					.append("		String joined = Stream.of(words, byLength.getOrDefault(").append(limit).append(", Collections.emptyList())).flatMap(List::stream)\n")
+					.append("			.sorted(Comparator.comparing(String::length).thenComparing(Function.identity()))\n")
+					.append("			.collect(Collectors.joining(\",\"));\n")
+					.append("		Optional<String> longest = pick(() -> words.stream().filter(w -> !w.isEmpty()).reduce((a, b) -> a.length() >= b.length() ? a : b));\n")
+					.append("		IntSummaryStatistics statistics = words.stream().map(String::length).collect(Collectors.summarizingInt(Integer::intValue));\n")
+					.append("		return pick(Arrays.asList(joined, longest.orElse(\"\"), counts.toString(), statistics.toString()), (a, b) -> a.subList(0, ")
+					.append(limit % 4).append("));\n")
+					.append("	}\n");
+		}
+		source.append("}\n");
+		return source.toString();
+	}
+
+	static long allocatedBytes(ThreadMXBean threads) {
+		if (threads instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		return 0;
+	}
+
+	static void compile(String[] args) {
+		StringWriter errWriter = new StringWriter();
+		if (!Main.compile(args, new PrintWriter(new StringWriter()), new PrintWriter(errWriter), null)) {
+			System.err.println("FAIL Benchmark corpus does not compile");
+			System.err.println(errWriter);
+			System.exit(1);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length > 0)
+			classCount = Integer.parseInt(args[0]);
+		if (args.length > 1)
+			iterations = Integer.parseInt(args[1]);
+		if (new File(corpusPath).exists())
+			s4jie2TestSuite.deleteFileTree(corpusPath);
+
+		File sourceDirectory = new File(corpusPath, "src/corpus");
+		sourceDirectory.mkdirs();
+		ArrayList<String> compilerArgs = new ArrayList<>();
+		compilerArgs.add("-1.8");
+		compilerArgs.add("-proc:none");
+		compilerArgs.add("-nowarn");
+		compilerArgs.add("-threads");
+		compilerArgs.add("1");
+		compilerArgs.add("-d");
+		compilerArgs.add(corpusPath + "/bin");
+		for (int i = 0; i < classCount; i++) {
+			File file = new File(sourceDirectory, "Chains" + i + ".java");
+			Files.write(file.toPath(), corpusClass(i).getBytes(StandardCharsets.UTF_8));
+			compilerArgs.add(file.getPath());
+		}
+		String[] compileArgs = compilerArgs.toArray(new String[compilerArgs.size()]);
+
+		for (int i = 0; i < warmupIterations; i++)
+			compile(compileArgs);
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long bytesStart = allocatedBytes(threads);
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++)
+			compile(compileArgs);
+		double millis = (System.nanoTime() - start) / 1e6 / iterations;
+		double megabytes = (double) (allocatedBytes(threads) - bytesStart) / iterations / (1 << 20);
+
+		System.out.println(String.format("%-24s %8s %12s %12s", "Benchmark", "Classes", "Compile ms", "Alloc MB"));
+		System.out.println(String.format("%-24s %8d %12.1f %12.1f", "fluent chains", classCount, millis, megabytes));
+
+		try {
+			s4jie2TestSuite.deleteFileTree(corpusPath);
+		} catch (IOException e) {
+			// leave the corpus for inspection
+		}
+	}
+
+}
@@ -0,0 +1,171 @@
+package org.eclipse.jdt.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * Measures the overhead of fsc4j's formal specification lowering and runtime checks.
+ *
+ * <p>Compiles the non-test sources of a number of {@code src_multifile} projects, together with a workload from
+ * {@code src_benchmarks}, once without contracts ({@code -fsc4jChecks:none}) and once with all checks
+ * ({@code -fsc4jChecks:contracts}), and reports the compilation time as well as the time and the allocated bytes per
+ * operation of each workload, run with assertions enabled.</p>
+ *
+ * <p>Usage: {@code s4jie2Benchmarks [warmupMillis [measurementMillis]]}; run from the {@code org.eclipse.jdt.core}
+ * directory, like {@link s4jie2TestSuite}.</p>
+ */
+@SuppressWarnings("nls")
+public class s4jie2Benchmarks {
+
+	private static final String binPath = "s4jie2-tests/bin_benchmarks";
+	private static final String[] checkLevels = { "none", "contracts" };
+
+	/** Projects in dependency order, with their workloads; every project depends on logicalcollections. */
+	private static final String[][] projects = {
+		{ "logicalcollections", "logicalcollections.benchmarks.LogicalCollectionsWorkload" },
+		{ "bigteams", "bigteams.benchmarks.BigTeamsWorkload" },
+		{ "networks", "networks.benchmarks.NetworksWorkload" },
+		{ "drawit", "drawit.benchmarks.DrawItWorkload" },
+	};
+
+	private static final int compileWarmupIterations = 2;
+	private static final int compileMeasurementIterations = 5;
+
+	static long warmupMillis = 1000;
+	static long measurementMillis = 3000;
+
+	static class Result {
+		double compileMillis;
+		double nanosPerOp;
+		double bytesPerOp;
+	}
+
+	static void collectSources(File file, ArrayList<String> sources) {
+		if (file.isDirectory()) {
+			if (file.getName().equals("tests") || file.getName().endsWith("officialtests"))
+				return;
+			File[] children = file.listFiles();
+			if (children != null)
+				for (File child : children)
+					collectSources(child, sources);
+		} else if (file.getName().endsWith(".java")) {
+			sources.add(file.getPath());
+		}
+	}
+
+	static boolean compile(String project, String checkLevel) {
+		ArrayList<String> args = new ArrayList<>();
+		args.add("-11");
+		args.add("-proc:none");
+		args.add("-nowarn");
+		args.add("-fsc4jChecks:" + checkLevel);
+		if (!project.equals("logicalcollections")) {
+			args.add("-cp");
+			args.add(binPath + "/" + checkLevel + "/logicalcollections");
+		}
+		args.add("-d");
+		args.add(binPath + "/" + checkLevel + "/" + project);
+		collectSources(new File("s4jie2-tests/src_multifile/" + project), args);
+		collectSources(new File("s4jie2-tests/src_benchmarks/" + project), args);
+		StringWriter errWriter = new StringWriter();
+		if (!Main.compile(args.toArray(new String[args.size()]), new PrintWriter(new StringWriter()), new PrintWriter(errWriter), null)) {
+			System.err.println("FAIL Benchmark " + project + " (" + checkLevel + ") does not compile");
+			System.err.println(errWriter);
+			return false;
+		}
+		return true;
+	}
+
+	static double measureCompilation(String project, String checkLevel) {
+		for (int i = 0; i < compileWarmupIterations; i++)
+			if (!compile(project, checkLevel))
+				System.exit(1);
+		long start = System.nanoTime();
+		for (int i = 0; i < compileMeasurementIterations; i++)
+			compile(project, checkLevel);
+		return (System.nanoTime() - start) / 1e6 / compileMeasurementIterations;
+	}
+
+	static long allocatedBytes(ThreadMXBean threads) {
+		if (threads instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		return 0;
+	}
+
+	static void measureWorkload(String project, String workloadClassName, String checkLevel, Result result) throws Exception {
+		URL[] classPath = {
+			new File(binPath + "/" + checkLevel + "/" + project).toURI().toURL(),
+			new File(binPath + "/" + checkLevel + "/logicalcollections").toURI().toURL(),
+		};
+		try (URLClassLoader loader = new URLClassLoader(classPath, s4jie2Benchmarks.class.getClassLoader().getParent())) {
+			loader.setDefaultAssertionStatus(true);
+			Runnable workload = (Runnable) loader.loadClass(workloadClassName).getConstructor().newInstance();
+			long warmupEnd = System.nanoTime() + warmupMillis * 1_000_000;
+			while (System.nanoTime() < warmupEnd)
+				workload.run();
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			long operations = 0;
+			long bytesStart = allocatedBytes(threads);
+			long start = System.nanoTime();
+			long end = start + measurementMillis * 1_000_000;
+			long now;
+			do {
+				for (int i = 0; i < 100; i++)
+					workload.run();
+				operations += 100;
+				now = System.nanoTime();
+			} while (now < end);
+			result.nanosPerOp = (double) (now - start) / operations;
+			result.bytesPerOp = (double) (allocatedBytes(threads) - bytesStart) / operations;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0)
+			warmupMillis = Long.parseLong(args[0]);
+		if (args.length > 1)
+			measurementMillis = Long.parseLong(args[1]);
+		if (new File(binPath).exists())
+			s4jie2TestSuite.deleteFileTree(binPath);
+
+		Result[][] results = new Result[projects.length][checkLevels.length];
+		for (int level = 0; level < checkLevels.length; level++) {
+			for (int i = 0; i < projects.length; i++) {
+				Result result = new Result();
+				result.compileMillis = measureCompilation(projects[i][0], checkLevels[level]);
+				measureWorkload(projects[i][0], projects[i][1], checkLevels[level], result);
+				results[i][level] = result;
+			}
+		}
+
+		System.out.println(String.format("%-20s %-6s %12s %14s %12s %10s",
+				"Benchmark", "Checks", "Compile ms", "ns/op", "B/op", "MB/s"));
+		for (int i = 0; i < projects.length; i++)
+			for (int level = 0; level < checkLevels.length; level++) {
+				Result result = results[i][level];
+				System.out.println(String.format("%-20s %-6s %12.1f %14.1f %12.1f %10.1f",
+						projects[i][0], checkLevels[level], result.compileMillis, result.nanosPerOp, result.bytesPerOp,
+						result.bytesPerOp / result.nanosPerOp * 1e9 / (1 << 20)));
+			}
+		for (int i = 0; i < projects.length; i++)
+			System.out.println(String.format("%-20s contract overhead: %.2fx time, %.2fx allocation", projects[i][0],
+					results[i][1].nanosPerOp / results[i][0].nanosPerOp,
+					results[i][0].bytesPerOp == 0 ? Double.NaN : results[i][1].bytesPerOp / results[i][0].bytesPerOp));
+
+		try {
+			s4jie2TestSuite.deleteFileTree(binPath);
+		} catch (IOException e) {
+			// leave the class files for inspection
+		}
+	}
+
+}
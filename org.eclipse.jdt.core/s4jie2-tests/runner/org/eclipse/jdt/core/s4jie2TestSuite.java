@@ -96,15 +96,23 @@ public class s4jie2TestSuite {
 		testCompile(false, filename, expectedSuccess, outExpected, errExpected);
 	}
 
-	@SuppressWarnings("deprecation")
 	public static void testCompile(boolean asModule, String filename, boolean expectedSuccess, String outExpected, String errExpected) {
-		System.out.println("     Test " + filename + " start");
+		String moduleArgs = asModule ? "--module-source-path s4jie2-tests/src s4jie2-tests/src/module-info.java" : "";
+		testCompile(moduleArgs, filename, filename, expectedSuccess, outExpected, errExpected);
+	}
+
+	/**
+	 * Compiles the given test file with additional compiler options into the output directory with the given name, so
+	 * that one file can be compiled with different options.
+	 */
+	@SuppressWarnings("deprecation")
+	public static void testCompile(String options, String filename, String outputName, boolean expectedSuccess, String outExpected, String errExpected) {
+		System.out.println("     Test " + outputName + " start");
 		StringWriter outWriter = new StringWriter();
 		StringWriter errWriter = new StringWriter();
 		String path = "s4jie2-tests/src/" + filename + ".java";
 		String fullPath = new File(path).getAbsolutePath();
-		String moduleArgs = asModule ? "--module-source-path s4jie2-tests/src s4jie2-tests/src/module-info.java" : "";
-		String args = "-source 10 -proc:none " + moduleArgs + " " + path + " -g -d " + binPath + "/" + filename;
+		String args = "-source 10 -proc:none " + options + " " + path + " -g -d " + binPath + "/" + outputName;
 		if (Main.compile(args, new PrintWriter(outWriter), new PrintWriter(errWriter)) != expectedSuccess) {
 			System.err.println("FAIL compiler success: expected: " + expectedSuccess + "; actual: " + !expectedSuccess);
 			System.err.println("=== standard output start ===");
@@ -117,7 +125,7 @@ public class s4jie2TestSuite {
 		}
 		assertEquals(outWriter.toString().replace(fullPath, "SOURCE_FILE_FULL_PATH"), outExpected, "standard output");
 		assertEquals(errWriter.toString().replace(fullPath, "SOURCE_FILE_FULL_PATH"), errExpected, "standard error");
-		System.out.println("PASS Test " + filename + " compile success");
+		System.out.println("PASS Test " + outputName + " compile success");
 	}
 
 	@SuppressWarnings("deprecation")
@@ -164,10 +172,24 @@ public class s4jie2TestSuite {
 	}
 
 	public static void testCompileAndRun(boolean enableAssertions, String filename, boolean expectedSuccess, String outExpected, String errExpected) throws IOException {
-		testCompile(filename, true, "", "");
+		testCompileAndRun("", filename, filename, new String[] { enableAssertions ? "-ea" : "-da" }, expectedSuccess, outExpected, errExpected);
+	}
 
-		String classpath = binPath+"/"+filename;
-		Process process = new ProcessBuilder(System.getProperty("java.home") + "/bin/java", "-classpath", classpath, enableAssertions ? "-ea" : "-da", "Main").start();
+	/**
+	 * Compiles the given test file with additional compiler options into the output directory with the given name, and
+	 * runs it with the given Java options.
+	 */
+	public static void testCompileAndRun(String compilerOptions, String filename, String outputName, String[] javaOptions, boolean expectedSuccess, String outExpected, String errExpected) throws IOException {
+		testCompile(compilerOptions, filename, outputName, true, "", "");
+
+		ArrayList<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + "/bin/java");
+		command.add("-classpath");
+		command.add(binPath+"/"+outputName);
+		for (String javaOption : javaOptions)
+			command.add(javaOption);
+		command.add("Main");
+		Process process = new ProcessBuilder(command).start();
 		StringBuilder stdoutBuffer = new StringBuilder();
 		Thread stdoutThread = new Thread(() -> readFullyInto(process.getInputStream(), stdoutBuffer));
 		stdoutThread.start();
@@ -197,7 +219,7 @@ public class s4jie2TestSuite {
 		}
 		assertEquals(stdout, outExpected, "standard output");
 		assertEquals(stderr, errExpected, "standard error");
-		System.out.println("PASS Test "+ filename + " execution success");
+		System.out.println("PASS Test "+ outputName + " execution success");
 	}
 	
 	public static void testPartOfStringCompileAndRun(boolean enableAssertions, String filename, boolean expectedSuccess, String partOfOutExpected, String partOfErrExpected) throws IOException {
@@ -1617,6 +1639,67 @@ public class s4jie2TestSuite {
 	    		+ "	at Main.<init>(issue34bis.java:11)\n"
 	    		+ "	at Main.main(issue34bis.java:26)\n");
 		testCompileAndRun(true, "issue35", true, "", "");
+
+		String[] enableAssertions = { "-ea" };
+		testCompileAndRun("-fsc4jChecks:none", "check_levels", "check_levels_none", enableAssertions, true,
+				"runtime: absent\n"
+				+ "precondition: unchecked\n"
+				+ "postcondition: unchecked\n"
+				+ "invariant: unchecked\n", "");
+		testCompileAndRun("-fsc4jChecks:preconditions", "check_levels", "check_levels_preconditions", enableAssertions, true,
+				"runtime: present\n"
+				+ "precondition: checked\n"
+				+ "postcondition: unchecked\n"
+				+ "invariant: unchecked\n"
+				+ "disabled:\n"
+				+ "precondition: unchecked\n"
+				+ "postcondition: unchecked\n"
+				+ "invariant: unchecked\n"
+				+ "enabled:\n"
+				+ "precondition: checked\n"
+				+ "postcondition: unchecked\n"
+				+ "invariant: unchecked\n", "");
+		testCompileAndRun("-fsc4jChecks:contracts", "check_levels", "check_levels_contracts", enableAssertions, true,
+				"runtime: present\n"
+				+ "precondition: checked\n"
+				+ "postcondition: checked\n"
+				+ "invariant: checked\n"
+				+ "disabled:\n"
+				+ "precondition: unchecked\n"
+				+ "postcondition: unchecked\n"
+				+ "invariant: unchecked\n"
+				+ "enabled:\n"
+				+ "precondition: checked\n"
+				+ "postcondition: checked\n"
+				+ "invariant: checked\n", "");
+		testCompileAndRun("-fsc4jChecks:contracts", "check_levels", "check_levels_disabled", new String[] { "-ea", "-Dfsc4j.checks=false" }, true,
+				"runtime: present\n"
+				+ "precondition: unchecked\n"
+				+ "postcondition: unchecked\n"
+				+ "invariant: unchecked\n"
+				+ "disabled:\n"
+				+ "precondition: unchecked\n"
+				+ "postcondition: unchecked\n"
+				+ "invariant: unchecked\n"
+				+ "enabled:\n"
+				+ "precondition: checked\n"
+				+ "postcondition: checked\n"
+				+ "invariant: checked\n", "");
+
+		testCompileAndRun(true, "specification_bypass", true,
+				"allocation: checked by deposit\n"
+				+ "final local: checked by deposit\n"
+				+ "overloaded lambda: checked by deposit\n"
+				+ "anonymous subclass: checked by deposit$spec\n"
+				+ "non-final local: checked by deposit$spec\n"
+				+ "reassigned local: checked by deposit$spec\n", "");
+		testCompileAndRun(true, "invariants_recheck", true,
+				"field write: not rechecked\n"
+				+ "method call: rechecked\n"
+				+ "enum switch: rechecked\n"
+				+ "string switch: rechecked\n"
+				+ "assert message: rechecked\n"
+				+ "static field: rechecked\n", "");
 			    
 		System.out.println("s4jie2TestSuite: All tests passed.");
 	}
@@ -0,0 +1,82 @@
+class Counter {
+
+	/**
+	 * @invar | 0 <= count
+	 */
+	private int count;
+
+	public int getCount() { return count; }
+
+	/**
+	 * @pre | 0 < amount
+	 * @mutates | this
+	 * @post | getCount() == old(getCount()) + amount
+	 */
+	public void add(int amount) {
+		count += amount;
+	}
+
+	/**
+	 * @mutates | this
+	 * @post | getCount() == 0
+	 */
+	public void reset() {
+		count = 1;
+	}
+
+	/**
+	 * @mutates | this
+	 */
+	public void corrupt() {
+		count = -1;
+	}
+
+}
+
+class Main {
+
+	static String outcome(Runnable runnable) {
+		try {
+			runnable.run();
+			return "unchecked";
+		} catch (AssertionError e) {
+			return "checked";
+		}
+	}
+
+	/**
+	 * Each check gets a new counter, which is not allocated at the call site so that the call goes through the
+	 * specification method.
+	 */
+	static Counter newCounter() {
+		return new Counter();
+	}
+
+	static void report() {
+		System.out.println("precondition: " + outcome(() -> newCounter().add(-1)));
+		System.out.println("postcondition: " + outcome(() -> newCounter().reset()));
+		System.out.println("invariant: " + outcome(() -> newCounter().corrupt()));
+	}
+
+	/**
+	 * The runtime is only emitted if checks are generated, so it is looked up reflectively.
+	 */
+	static void setChecksEnabled(boolean enabled) throws ReflectiveOperationException {
+		Class.forName("fsc4j.ContractChecks").getMethod("setEnabled", String.class, boolean.class).invoke(null, "", enabled);
+	}
+
+	public static void main(String[] args) throws ReflectiveOperationException {
+		boolean runtimePresent = Main.class.getClassLoader().getResource("fsc4j/ContractChecks.class") != null;
+		System.out.println("runtime: " + (runtimePresent ? "present" : "absent"));
+		report();
+		if (runtimePresent) {
+			setChecksEnabled(false);
+			System.out.println("disabled:");
+			report();
+			setChecksEnabled(true);
+			System.out.println("enabled:");
+			report();
+		}
+	}
+
+}
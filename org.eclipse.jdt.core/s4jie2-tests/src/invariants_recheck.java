@@ -0,0 +1,103 @@
+import java.util.function.Consumer;
+
+enum Color { RED, GREEN }
+
+class Limits {
+	static int max = 10;
+}
+
+/**
+ * Each method waits, after its entry check, until another thread has broken the invariant on {@code b}. A method that
+ * only writes {@code a} rechecks only the invariant on {@code a} on exit and so misses this; a method that may run
+ * code other than its body, including calls inserted by the compiler, rechecks all invariants.
+ */
+class Pair {
+
+	/** @invar | 0 <= a */
+	private int a;
+	/** @invar | 0 <= b */
+	private int b;
+
+	volatile boolean entered;
+	volatile boolean resumed;
+
+	static void breakB(Pair pair) {
+		pair.b = -1;
+	}
+
+	public void setA(int value) {
+		entered = true;
+		while (!resumed) {}
+		a = value;
+	}
+
+	public void setAAbs(int value) {
+		entered = true;
+		while (!resumed) {}
+		a = Math.abs(value);
+	}
+
+	public void setAByColor(Color color) {
+		entered = true;
+		while (!resumed) {}
+		switch (color) {
+			case RED: a = 1; break;
+			default: a = 2;
+		}
+	}
+
+	public void setAByName(String name) {
+		entered = true;
+		while (!resumed) {}
+		switch (name) {
+			case "one": a = 1; break;
+			default: a = 2;
+		}
+	}
+
+	public void setAChecked(int value, Object message) {
+		entered = true;
+		while (!resumed) {}
+		assert 0 <= value : message;
+		a = value;
+	}
+
+	public void setAToMax() {
+		entered = true;
+		while (!resumed) {}
+		a = Limits.max;
+	}
+
+}
+
+class Main {
+
+	static String recheck(Consumer<Pair> method) throws InterruptedException {
+		Pair pair = new Pair();
+		String[] result = { "not rechecked" };
+		Thread caller = new Thread(() -> {
+			try {
+				method.accept(pair);
+			} catch (AssertionError e) {
+				result[0] = "rechecked";
+			}
+		});
+		caller.start();
+		while (!pair.entered)
+			Thread.onSpinWait();
+		Pair.breakB(pair);
+		pair.resumed = true;
+		caller.join();
+		return result[0];
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		System.out.println("field write: " + recheck(pair -> pair.setA(1)));
+		System.out.println("method call: " + recheck(pair -> pair.setAAbs(1)));
+		System.out.println("enum switch: " + recheck(pair -> pair.setAByColor(Color.RED)));
+		System.out.println("string switch: " + recheck(pair -> pair.setAByName("one")));
+		System.out.println("assert message: " + recheck(pair -> pair.setAChecked(1, "negative")));
+		System.out.println("static field: " + recheck(pair -> pair.setAToMax()));
+	}
+
+}
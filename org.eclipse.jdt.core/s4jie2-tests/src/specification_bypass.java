@@ -0,0 +1,68 @@
+import java.util.concurrent.Callable;
+
+class Account {
+
+	private int balance;
+
+	public int getBalance() { return balance; }
+
+	/**
+	 * @pre | 0 < amount
+	 * @mutates | this
+	 * @post | getBalance() == old(getBalance()) + amount
+	 */
+	public void deposit(int amount) {
+		balance += amount;
+	}
+
+}
+
+class Main {
+
+	/**
+	 * Answers which method checked the failing precondition: {@code deposit$spec} if the call went through the
+	 * specification method, {@code deposit} if it called the method directly and the body checked it.
+	 */
+	static String checkedBy(Runnable runnable) {
+		try {
+			runnable.run();
+			return "unchecked";
+		} catch (AssertionError e) {
+			return "checked by " + e.getStackTrace()[1].getMethodName();
+		}
+	}
+
+	static void run(Runnable runnable) {
+		System.out.println("overloaded lambda: " + checkedBy(runnable));
+	}
+
+	static <T> T run(Callable<T> callable) throws Exception {
+		return callable.call();
+	}
+
+	public static void main(String[] args) {
+		// The receiver is exactly an Account, so these calls bypass deposit$spec
+		System.out.println("allocation: " + checkedBy(() -> new Account().deposit(-1)));
+		System.out.println("final local: " + checkedBy(() -> {
+			final Account account = new Account();
+			account.deposit(-1);
+		}));
+		run(() -> { new Account().deposit(-1); });
+
+		// The receiver may be an instance of a subclass, so these calls go through deposit$spec
+		System.out.println("anonymous subclass: " + checkedBy(() -> new Account() {}.deposit(-1)));
+		System.out.println("non-final local: " + checkedBy(() -> {
+			Account account = new Account();
+			account.deposit(-1);
+		}));
+		System.out.println("reassigned local: " + checkedBy(() -> {
+			Account account = new Account();
+			account = new Account() {
+				@Override
+				public void deposit(int amount) {}
+			};
+			account.deposit(-1);
+		}));
+	}
+
+}
@@ -0,0 +1,27 @@
+package bigteams.benchmarks;
+
+import bigteams.ProjectCourseStudent;
+import bigteams.Team;
+
+/**
+ * One operation: ten students join a team one by one, then leave it again.
+ */
+public class BigTeamsWorkload implements Runnable {
+
+	private final ProjectCourseStudent[] students = new ProjectCourseStudent[10];
+	private final Team team = new Team();
+
+	public BigTeamsWorkload() {
+		for (int i = 0; i < this.students.length; i++)
+			this.students[i] = new ProjectCourseStudent();
+	}
+
+	@Override
+	public void run() {
+		for (ProjectCourseStudent student : this.students)
+			student.join(this.team);
+		for (ProjectCourseStudent student : this.students)
+			student.leaveTeam();
+	}
+
+}
@@ -0,0 +1,28 @@
+package drawit.benchmarks;
+
+import drawit.IntPoint;
+import drawit.RoundedPolygon;
+
+/**
+ * One operation: creates a rounded polygon, inserts and moves a vertex, tests a few points for containment and
+ * renders the polygon's drawing commands.
+ */
+public class DrawItWorkload implements Runnable {
+
+	private static final IntPoint[] square = {
+		new IntPoint(0, 0), new IntPoint(100, 0), new IntPoint(100, 100), new IntPoint(0, 100)
+	};
+
+	@Override
+	public void run() {
+		RoundedPolygon polygon = new RoundedPolygon();
+		polygon.setVertices(square);
+		polygon.insert(2, new IntPoint(110, 50));
+		polygon.update(1, new IntPoint(120, 10));
+		polygon.setRadius(5);
+		for (int x = 10; x <= 130; x += 40)
+			polygon.contains(new IntPoint(x, 50));
+		polygon.getDrawingCommands();
+	}
+
+}
@@ -0,0 +1,29 @@
+package logicalcollections.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+
+import logicalcollections.LogicalList;
+import logicalcollections.LogicalSet;
+
+/**
+ * One operation: grows a list and a set to ten elements, then shrinks them again.
+ */
+public class LogicalCollectionsWorkload implements Runnable {
+
+	@Override
+	public void run() {
+		List<Integer> list = List.of();
+		Set<Integer> set = Set.of();
+		for (int i = 0; i < 10; i++) {
+			list = LogicalList.plus(list, i);
+			set = LogicalSet.plus(set, i);
+		}
+		LogicalList.distinct(list);
+		for (int i = 0; i < 10; i++) {
+			list = LogicalList.minus(list, i);
+			set = LogicalSet.minus(set, i);
+		}
+	}
+
+}
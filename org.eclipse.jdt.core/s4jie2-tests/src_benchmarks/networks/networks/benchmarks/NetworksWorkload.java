@@ -0,0 +1,25 @@
+package networks.benchmarks;
+
+import networks.Node;
+
+/**
+ * One operation: links ten nodes into a ring, then unlinks them again.
+ */
+public class NetworksWorkload implements Runnable {
+
+	private final Node[] nodes = new Node[10];
+
+	public NetworksWorkload() {
+		for (int i = 0; i < this.nodes.length; i++)
+			this.nodes[i] = new Node();
+	}
+
+	@Override
+	public void run() {
+		for (int i = 0; i < this.nodes.length; i++)
+			this.nodes[i].linkTo(this.nodes[(i + 1) % this.nodes.length]);
+		for (int i = 0; i < this.nodes.length; i++)
+			this.nodes[i].unlinkFrom(this.nodes[(i + 1) % this.nodes.length]);
+	}
+
+}